@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import java.io.*;
+import java.util.*;
+import net.jextra.runlet.*;
+
+/**
+ * <p>
+ * Shared fixtures: params objects with 5, 50 or 500 fields and matching argument vectors.
+ * </p>
+ * <p>
+ * The ParamsN classes have public fields, so the runlet annotation processor generates binders for them and the
+ * benchmarks measure the generated path where it applies.
+ * </p>
+ */
+public final class BenchmarkParams
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    public static final PrintStream NULL_OUT = new PrintStream( new OutputStream()
+    {
+        @Override
+        public void write( int b )
+        {
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+        }
+    } );
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private BenchmarkParams()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    public static Object newParams( int fieldCount )
+    {
+        switch ( fieldCount )
+        {
+            case 5:
+                return new Params5();
+            case 50:
+                return new Params50();
+            case 500:
+                return new Params500();
+            default:
+                throw new IllegalArgumentException( "No params class with " + fieldCount + " fields" );
+        }
+    }
+
+    /**
+     * A value for every field, keyed by parameter name.
+     */
+    public static Map<String, String> values( int fieldCount )
+    {
+        Map<String, String> values = new LinkedHashMap<>();
+        for ( ParamDescriptor descriptor : ParamSchema.of( newParams( fieldCount ).getClass() ).getDescriptors() )
+        {
+            values.put( descriptor.getName(), sampleValue( descriptor.getType(), descriptor.getIndex() ) );
+        }
+        return values;
+    }
+
+    /**
+     * --name=value for every field.
+     */
+    public static String[] args( int fieldCount )
+    {
+        List<String> args = new ArrayList<>();
+        for ( Map.Entry<String, String> entry : values( fieldCount ).entrySet() )
+        {
+            args.add( "--" + entry.getKey() + "=" + entry.getValue() );
+        }
+        return args.toArray( new String[0] );
+    }
+
+    public static String sampleValue( Class<?> type, int i )
+    {
+        if ( type == int.class )
+        {
+            return Integer.toString( i );
+        }
+        else if ( type == long.class )
+        {
+            return i + "000000000";
+        }
+        else if ( type == double.class )
+        {
+            return i + ".5";
+        }
+        else if ( type == boolean.class )
+        {
+            return "true";
+        }
+
+        return "value" + i;
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    public static class NoopRunlet
+    {
+        @RunletCommand
+        public void run()
+        {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import java.util.concurrent.*;
+import net.jextra.runlet.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * <p>
+ * Cold start: the first processArgs and execute in a fresh JVM, including class loading and schema building. Every
+ * measurement is a single shot in its own fork.
+ * </p>
+ */
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 0 )
+@Measurement( iterations = 1 )
+@Fork( 20 )
+@State( Scope.Benchmark )
+public class ColdStartBenchmark
+{
+    @Param( { "5", "50", "500" } )
+    public int fieldCount;
+
+    @Benchmark
+    public Object firstRun()
+        throws Exception
+    {
+        Object params = BenchmarkParams.newParams( fieldCount );
+        RunletFactory factory = new RunletFactory( new BenchmarkParams.NoopRunlet(), params );
+        factory.processArgs( BenchmarkParams.args( fieldCount ) );
+        factory.execute();
+        return params;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+import net.jextra.runlet.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * <p>
+ * {@link ParamFields} construction, {@link ParamFields#setValues} and {@link ParamFields#appendArgs} /
+ * {@link RunletFactory#buildArgs}.
+ * </p>
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class ParamFieldsBenchmark
+{
+    @Param( { "5", "50", "500" } )
+    public int fieldCount;
+
+    private Object params;
+    private Map<String, String> values;
+    private ParamFields populated;
+
+    @Setup
+    public void setUp()
+    {
+        params = BenchmarkParams.newParams( fieldCount );
+        values = BenchmarkParams.values( fieldCount );
+        populated = new ParamFields( BenchmarkParams.newParams( fieldCount ) );
+        populated.setValues( values );
+    }
+
+    @Benchmark
+    public ParamFields construct()
+    {
+        return new ParamFields( params );
+    }
+
+    @Benchmark
+    public Object setValues()
+    {
+        new ParamFields( params ).setValues( values );
+        return params;
+    }
+
+    @Benchmark
+    public List<String> appendArgs()
+        throws Exception
+    {
+        return populated.appendArgs( "runlet" );
+    }
+
+    @Benchmark
+    public List<String> buildArgs()
+        throws Exception
+    {
+        return RunletFactory.buildArgs( BenchmarkParams.NoopRunlet.class, params );
+    }
+}
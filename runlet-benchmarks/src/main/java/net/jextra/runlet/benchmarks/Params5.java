@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import net.jextra.runlet.*;
+
+/**
+ * Params class with 5 fields of mixed types for benchmarking, see {@link BenchmarkParams}.
+ */
+public class Params5
+{
+    @ParamField( value = "p0", description = "Parameter 0", required = true )
+    public String p0;
+
+    @ParamField( value = "p1", description = "Parameter 1", required = false )
+    public int p1;
+
+    @ParamField( value = "p2", description = "Parameter 2", required = false )
+    public long p2;
+
+    @ParamField( value = "p3", description = "Parameter 3", required = true )
+    public double p3;
+
+    @ParamField( value = "p4", description = "Parameter 4", required = false )
+    public boolean p4;
+}
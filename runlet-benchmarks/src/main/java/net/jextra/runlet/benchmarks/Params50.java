@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import net.jextra.runlet.*;
+
+/**
+ * Params class with 50 fields of mixed types for benchmarking, see {@link BenchmarkParams}.
+ */
+public class Params50
+{
+    @ParamField( value = "p0", description = "Parameter 0", required = true )
+    public String p0;
+
+    @ParamField( value = "p1", description = "Parameter 1", required = false )
+    public int p1;
+
+    @ParamField( value = "p2", description = "Parameter 2", required = false )
+    public long p2;
+
+    @ParamField( value = "p3", description = "Parameter 3", required = true )
+    public double p3;
+
+    @ParamField( value = "p4", description = "Parameter 4", required = false )
+    public boolean p4;
+
+    @ParamField( value = "p5", description = "Parameter 5", required = false )
+    public String p5;
+
+    @ParamField( value = "p6", description = "Parameter 6", required = true )
+    public int p6;
+
+    @ParamField( value = "p7", description = "Parameter 7", required = false )
+    public long p7;
+
+    @ParamField( value = "p8", description = "Parameter 8", required = false )
+    public double p8;
+
+    @ParamField( value = "p9", description = "Parameter 9", required = true )
+    public boolean p9;
+
+    @ParamField( value = "p10", description = "Parameter 10", required = false )
+    public String p10;
+
+    @ParamField( value = "p11", description = "Parameter 11", required = false )
+    public int p11;
+
+    @ParamField( value = "p12", description = "Parameter 12", required = true )
+    public long p12;
+
+    @ParamField( value = "p13", description = "Parameter 13", required = false )
+    public double p13;
+
+    @ParamField( value = "p14", description = "Parameter 14", required = false )
+    public boolean p14;
+
+    @ParamField( value = "p15", description = "Parameter 15", required = true )
+    public String p15;
+
+    @ParamField( value = "p16", description = "Parameter 16", required = false )
+    public int p16;
+
+    @ParamField( value = "p17", description = "Parameter 17", required = false )
+    public long p17;
+
+    @ParamField( value = "p18", description = "Parameter 18", required = true )
+    public double p18;
+
+    @ParamField( value = "p19", description = "Parameter 19", required = false )
+    public boolean p19;
+
+    @ParamField( value = "p20", description = "Parameter 20", required = false )
+    public String p20;
+
+    @ParamField( value = "p21", description = "Parameter 21", required = true )
+    public int p21;
+
+    @ParamField( value = "p22", description = "Parameter 22", required = false )
+    public long p22;
+
+    @ParamField( value = "p23", description = "Parameter 23", required = false )
+    public double p23;
+
+    @ParamField( value = "p24", description = "Parameter 24", required = true )
+    public boolean p24;
+
+    @ParamField( value = "p25", description = "Parameter 25", required = false )
+    public String p25;
+
+    @ParamField( value = "p26", description = "Parameter 26", required = false )
+    public int p26;
+
+    @ParamField( value = "p27", description = "Parameter 27", required = true )
+    public long p27;
+
+    @ParamField( value = "p28", description = "Parameter 28", required = false )
+    public double p28;
+
+    @ParamField( value = "p29", description = "Parameter 29", required = false )
+    public boolean p29;
+
+    @ParamField( value = "p30", description = "Parameter 30", required = true )
+    public String p30;
+
+    @ParamField( value = "p31", description = "Parameter 31", required = false )
+    public int p31;
+
+    @ParamField( value = "p32", description = "Parameter 32", required = false )
+    public long p32;
+
+    @ParamField( value = "p33", description = "Parameter 33", required = true )
+    public double p33;
+
+    @ParamField( value = "p34", description = "Parameter 34", required = false )
+    public boolean p34;
+
+    @ParamField( value = "p35", description = "Parameter 35", required = false )
+    public String p35;
+
+    @ParamField( value = "p36", description = "Parameter 36", required = true )
+    public int p36;
+
+    @ParamField( value = "p37", description = "Parameter 37", required = false )
+    public long p37;
+
+    @ParamField( value = "p38", description = "Parameter 38", required = false )
+    public double p38;
+
+    @ParamField( value = "p39", description = "Parameter 39", required = true )
+    public boolean p39;
+
+    @ParamField( value = "p40", description = "Parameter 40", required = false )
+    public String p40;
+
+    @ParamField( value = "p41", description = "Parameter 41", required = false )
+    public int p41;
+
+    @ParamField( value = "p42", description = "Parameter 42", required = true )
+    public long p42;
+
+    @ParamField( value = "p43", description = "Parameter 43", required = false )
+    public double p43;
+
+    @ParamField( value = "p44", description = "Parameter 44", required = false )
+    public boolean p44;
+
+    @ParamField( value = "p45", description = "Parameter 45", required = true )
+    public String p45;
+
+    @ParamField( value = "p46", description = "Parameter 46", required = false )
+    public int p46;
+
+    @ParamField( value = "p47", description = "Parameter 47", required = false )
+    public long p47;
+
+    @ParamField( value = "p48", description = "Parameter 48", required = true )
+    public double p48;
+
+    @ParamField( value = "p49", description = "Parameter 49", required = false )
+    public boolean p49;
+}
@@ -0,0 +1,1530 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import net.jextra.runlet.*;
+
+/**
+ * Params class with 500 fields of mixed types for benchmarking, see {@link BenchmarkParams}.
+ */
+public class Params500
+{
+    @ParamField( value = "p0", description = "Parameter 0", required = true )
+    public String p0;
+
+    @ParamField( value = "p1", description = "Parameter 1", required = false )
+    public int p1;
+
+    @ParamField( value = "p2", description = "Parameter 2", required = false )
+    public long p2;
+
+    @ParamField( value = "p3", description = "Parameter 3", required = true )
+    public double p3;
+
+    @ParamField( value = "p4", description = "Parameter 4", required = false )
+    public boolean p4;
+
+    @ParamField( value = "p5", description = "Parameter 5", required = false )
+    public String p5;
+
+    @ParamField( value = "p6", description = "Parameter 6", required = true )
+    public int p6;
+
+    @ParamField( value = "p7", description = "Parameter 7", required = false )
+    public long p7;
+
+    @ParamField( value = "p8", description = "Parameter 8", required = false )
+    public double p8;
+
+    @ParamField( value = "p9", description = "Parameter 9", required = true )
+    public boolean p9;
+
+    @ParamField( value = "p10", description = "Parameter 10", required = false )
+    public String p10;
+
+    @ParamField( value = "p11", description = "Parameter 11", required = false )
+    public int p11;
+
+    @ParamField( value = "p12", description = "Parameter 12", required = true )
+    public long p12;
+
+    @ParamField( value = "p13", description = "Parameter 13", required = false )
+    public double p13;
+
+    @ParamField( value = "p14", description = "Parameter 14", required = false )
+    public boolean p14;
+
+    @ParamField( value = "p15", description = "Parameter 15", required = true )
+    public String p15;
+
+    @ParamField( value = "p16", description = "Parameter 16", required = false )
+    public int p16;
+
+    @ParamField( value = "p17", description = "Parameter 17", required = false )
+    public long p17;
+
+    @ParamField( value = "p18", description = "Parameter 18", required = true )
+    public double p18;
+
+    @ParamField( value = "p19", description = "Parameter 19", required = false )
+    public boolean p19;
+
+    @ParamField( value = "p20", description = "Parameter 20", required = false )
+    public String p20;
+
+    @ParamField( value = "p21", description = "Parameter 21", required = true )
+    public int p21;
+
+    @ParamField( value = "p22", description = "Parameter 22", required = false )
+    public long p22;
+
+    @ParamField( value = "p23", description = "Parameter 23", required = false )
+    public double p23;
+
+    @ParamField( value = "p24", description = "Parameter 24", required = true )
+    public boolean p24;
+
+    @ParamField( value = "p25", description = "Parameter 25", required = false )
+    public String p25;
+
+    @ParamField( value = "p26", description = "Parameter 26", required = false )
+    public int p26;
+
+    @ParamField( value = "p27", description = "Parameter 27", required = true )
+    public long p27;
+
+    @ParamField( value = "p28", description = "Parameter 28", required = false )
+    public double p28;
+
+    @ParamField( value = "p29", description = "Parameter 29", required = false )
+    public boolean p29;
+
+    @ParamField( value = "p30", description = "Parameter 30", required = true )
+    public String p30;
+
+    @ParamField( value = "p31", description = "Parameter 31", required = false )
+    public int p31;
+
+    @ParamField( value = "p32", description = "Parameter 32", required = false )
+    public long p32;
+
+    @ParamField( value = "p33", description = "Parameter 33", required = true )
+    public double p33;
+
+    @ParamField( value = "p34", description = "Parameter 34", required = false )
+    public boolean p34;
+
+    @ParamField( value = "p35", description = "Parameter 35", required = false )
+    public String p35;
+
+    @ParamField( value = "p36", description = "Parameter 36", required = true )
+    public int p36;
+
+    @ParamField( value = "p37", description = "Parameter 37", required = false )
+    public long p37;
+
+    @ParamField( value = "p38", description = "Parameter 38", required = false )
+    public double p38;
+
+    @ParamField( value = "p39", description = "Parameter 39", required = true )
+    public boolean p39;
+
+    @ParamField( value = "p40", description = "Parameter 40", required = false )
+    public String p40;
+
+    @ParamField( value = "p41", description = "Parameter 41", required = false )
+    public int p41;
+
+    @ParamField( value = "p42", description = "Parameter 42", required = true )
+    public long p42;
+
+    @ParamField( value = "p43", description = "Parameter 43", required = false )
+    public double p43;
+
+    @ParamField( value = "p44", description = "Parameter 44", required = false )
+    public boolean p44;
+
+    @ParamField( value = "p45", description = "Parameter 45", required = true )
+    public String p45;
+
+    @ParamField( value = "p46", description = "Parameter 46", required = false )
+    public int p46;
+
+    @ParamField( value = "p47", description = "Parameter 47", required = false )
+    public long p47;
+
+    @ParamField( value = "p48", description = "Parameter 48", required = true )
+    public double p48;
+
+    @ParamField( value = "p49", description = "Parameter 49", required = false )
+    public boolean p49;
+
+    @ParamField( value = "p50", description = "Parameter 50", required = false )
+    public String p50;
+
+    @ParamField( value = "p51", description = "Parameter 51", required = true )
+    public int p51;
+
+    @ParamField( value = "p52", description = "Parameter 52", required = false )
+    public long p52;
+
+    @ParamField( value = "p53", description = "Parameter 53", required = false )
+    public double p53;
+
+    @ParamField( value = "p54", description = "Parameter 54", required = true )
+    public boolean p54;
+
+    @ParamField( value = "p55", description = "Parameter 55", required = false )
+    public String p55;
+
+    @ParamField( value = "p56", description = "Parameter 56", required = false )
+    public int p56;
+
+    @ParamField( value = "p57", description = "Parameter 57", required = true )
+    public long p57;
+
+    @ParamField( value = "p58", description = "Parameter 58", required = false )
+    public double p58;
+
+    @ParamField( value = "p59", description = "Parameter 59", required = false )
+    public boolean p59;
+
+    @ParamField( value = "p60", description = "Parameter 60", required = true )
+    public String p60;
+
+    @ParamField( value = "p61", description = "Parameter 61", required = false )
+    public int p61;
+
+    @ParamField( value = "p62", description = "Parameter 62", required = false )
+    public long p62;
+
+    @ParamField( value = "p63", description = "Parameter 63", required = true )
+    public double p63;
+
+    @ParamField( value = "p64", description = "Parameter 64", required = false )
+    public boolean p64;
+
+    @ParamField( value = "p65", description = "Parameter 65", required = false )
+    public String p65;
+
+    @ParamField( value = "p66", description = "Parameter 66", required = true )
+    public int p66;
+
+    @ParamField( value = "p67", description = "Parameter 67", required = false )
+    public long p67;
+
+    @ParamField( value = "p68", description = "Parameter 68", required = false )
+    public double p68;
+
+    @ParamField( value = "p69", description = "Parameter 69", required = true )
+    public boolean p69;
+
+    @ParamField( value = "p70", description = "Parameter 70", required = false )
+    public String p70;
+
+    @ParamField( value = "p71", description = "Parameter 71", required = false )
+    public int p71;
+
+    @ParamField( value = "p72", description = "Parameter 72", required = true )
+    public long p72;
+
+    @ParamField( value = "p73", description = "Parameter 73", required = false )
+    public double p73;
+
+    @ParamField( value = "p74", description = "Parameter 74", required = false )
+    public boolean p74;
+
+    @ParamField( value = "p75", description = "Parameter 75", required = true )
+    public String p75;
+
+    @ParamField( value = "p76", description = "Parameter 76", required = false )
+    public int p76;
+
+    @ParamField( value = "p77", description = "Parameter 77", required = false )
+    public long p77;
+
+    @ParamField( value = "p78", description = "Parameter 78", required = true )
+    public double p78;
+
+    @ParamField( value = "p79", description = "Parameter 79", required = false )
+    public boolean p79;
+
+    @ParamField( value = "p80", description = "Parameter 80", required = false )
+    public String p80;
+
+    @ParamField( value = "p81", description = "Parameter 81", required = true )
+    public int p81;
+
+    @ParamField( value = "p82", description = "Parameter 82", required = false )
+    public long p82;
+
+    @ParamField( value = "p83", description = "Parameter 83", required = false )
+    public double p83;
+
+    @ParamField( value = "p84", description = "Parameter 84", required = true )
+    public boolean p84;
+
+    @ParamField( value = "p85", description = "Parameter 85", required = false )
+    public String p85;
+
+    @ParamField( value = "p86", description = "Parameter 86", required = false )
+    public int p86;
+
+    @ParamField( value = "p87", description = "Parameter 87", required = true )
+    public long p87;
+
+    @ParamField( value = "p88", description = "Parameter 88", required = false )
+    public double p88;
+
+    @ParamField( value = "p89", description = "Parameter 89", required = false )
+    public boolean p89;
+
+    @ParamField( value = "p90", description = "Parameter 90", required = true )
+    public String p90;
+
+    @ParamField( value = "p91", description = "Parameter 91", required = false )
+    public int p91;
+
+    @ParamField( value = "p92", description = "Parameter 92", required = false )
+    public long p92;
+
+    @ParamField( value = "p93", description = "Parameter 93", required = true )
+    public double p93;
+
+    @ParamField( value = "p94", description = "Parameter 94", required = false )
+    public boolean p94;
+
+    @ParamField( value = "p95", description = "Parameter 95", required = false )
+    public String p95;
+
+    @ParamField( value = "p96", description = "Parameter 96", required = true )
+    public int p96;
+
+    @ParamField( value = "p97", description = "Parameter 97", required = false )
+    public long p97;
+
+    @ParamField( value = "p98", description = "Parameter 98", required = false )
+    public double p98;
+
+    @ParamField( value = "p99", description = "Parameter 99", required = true )
+    public boolean p99;
+
+    @ParamField( value = "p100", description = "Parameter 100", required = false )
+    public String p100;
+
+    @ParamField( value = "p101", description = "Parameter 101", required = false )
+    public int p101;
+
+    @ParamField( value = "p102", description = "Parameter 102", required = true )
+    public long p102;
+
+    @ParamField( value = "p103", description = "Parameter 103", required = false )
+    public double p103;
+
+    @ParamField( value = "p104", description = "Parameter 104", required = false )
+    public boolean p104;
+
+    @ParamField( value = "p105", description = "Parameter 105", required = true )
+    public String p105;
+
+    @ParamField( value = "p106", description = "Parameter 106", required = false )
+    public int p106;
+
+    @ParamField( value = "p107", description = "Parameter 107", required = false )
+    public long p107;
+
+    @ParamField( value = "p108", description = "Parameter 108", required = true )
+    public double p108;
+
+    @ParamField( value = "p109", description = "Parameter 109", required = false )
+    public boolean p109;
+
+    @ParamField( value = "p110", description = "Parameter 110", required = false )
+    public String p110;
+
+    @ParamField( value = "p111", description = "Parameter 111", required = true )
+    public int p111;
+
+    @ParamField( value = "p112", description = "Parameter 112", required = false )
+    public long p112;
+
+    @ParamField( value = "p113", description = "Parameter 113", required = false )
+    public double p113;
+
+    @ParamField( value = "p114", description = "Parameter 114", required = true )
+    public boolean p114;
+
+    @ParamField( value = "p115", description = "Parameter 115", required = false )
+    public String p115;
+
+    @ParamField( value = "p116", description = "Parameter 116", required = false )
+    public int p116;
+
+    @ParamField( value = "p117", description = "Parameter 117", required = true )
+    public long p117;
+
+    @ParamField( value = "p118", description = "Parameter 118", required = false )
+    public double p118;
+
+    @ParamField( value = "p119", description = "Parameter 119", required = false )
+    public boolean p119;
+
+    @ParamField( value = "p120", description = "Parameter 120", required = true )
+    public String p120;
+
+    @ParamField( value = "p121", description = "Parameter 121", required = false )
+    public int p121;
+
+    @ParamField( value = "p122", description = "Parameter 122", required = false )
+    public long p122;
+
+    @ParamField( value = "p123", description = "Parameter 123", required = true )
+    public double p123;
+
+    @ParamField( value = "p124", description = "Parameter 124", required = false )
+    public boolean p124;
+
+    @ParamField( value = "p125", description = "Parameter 125", required = false )
+    public String p125;
+
+    @ParamField( value = "p126", description = "Parameter 126", required = true )
+    public int p126;
+
+    @ParamField( value = "p127", description = "Parameter 127", required = false )
+    public long p127;
+
+    @ParamField( value = "p128", description = "Parameter 128", required = false )
+    public double p128;
+
+    @ParamField( value = "p129", description = "Parameter 129", required = true )
+    public boolean p129;
+
+    @ParamField( value = "p130", description = "Parameter 130", required = false )
+    public String p130;
+
+    @ParamField( value = "p131", description = "Parameter 131", required = false )
+    public int p131;
+
+    @ParamField( value = "p132", description = "Parameter 132", required = true )
+    public long p132;
+
+    @ParamField( value = "p133", description = "Parameter 133", required = false )
+    public double p133;
+
+    @ParamField( value = "p134", description = "Parameter 134", required = false )
+    public boolean p134;
+
+    @ParamField( value = "p135", description = "Parameter 135", required = true )
+    public String p135;
+
+    @ParamField( value = "p136", description = "Parameter 136", required = false )
+    public int p136;
+
+    @ParamField( value = "p137", description = "Parameter 137", required = false )
+    public long p137;
+
+    @ParamField( value = "p138", description = "Parameter 138", required = true )
+    public double p138;
+
+    @ParamField( value = "p139", description = "Parameter 139", required = false )
+    public boolean p139;
+
+    @ParamField( value = "p140", description = "Parameter 140", required = false )
+    public String p140;
+
+    @ParamField( value = "p141", description = "Parameter 141", required = true )
+    public int p141;
+
+    @ParamField( value = "p142", description = "Parameter 142", required = false )
+    public long p142;
+
+    @ParamField( value = "p143", description = "Parameter 143", required = false )
+    public double p143;
+
+    @ParamField( value = "p144", description = "Parameter 144", required = true )
+    public boolean p144;
+
+    @ParamField( value = "p145", description = "Parameter 145", required = false )
+    public String p145;
+
+    @ParamField( value = "p146", description = "Parameter 146", required = false )
+    public int p146;
+
+    @ParamField( value = "p147", description = "Parameter 147", required = true )
+    public long p147;
+
+    @ParamField( value = "p148", description = "Parameter 148", required = false )
+    public double p148;
+
+    @ParamField( value = "p149", description = "Parameter 149", required = false )
+    public boolean p149;
+
+    @ParamField( value = "p150", description = "Parameter 150", required = true )
+    public String p150;
+
+    @ParamField( value = "p151", description = "Parameter 151", required = false )
+    public int p151;
+
+    @ParamField( value = "p152", description = "Parameter 152", required = false )
+    public long p152;
+
+    @ParamField( value = "p153", description = "Parameter 153", required = true )
+    public double p153;
+
+    @ParamField( value = "p154", description = "Parameter 154", required = false )
+    public boolean p154;
+
+    @ParamField( value = "p155", description = "Parameter 155", required = false )
+    public String p155;
+
+    @ParamField( value = "p156", description = "Parameter 156", required = true )
+    public int p156;
+
+    @ParamField( value = "p157", description = "Parameter 157", required = false )
+    public long p157;
+
+    @ParamField( value = "p158", description = "Parameter 158", required = false )
+    public double p158;
+
+    @ParamField( value = "p159", description = "Parameter 159", required = true )
+    public boolean p159;
+
+    @ParamField( value = "p160", description = "Parameter 160", required = false )
+    public String p160;
+
+    @ParamField( value = "p161", description = "Parameter 161", required = false )
+    public int p161;
+
+    @ParamField( value = "p162", description = "Parameter 162", required = true )
+    public long p162;
+
+    @ParamField( value = "p163", description = "Parameter 163", required = false )
+    public double p163;
+
+    @ParamField( value = "p164", description = "Parameter 164", required = false )
+    public boolean p164;
+
+    @ParamField( value = "p165", description = "Parameter 165", required = true )
+    public String p165;
+
+    @ParamField( value = "p166", description = "Parameter 166", required = false )
+    public int p166;
+
+    @ParamField( value = "p167", description = "Parameter 167", required = false )
+    public long p167;
+
+    @ParamField( value = "p168", description = "Parameter 168", required = true )
+    public double p168;
+
+    @ParamField( value = "p169", description = "Parameter 169", required = false )
+    public boolean p169;
+
+    @ParamField( value = "p170", description = "Parameter 170", required = false )
+    public String p170;
+
+    @ParamField( value = "p171", description = "Parameter 171", required = true )
+    public int p171;
+
+    @ParamField( value = "p172", description = "Parameter 172", required = false )
+    public long p172;
+
+    @ParamField( value = "p173", description = "Parameter 173", required = false )
+    public double p173;
+
+    @ParamField( value = "p174", description = "Parameter 174", required = true )
+    public boolean p174;
+
+    @ParamField( value = "p175", description = "Parameter 175", required = false )
+    public String p175;
+
+    @ParamField( value = "p176", description = "Parameter 176", required = false )
+    public int p176;
+
+    @ParamField( value = "p177", description = "Parameter 177", required = true )
+    public long p177;
+
+    @ParamField( value = "p178", description = "Parameter 178", required = false )
+    public double p178;
+
+    @ParamField( value = "p179", description = "Parameter 179", required = false )
+    public boolean p179;
+
+    @ParamField( value = "p180", description = "Parameter 180", required = true )
+    public String p180;
+
+    @ParamField( value = "p181", description = "Parameter 181", required = false )
+    public int p181;
+
+    @ParamField( value = "p182", description = "Parameter 182", required = false )
+    public long p182;
+
+    @ParamField( value = "p183", description = "Parameter 183", required = true )
+    public double p183;
+
+    @ParamField( value = "p184", description = "Parameter 184", required = false )
+    public boolean p184;
+
+    @ParamField( value = "p185", description = "Parameter 185", required = false )
+    public String p185;
+
+    @ParamField( value = "p186", description = "Parameter 186", required = true )
+    public int p186;
+
+    @ParamField( value = "p187", description = "Parameter 187", required = false )
+    public long p187;
+
+    @ParamField( value = "p188", description = "Parameter 188", required = false )
+    public double p188;
+
+    @ParamField( value = "p189", description = "Parameter 189", required = true )
+    public boolean p189;
+
+    @ParamField( value = "p190", description = "Parameter 190", required = false )
+    public String p190;
+
+    @ParamField( value = "p191", description = "Parameter 191", required = false )
+    public int p191;
+
+    @ParamField( value = "p192", description = "Parameter 192", required = true )
+    public long p192;
+
+    @ParamField( value = "p193", description = "Parameter 193", required = false )
+    public double p193;
+
+    @ParamField( value = "p194", description = "Parameter 194", required = false )
+    public boolean p194;
+
+    @ParamField( value = "p195", description = "Parameter 195", required = true )
+    public String p195;
+
+    @ParamField( value = "p196", description = "Parameter 196", required = false )
+    public int p196;
+
+    @ParamField( value = "p197", description = "Parameter 197", required = false )
+    public long p197;
+
+    @ParamField( value = "p198", description = "Parameter 198", required = true )
+    public double p198;
+
+    @ParamField( value = "p199", description = "Parameter 199", required = false )
+    public boolean p199;
+
+    @ParamField( value = "p200", description = "Parameter 200", required = false )
+    public String p200;
+
+    @ParamField( value = "p201", description = "Parameter 201", required = true )
+    public int p201;
+
+    @ParamField( value = "p202", description = "Parameter 202", required = false )
+    public long p202;
+
+    @ParamField( value = "p203", description = "Parameter 203", required = false )
+    public double p203;
+
+    @ParamField( value = "p204", description = "Parameter 204", required = true )
+    public boolean p204;
+
+    @ParamField( value = "p205", description = "Parameter 205", required = false )
+    public String p205;
+
+    @ParamField( value = "p206", description = "Parameter 206", required = false )
+    public int p206;
+
+    @ParamField( value = "p207", description = "Parameter 207", required = true )
+    public long p207;
+
+    @ParamField( value = "p208", description = "Parameter 208", required = false )
+    public double p208;
+
+    @ParamField( value = "p209", description = "Parameter 209", required = false )
+    public boolean p209;
+
+    @ParamField( value = "p210", description = "Parameter 210", required = true )
+    public String p210;
+
+    @ParamField( value = "p211", description = "Parameter 211", required = false )
+    public int p211;
+
+    @ParamField( value = "p212", description = "Parameter 212", required = false )
+    public long p212;
+
+    @ParamField( value = "p213", description = "Parameter 213", required = true )
+    public double p213;
+
+    @ParamField( value = "p214", description = "Parameter 214", required = false )
+    public boolean p214;
+
+    @ParamField( value = "p215", description = "Parameter 215", required = false )
+    public String p215;
+
+    @ParamField( value = "p216", description = "Parameter 216", required = true )
+    public int p216;
+
+    @ParamField( value = "p217", description = "Parameter 217", required = false )
+    public long p217;
+
+    @ParamField( value = "p218", description = "Parameter 218", required = false )
+    public double p218;
+
+    @ParamField( value = "p219", description = "Parameter 219", required = true )
+    public boolean p219;
+
+    @ParamField( value = "p220", description = "Parameter 220", required = false )
+    public String p220;
+
+    @ParamField( value = "p221", description = "Parameter 221", required = false )
+    public int p221;
+
+    @ParamField( value = "p222", description = "Parameter 222", required = true )
+    public long p222;
+
+    @ParamField( value = "p223", description = "Parameter 223", required = false )
+    public double p223;
+
+    @ParamField( value = "p224", description = "Parameter 224", required = false )
+    public boolean p224;
+
+    @ParamField( value = "p225", description = "Parameter 225", required = true )
+    public String p225;
+
+    @ParamField( value = "p226", description = "Parameter 226", required = false )
+    public int p226;
+
+    @ParamField( value = "p227", description = "Parameter 227", required = false )
+    public long p227;
+
+    @ParamField( value = "p228", description = "Parameter 228", required = true )
+    public double p228;
+
+    @ParamField( value = "p229", description = "Parameter 229", required = false )
+    public boolean p229;
+
+    @ParamField( value = "p230", description = "Parameter 230", required = false )
+    public String p230;
+
+    @ParamField( value = "p231", description = "Parameter 231", required = true )
+    public int p231;
+
+    @ParamField( value = "p232", description = "Parameter 232", required = false )
+    public long p232;
+
+    @ParamField( value = "p233", description = "Parameter 233", required = false )
+    public double p233;
+
+    @ParamField( value = "p234", description = "Parameter 234", required = true )
+    public boolean p234;
+
+    @ParamField( value = "p235", description = "Parameter 235", required = false )
+    public String p235;
+
+    @ParamField( value = "p236", description = "Parameter 236", required = false )
+    public int p236;
+
+    @ParamField( value = "p237", description = "Parameter 237", required = true )
+    public long p237;
+
+    @ParamField( value = "p238", description = "Parameter 238", required = false )
+    public double p238;
+
+    @ParamField( value = "p239", description = "Parameter 239", required = false )
+    public boolean p239;
+
+    @ParamField( value = "p240", description = "Parameter 240", required = true )
+    public String p240;
+
+    @ParamField( value = "p241", description = "Parameter 241", required = false )
+    public int p241;
+
+    @ParamField( value = "p242", description = "Parameter 242", required = false )
+    public long p242;
+
+    @ParamField( value = "p243", description = "Parameter 243", required = true )
+    public double p243;
+
+    @ParamField( value = "p244", description = "Parameter 244", required = false )
+    public boolean p244;
+
+    @ParamField( value = "p245", description = "Parameter 245", required = false )
+    public String p245;
+
+    @ParamField( value = "p246", description = "Parameter 246", required = true )
+    public int p246;
+
+    @ParamField( value = "p247", description = "Parameter 247", required = false )
+    public long p247;
+
+    @ParamField( value = "p248", description = "Parameter 248", required = false )
+    public double p248;
+
+    @ParamField( value = "p249", description = "Parameter 249", required = true )
+    public boolean p249;
+
+    @ParamField( value = "p250", description = "Parameter 250", required = false )
+    public String p250;
+
+    @ParamField( value = "p251", description = "Parameter 251", required = false )
+    public int p251;
+
+    @ParamField( value = "p252", description = "Parameter 252", required = true )
+    public long p252;
+
+    @ParamField( value = "p253", description = "Parameter 253", required = false )
+    public double p253;
+
+    @ParamField( value = "p254", description = "Parameter 254", required = false )
+    public boolean p254;
+
+    @ParamField( value = "p255", description = "Parameter 255", required = true )
+    public String p255;
+
+    @ParamField( value = "p256", description = "Parameter 256", required = false )
+    public int p256;
+
+    @ParamField( value = "p257", description = "Parameter 257", required = false )
+    public long p257;
+
+    @ParamField( value = "p258", description = "Parameter 258", required = true )
+    public double p258;
+
+    @ParamField( value = "p259", description = "Parameter 259", required = false )
+    public boolean p259;
+
+    @ParamField( value = "p260", description = "Parameter 260", required = false )
+    public String p260;
+
+    @ParamField( value = "p261", description = "Parameter 261", required = true )
+    public int p261;
+
+    @ParamField( value = "p262", description = "Parameter 262", required = false )
+    public long p262;
+
+    @ParamField( value = "p263", description = "Parameter 263", required = false )
+    public double p263;
+
+    @ParamField( value = "p264", description = "Parameter 264", required = true )
+    public boolean p264;
+
+    @ParamField( value = "p265", description = "Parameter 265", required = false )
+    public String p265;
+
+    @ParamField( value = "p266", description = "Parameter 266", required = false )
+    public int p266;
+
+    @ParamField( value = "p267", description = "Parameter 267", required = true )
+    public long p267;
+
+    @ParamField( value = "p268", description = "Parameter 268", required = false )
+    public double p268;
+
+    @ParamField( value = "p269", description = "Parameter 269", required = false )
+    public boolean p269;
+
+    @ParamField( value = "p270", description = "Parameter 270", required = true )
+    public String p270;
+
+    @ParamField( value = "p271", description = "Parameter 271", required = false )
+    public int p271;
+
+    @ParamField( value = "p272", description = "Parameter 272", required = false )
+    public long p272;
+
+    @ParamField( value = "p273", description = "Parameter 273", required = true )
+    public double p273;
+
+    @ParamField( value = "p274", description = "Parameter 274", required = false )
+    public boolean p274;
+
+    @ParamField( value = "p275", description = "Parameter 275", required = false )
+    public String p275;
+
+    @ParamField( value = "p276", description = "Parameter 276", required = true )
+    public int p276;
+
+    @ParamField( value = "p277", description = "Parameter 277", required = false )
+    public long p277;
+
+    @ParamField( value = "p278", description = "Parameter 278", required = false )
+    public double p278;
+
+    @ParamField( value = "p279", description = "Parameter 279", required = true )
+    public boolean p279;
+
+    @ParamField( value = "p280", description = "Parameter 280", required = false )
+    public String p280;
+
+    @ParamField( value = "p281", description = "Parameter 281", required = false )
+    public int p281;
+
+    @ParamField( value = "p282", description = "Parameter 282", required = true )
+    public long p282;
+
+    @ParamField( value = "p283", description = "Parameter 283", required = false )
+    public double p283;
+
+    @ParamField( value = "p284", description = "Parameter 284", required = false )
+    public boolean p284;
+
+    @ParamField( value = "p285", description = "Parameter 285", required = true )
+    public String p285;
+
+    @ParamField( value = "p286", description = "Parameter 286", required = false )
+    public int p286;
+
+    @ParamField( value = "p287", description = "Parameter 287", required = false )
+    public long p287;
+
+    @ParamField( value = "p288", description = "Parameter 288", required = true )
+    public double p288;
+
+    @ParamField( value = "p289", description = "Parameter 289", required = false )
+    public boolean p289;
+
+    @ParamField( value = "p290", description = "Parameter 290", required = false )
+    public String p290;
+
+    @ParamField( value = "p291", description = "Parameter 291", required = true )
+    public int p291;
+
+    @ParamField( value = "p292", description = "Parameter 292", required = false )
+    public long p292;
+
+    @ParamField( value = "p293", description = "Parameter 293", required = false )
+    public double p293;
+
+    @ParamField( value = "p294", description = "Parameter 294", required = true )
+    public boolean p294;
+
+    @ParamField( value = "p295", description = "Parameter 295", required = false )
+    public String p295;
+
+    @ParamField( value = "p296", description = "Parameter 296", required = false )
+    public int p296;
+
+    @ParamField( value = "p297", description = "Parameter 297", required = true )
+    public long p297;
+
+    @ParamField( value = "p298", description = "Parameter 298", required = false )
+    public double p298;
+
+    @ParamField( value = "p299", description = "Parameter 299", required = false )
+    public boolean p299;
+
+    @ParamField( value = "p300", description = "Parameter 300", required = true )
+    public String p300;
+
+    @ParamField( value = "p301", description = "Parameter 301", required = false )
+    public int p301;
+
+    @ParamField( value = "p302", description = "Parameter 302", required = false )
+    public long p302;
+
+    @ParamField( value = "p303", description = "Parameter 303", required = true )
+    public double p303;
+
+    @ParamField( value = "p304", description = "Parameter 304", required = false )
+    public boolean p304;
+
+    @ParamField( value = "p305", description = "Parameter 305", required = false )
+    public String p305;
+
+    @ParamField( value = "p306", description = "Parameter 306", required = true )
+    public int p306;
+
+    @ParamField( value = "p307", description = "Parameter 307", required = false )
+    public long p307;
+
+    @ParamField( value = "p308", description = "Parameter 308", required = false )
+    public double p308;
+
+    @ParamField( value = "p309", description = "Parameter 309", required = true )
+    public boolean p309;
+
+    @ParamField( value = "p310", description = "Parameter 310", required = false )
+    public String p310;
+
+    @ParamField( value = "p311", description = "Parameter 311", required = false )
+    public int p311;
+
+    @ParamField( value = "p312", description = "Parameter 312", required = true )
+    public long p312;
+
+    @ParamField( value = "p313", description = "Parameter 313", required = false )
+    public double p313;
+
+    @ParamField( value = "p314", description = "Parameter 314", required = false )
+    public boolean p314;
+
+    @ParamField( value = "p315", description = "Parameter 315", required = true )
+    public String p315;
+
+    @ParamField( value = "p316", description = "Parameter 316", required = false )
+    public int p316;
+
+    @ParamField( value = "p317", description = "Parameter 317", required = false )
+    public long p317;
+
+    @ParamField( value = "p318", description = "Parameter 318", required = true )
+    public double p318;
+
+    @ParamField( value = "p319", description = "Parameter 319", required = false )
+    public boolean p319;
+
+    @ParamField( value = "p320", description = "Parameter 320", required = false )
+    public String p320;
+
+    @ParamField( value = "p321", description = "Parameter 321", required = true )
+    public int p321;
+
+    @ParamField( value = "p322", description = "Parameter 322", required = false )
+    public long p322;
+
+    @ParamField( value = "p323", description = "Parameter 323", required = false )
+    public double p323;
+
+    @ParamField( value = "p324", description = "Parameter 324", required = true )
+    public boolean p324;
+
+    @ParamField( value = "p325", description = "Parameter 325", required = false )
+    public String p325;
+
+    @ParamField( value = "p326", description = "Parameter 326", required = false )
+    public int p326;
+
+    @ParamField( value = "p327", description = "Parameter 327", required = true )
+    public long p327;
+
+    @ParamField( value = "p328", description = "Parameter 328", required = false )
+    public double p328;
+
+    @ParamField( value = "p329", description = "Parameter 329", required = false )
+    public boolean p329;
+
+    @ParamField( value = "p330", description = "Parameter 330", required = true )
+    public String p330;
+
+    @ParamField( value = "p331", description = "Parameter 331", required = false )
+    public int p331;
+
+    @ParamField( value = "p332", description = "Parameter 332", required = false )
+    public long p332;
+
+    @ParamField( value = "p333", description = "Parameter 333", required = true )
+    public double p333;
+
+    @ParamField( value = "p334", description = "Parameter 334", required = false )
+    public boolean p334;
+
+    @ParamField( value = "p335", description = "Parameter 335", required = false )
+    public String p335;
+
+    @ParamField( value = "p336", description = "Parameter 336", required = true )
+    public int p336;
+
+    @ParamField( value = "p337", description = "Parameter 337", required = false )
+    public long p337;
+
+    @ParamField( value = "p338", description = "Parameter 338", required = false )
+    public double p338;
+
+    @ParamField( value = "p339", description = "Parameter 339", required = true )
+    public boolean p339;
+
+    @ParamField( value = "p340", description = "Parameter 340", required = false )
+    public String p340;
+
+    @ParamField( value = "p341", description = "Parameter 341", required = false )
+    public int p341;
+
+    @ParamField( value = "p342", description = "Parameter 342", required = true )
+    public long p342;
+
+    @ParamField( value = "p343", description = "Parameter 343", required = false )
+    public double p343;
+
+    @ParamField( value = "p344", description = "Parameter 344", required = false )
+    public boolean p344;
+
+    @ParamField( value = "p345", description = "Parameter 345", required = true )
+    public String p345;
+
+    @ParamField( value = "p346", description = "Parameter 346", required = false )
+    public int p346;
+
+    @ParamField( value = "p347", description = "Parameter 347", required = false )
+    public long p347;
+
+    @ParamField( value = "p348", description = "Parameter 348", required = true )
+    public double p348;
+
+    @ParamField( value = "p349", description = "Parameter 349", required = false )
+    public boolean p349;
+
+    @ParamField( value = "p350", description = "Parameter 350", required = false )
+    public String p350;
+
+    @ParamField( value = "p351", description = "Parameter 351", required = true )
+    public int p351;
+
+    @ParamField( value = "p352", description = "Parameter 352", required = false )
+    public long p352;
+
+    @ParamField( value = "p353", description = "Parameter 353", required = false )
+    public double p353;
+
+    @ParamField( value = "p354", description = "Parameter 354", required = true )
+    public boolean p354;
+
+    @ParamField( value = "p355", description = "Parameter 355", required = false )
+    public String p355;
+
+    @ParamField( value = "p356", description = "Parameter 356", required = false )
+    public int p356;
+
+    @ParamField( value = "p357", description = "Parameter 357", required = true )
+    public long p357;
+
+    @ParamField( value = "p358", description = "Parameter 358", required = false )
+    public double p358;
+
+    @ParamField( value = "p359", description = "Parameter 359", required = false )
+    public boolean p359;
+
+    @ParamField( value = "p360", description = "Parameter 360", required = true )
+    public String p360;
+
+    @ParamField( value = "p361", description = "Parameter 361", required = false )
+    public int p361;
+
+    @ParamField( value = "p362", description = "Parameter 362", required = false )
+    public long p362;
+
+    @ParamField( value = "p363", description = "Parameter 363", required = true )
+    public double p363;
+
+    @ParamField( value = "p364", description = "Parameter 364", required = false )
+    public boolean p364;
+
+    @ParamField( value = "p365", description = "Parameter 365", required = false )
+    public String p365;
+
+    @ParamField( value = "p366", description = "Parameter 366", required = true )
+    public int p366;
+
+    @ParamField( value = "p367", description = "Parameter 367", required = false )
+    public long p367;
+
+    @ParamField( value = "p368", description = "Parameter 368", required = false )
+    public double p368;
+
+    @ParamField( value = "p369", description = "Parameter 369", required = true )
+    public boolean p369;
+
+    @ParamField( value = "p370", description = "Parameter 370", required = false )
+    public String p370;
+
+    @ParamField( value = "p371", description = "Parameter 371", required = false )
+    public int p371;
+
+    @ParamField( value = "p372", description = "Parameter 372", required = true )
+    public long p372;
+
+    @ParamField( value = "p373", description = "Parameter 373", required = false )
+    public double p373;
+
+    @ParamField( value = "p374", description = "Parameter 374", required = false )
+    public boolean p374;
+
+    @ParamField( value = "p375", description = "Parameter 375", required = true )
+    public String p375;
+
+    @ParamField( value = "p376", description = "Parameter 376", required = false )
+    public int p376;
+
+    @ParamField( value = "p377", description = "Parameter 377", required = false )
+    public long p377;
+
+    @ParamField( value = "p378", description = "Parameter 378", required = true )
+    public double p378;
+
+    @ParamField( value = "p379", description = "Parameter 379", required = false )
+    public boolean p379;
+
+    @ParamField( value = "p380", description = "Parameter 380", required = false )
+    public String p380;
+
+    @ParamField( value = "p381", description = "Parameter 381", required = true )
+    public int p381;
+
+    @ParamField( value = "p382", description = "Parameter 382", required = false )
+    public long p382;
+
+    @ParamField( value = "p383", description = "Parameter 383", required = false )
+    public double p383;
+
+    @ParamField( value = "p384", description = "Parameter 384", required = true )
+    public boolean p384;
+
+    @ParamField( value = "p385", description = "Parameter 385", required = false )
+    public String p385;
+
+    @ParamField( value = "p386", description = "Parameter 386", required = false )
+    public int p386;
+
+    @ParamField( value = "p387", description = "Parameter 387", required = true )
+    public long p387;
+
+    @ParamField( value = "p388", description = "Parameter 388", required = false )
+    public double p388;
+
+    @ParamField( value = "p389", description = "Parameter 389", required = false )
+    public boolean p389;
+
+    @ParamField( value = "p390", description = "Parameter 390", required = true )
+    public String p390;
+
+    @ParamField( value = "p391", description = "Parameter 391", required = false )
+    public int p391;
+
+    @ParamField( value = "p392", description = "Parameter 392", required = false )
+    public long p392;
+
+    @ParamField( value = "p393", description = "Parameter 393", required = true )
+    public double p393;
+
+    @ParamField( value = "p394", description = "Parameter 394", required = false )
+    public boolean p394;
+
+    @ParamField( value = "p395", description = "Parameter 395", required = false )
+    public String p395;
+
+    @ParamField( value = "p396", description = "Parameter 396", required = true )
+    public int p396;
+
+    @ParamField( value = "p397", description = "Parameter 397", required = false )
+    public long p397;
+
+    @ParamField( value = "p398", description = "Parameter 398", required = false )
+    public double p398;
+
+    @ParamField( value = "p399", description = "Parameter 399", required = true )
+    public boolean p399;
+
+    @ParamField( value = "p400", description = "Parameter 400", required = false )
+    public String p400;
+
+    @ParamField( value = "p401", description = "Parameter 401", required = false )
+    public int p401;
+
+    @ParamField( value = "p402", description = "Parameter 402", required = true )
+    public long p402;
+
+    @ParamField( value = "p403", description = "Parameter 403", required = false )
+    public double p403;
+
+    @ParamField( value = "p404", description = "Parameter 404", required = false )
+    public boolean p404;
+
+    @ParamField( value = "p405", description = "Parameter 405", required = true )
+    public String p405;
+
+    @ParamField( value = "p406", description = "Parameter 406", required = false )
+    public int p406;
+
+    @ParamField( value = "p407", description = "Parameter 407", required = false )
+    public long p407;
+
+    @ParamField( value = "p408", description = "Parameter 408", required = true )
+    public double p408;
+
+    @ParamField( value = "p409", description = "Parameter 409", required = false )
+    public boolean p409;
+
+    @ParamField( value = "p410", description = "Parameter 410", required = false )
+    public String p410;
+
+    @ParamField( value = "p411", description = "Parameter 411", required = true )
+    public int p411;
+
+    @ParamField( value = "p412", description = "Parameter 412", required = false )
+    public long p412;
+
+    @ParamField( value = "p413", description = "Parameter 413", required = false )
+    public double p413;
+
+    @ParamField( value = "p414", description = "Parameter 414", required = true )
+    public boolean p414;
+
+    @ParamField( value = "p415", description = "Parameter 415", required = false )
+    public String p415;
+
+    @ParamField( value = "p416", description = "Parameter 416", required = false )
+    public int p416;
+
+    @ParamField( value = "p417", description = "Parameter 417", required = true )
+    public long p417;
+
+    @ParamField( value = "p418", description = "Parameter 418", required = false )
+    public double p418;
+
+    @ParamField( value = "p419", description = "Parameter 419", required = false )
+    public boolean p419;
+
+    @ParamField( value = "p420", description = "Parameter 420", required = true )
+    public String p420;
+
+    @ParamField( value = "p421", description = "Parameter 421", required = false )
+    public int p421;
+
+    @ParamField( value = "p422", description = "Parameter 422", required = false )
+    public long p422;
+
+    @ParamField( value = "p423", description = "Parameter 423", required = true )
+    public double p423;
+
+    @ParamField( value = "p424", description = "Parameter 424", required = false )
+    public boolean p424;
+
+    @ParamField( value = "p425", description = "Parameter 425", required = false )
+    public String p425;
+
+    @ParamField( value = "p426", description = "Parameter 426", required = true )
+    public int p426;
+
+    @ParamField( value = "p427", description = "Parameter 427", required = false )
+    public long p427;
+
+    @ParamField( value = "p428", description = "Parameter 428", required = false )
+    public double p428;
+
+    @ParamField( value = "p429", description = "Parameter 429", required = true )
+    public boolean p429;
+
+    @ParamField( value = "p430", description = "Parameter 430", required = false )
+    public String p430;
+
+    @ParamField( value = "p431", description = "Parameter 431", required = false )
+    public int p431;
+
+    @ParamField( value = "p432", description = "Parameter 432", required = true )
+    public long p432;
+
+    @ParamField( value = "p433", description = "Parameter 433", required = false )
+    public double p433;
+
+    @ParamField( value = "p434", description = "Parameter 434", required = false )
+    public boolean p434;
+
+    @ParamField( value = "p435", description = "Parameter 435", required = true )
+    public String p435;
+
+    @ParamField( value = "p436", description = "Parameter 436", required = false )
+    public int p436;
+
+    @ParamField( value = "p437", description = "Parameter 437", required = false )
+    public long p437;
+
+    @ParamField( value = "p438", description = "Parameter 438", required = true )
+    public double p438;
+
+    @ParamField( value = "p439", description = "Parameter 439", required = false )
+    public boolean p439;
+
+    @ParamField( value = "p440", description = "Parameter 440", required = false )
+    public String p440;
+
+    @ParamField( value = "p441", description = "Parameter 441", required = true )
+    public int p441;
+
+    @ParamField( value = "p442", description = "Parameter 442", required = false )
+    public long p442;
+
+    @ParamField( value = "p443", description = "Parameter 443", required = false )
+    public double p443;
+
+    @ParamField( value = "p444", description = "Parameter 444", required = true )
+    public boolean p444;
+
+    @ParamField( value = "p445", description = "Parameter 445", required = false )
+    public String p445;
+
+    @ParamField( value = "p446", description = "Parameter 446", required = false )
+    public int p446;
+
+    @ParamField( value = "p447", description = "Parameter 447", required = true )
+    public long p447;
+
+    @ParamField( value = "p448", description = "Parameter 448", required = false )
+    public double p448;
+
+    @ParamField( value = "p449", description = "Parameter 449", required = false )
+    public boolean p449;
+
+    @ParamField( value = "p450", description = "Parameter 450", required = true )
+    public String p450;
+
+    @ParamField( value = "p451", description = "Parameter 451", required = false )
+    public int p451;
+
+    @ParamField( value = "p452", description = "Parameter 452", required = false )
+    public long p452;
+
+    @ParamField( value = "p453", description = "Parameter 453", required = true )
+    public double p453;
+
+    @ParamField( value = "p454", description = "Parameter 454", required = false )
+    public boolean p454;
+
+    @ParamField( value = "p455", description = "Parameter 455", required = false )
+    public String p455;
+
+    @ParamField( value = "p456", description = "Parameter 456", required = true )
+    public int p456;
+
+    @ParamField( value = "p457", description = "Parameter 457", required = false )
+    public long p457;
+
+    @ParamField( value = "p458", description = "Parameter 458", required = false )
+    public double p458;
+
+    @ParamField( value = "p459", description = "Parameter 459", required = true )
+    public boolean p459;
+
+    @ParamField( value = "p460", description = "Parameter 460", required = false )
+    public String p460;
+
+    @ParamField( value = "p461", description = "Parameter 461", required = false )
+    public int p461;
+
+    @ParamField( value = "p462", description = "Parameter 462", required = true )
+    public long p462;
+
+    @ParamField( value = "p463", description = "Parameter 463", required = false )
+    public double p463;
+
+    @ParamField( value = "p464", description = "Parameter 464", required = false )
+    public boolean p464;
+
+    @ParamField( value = "p465", description = "Parameter 465", required = true )
+    public String p465;
+
+    @ParamField( value = "p466", description = "Parameter 466", required = false )
+    public int p466;
+
+    @ParamField( value = "p467", description = "Parameter 467", required = false )
+    public long p467;
+
+    @ParamField( value = "p468", description = "Parameter 468", required = true )
+    public double p468;
+
+    @ParamField( value = "p469", description = "Parameter 469", required = false )
+    public boolean p469;
+
+    @ParamField( value = "p470", description = "Parameter 470", required = false )
+    public String p470;
+
+    @ParamField( value = "p471", description = "Parameter 471", required = true )
+    public int p471;
+
+    @ParamField( value = "p472", description = "Parameter 472", required = false )
+    public long p472;
+
+    @ParamField( value = "p473", description = "Parameter 473", required = false )
+    public double p473;
+
+    @ParamField( value = "p474", description = "Parameter 474", required = true )
+    public boolean p474;
+
+    @ParamField( value = "p475", description = "Parameter 475", required = false )
+    public String p475;
+
+    @ParamField( value = "p476", description = "Parameter 476", required = false )
+    public int p476;
+
+    @ParamField( value = "p477", description = "Parameter 477", required = true )
+    public long p477;
+
+    @ParamField( value = "p478", description = "Parameter 478", required = false )
+    public double p478;
+
+    @ParamField( value = "p479", description = "Parameter 479", required = false )
+    public boolean p479;
+
+    @ParamField( value = "p480", description = "Parameter 480", required = true )
+    public String p480;
+
+    @ParamField( value = "p481", description = "Parameter 481", required = false )
+    public int p481;
+
+    @ParamField( value = "p482", description = "Parameter 482", required = false )
+    public long p482;
+
+    @ParamField( value = "p483", description = "Parameter 483", required = true )
+    public double p483;
+
+    @ParamField( value = "p484", description = "Parameter 484", required = false )
+    public boolean p484;
+
+    @ParamField( value = "p485", description = "Parameter 485", required = false )
+    public String p485;
+
+    @ParamField( value = "p486", description = "Parameter 486", required = true )
+    public int p486;
+
+    @ParamField( value = "p487", description = "Parameter 487", required = false )
+    public long p487;
+
+    @ParamField( value = "p488", description = "Parameter 488", required = false )
+    public double p488;
+
+    @ParamField( value = "p489", description = "Parameter 489", required = true )
+    public boolean p489;
+
+    @ParamField( value = "p490", description = "Parameter 490", required = false )
+    public String p490;
+
+    @ParamField( value = "p491", description = "Parameter 491", required = false )
+    public int p491;
+
+    @ParamField( value = "p492", description = "Parameter 492", required = true )
+    public long p492;
+
+    @ParamField( value = "p493", description = "Parameter 493", required = false )
+    public double p493;
+
+    @ParamField( value = "p494", description = "Parameter 494", required = false )
+    public boolean p494;
+
+    @ParamField( value = "p495", description = "Parameter 495", required = true )
+    public String p495;
+
+    @ParamField( value = "p496", description = "Parameter 496", required = false )
+    public int p496;
+
+    @ParamField( value = "p497", description = "Parameter 497", required = false )
+    public long p497;
+
+    @ParamField( value = "p498", description = "Parameter 498", required = true )
+    public double p498;
+
+    @ParamField( value = "p499", description = "Parameter 499", required = false )
+    public boolean p499;
+}
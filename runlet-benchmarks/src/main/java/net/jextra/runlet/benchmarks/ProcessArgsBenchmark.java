@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import java.util.concurrent.*;
+import net.jextra.runlet.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * <p>
+ * Full {@link RunletFactory#processArgs} of an argument vector that sets every field.
+ * </p>
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class ProcessArgsBenchmark
+{
+    @Param( { "5", "50", "500" } )
+    public int fieldCount;
+
+    private String[] args;
+    private BenchmarkParams.NoopRunlet runlet;
+
+    @Setup
+    public void setUp()
+    {
+        args = BenchmarkParams.args( fieldCount );
+        runlet = new BenchmarkParams.NoopRunlet();
+    }
+
+    @Benchmark
+    public Object processArgs()
+        throws Exception
+    {
+        Object params = BenchmarkParams.newParams( fieldCount );
+        new RunletFactory( runlet, params ).processArgs( args );
+        return params;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.benchmarks;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import net.jextra.runlet.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * <p>
+ * {@link StringCoercer#fromString} for every supported type.
+ * </p>
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class StringCoercerBenchmark
+{
+    @Param( { "String", "boolean", "byte", "short", "int", "long", "float", "double", "Date", "File", "UUID", "Instant",
+        "LocalDate", "LocalDateTime", "OffsetDateTime", "Duration", "Period" } )
+    public String type;
+
+    private Class<?> destClass;
+    private String value;
+
+    @Setup
+    public void setUp()
+    {
+        Object[] sample = sample( type );
+        destClass = (Class<?>) sample[0];
+        value = (String) sample[1];
+    }
+
+    @Benchmark
+    public Object fromString()
+        throws Exception
+    {
+        return StringCoercer.fromString( value, destClass );
+    }
+
+    private static Object[] sample( String type )
+    {
+        switch ( type )
+        {
+            case "String":
+                return new Object[] { String.class, "some text" };
+            case "boolean":
+                return new Object[] { boolean.class, "true" };
+            case "byte":
+                return new Object[] { byte.class, "42" };
+            case "short":
+                return new Object[] { short.class, "4242" };
+            case "int":
+                return new Object[] { int.class, "424242" };
+            case "long":
+                return new Object[] { long.class, "4242424242" };
+            case "float":
+                return new Object[] { float.class, "42.5" };
+            case "double":
+                return new Object[] { double.class, "4242.125" };
+            case "Date":
+                return new Object[] { Date.class, "2020-01-31" };
+            case "File":
+                return new Object[] { File.class, "/tmp/some/file.txt" };
+            case "UUID":
+                return new Object[] { UUID.class, "79a0c45a-954f-4dcf-a2f5-1ed7a6fa8f8f" };
+            case "Instant":
+                return new Object[] { Instant.class, "2020-01-31T10:15:30Z" };
+            case "LocalDate":
+                return new Object[] { LocalDate.class, "2020-01-31" };
+            case "LocalDateTime":
+                return new Object[] { LocalDateTime.class, "2020-01-31T10:15:30" };
+            case "OffsetDateTime":
+                return new Object[] { OffsetDateTime.class, "2020-01-31T10:15:30+01:00" };
+            case "Duration":
+                return new Object[] { Duration.class, "PT1H30M" };
+            case "Period":
+                return new Object[] { Period.class, "P1Y2M3D" };
+            default:
+                throw new IllegalArgumentException( type );
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Expands <code>@path</code> arguments into the arguments stored in the file, so argument sets larger than the
+ * operating system's command-line limit can be passed. <code>@@text</code> passes the literal argument
+ * <code>@text</code>.
+ * </p>
+ * <p>
+ * The file holds arguments separated by whitespace, quoted the same way as {@link ArgTokenizer#splitLine(String)}.
+ * A <code>#</code> at the start of an argument comments out the rest of the line. The file is memory-mapped and tokenized in place: plain ASCII
+ * arguments are views of the mapped bytes, so neither the file nor large values (e.g. <code>--ids=1,2,...</code>)
+ * are copied onto the heap. Only quoted or non-ASCII arguments are decoded into Strings.
+ * </p>
+ */
+final class ArgFile
+{
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private ArgFile()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * The arguments with any <code>@path</code> arguments replaced by the contents of the file. Relative paths are
+     * resolved against the {@link RunletContext} working directory.
+     */
+    static List<CharSequence> expand( String[] args )
+    {
+        boolean found = false;
+        for ( String arg : args )
+        {
+            found |= isArgFile( arg );
+        }
+        if ( !found )
+        {
+            return Arrays.<CharSequence>asList( args );
+        }
+
+        List<CharSequence> expanded = new ArrayList<>( args.length );
+        for ( String arg : args )
+        {
+            if ( !isArgFile( arg ) )
+            {
+                expanded.add( arg );
+            }
+            else if ( arg.charAt( 1 ) == '@' )
+            {
+                expanded.add( arg.substring( 1 ) );
+            }
+            else
+            {
+                Path path = RunletContext.current().resolveFile( arg.substring( 1 ) ).toPath();
+                try
+                {
+                    read( path, expanded );
+                }
+                catch ( IOException ex )
+                {
+                    throw new IllegalArgumentException( "Unable to read argument file: " + path, ex );
+                }
+            }
+        }
+        return expanded;
+    }
+
+    static void read( Path path, List<CharSequence> args )
+        throws IOException
+    {
+        ByteBuffer buffer;
+        try ( FileChannel channel = FileChannel.open( path, StandardOpenOption.READ ) )
+        {
+            long size = channel.size();
+            if ( size > Integer.MAX_VALUE )
+            {
+                throw new IOException( "Argument file is larger than 2GB: " + path );
+            }
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, size );
+        }
+
+        tokenize( buffer, args );
+    }
+
+    static void tokenize( ByteBuffer buffer, List<CharSequence> args )
+    {
+        int limit = buffer.limit();
+        int i = 0;
+        while ( i < limit )
+        {
+            byte b = buffer.get( i );
+            if ( b >= 0 && b <= ' ' )
+            {
+                i++;
+                continue;
+            }
+
+            if ( b == '#' )
+            {
+                while ( i < limit && buffer.get( i ) != '\n' )
+                {
+                    i++;
+                }
+                continue;
+            }
+
+            // find the end of the argument, noting whether it needs decoding
+            int start = i;
+            boolean plain = true;
+            byte quote = 0;
+            for ( ; i < limit; i++ )
+            {
+                b = buffer.get( i );
+                if ( quote != 0 )
+                {
+                    if ( b == '\\' && quote == '"' && i + 1 < limit )
+                    {
+                        i++;
+                    }
+                    else if ( b == quote )
+                    {
+                        quote = 0;
+                    }
+                }
+                else if ( b >= 0 && b <= ' ' )
+                {
+                    break;
+                }
+                else if ( b == '"' || b == '\'' )
+                {
+                    quote = b;
+                    plain = false;
+                }
+                else if ( b == '\\' )
+                {
+                    i++;
+                    plain = false;
+                }
+                else if ( b < 0 )
+                {
+                    plain = false;
+                }
+            }
+            int end = Math.min( i, limit );
+
+            if ( plain )
+            {
+                args.add( new AsciiSlice( buffer, start, end ) );
+            }
+            else
+            {
+                args.add( ArgTokenizer.splitLine( decode( buffer, start, end ) )[0] );
+            }
+        }
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static boolean isArgFile( String arg )
+    {
+        return arg != null && arg.length() > 1 && arg.charAt( 0 ) == '@';
+    }
+
+    private static String decode( ByteBuffer buffer, int start, int end )
+    {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position( start );
+        slice.limit( end );
+        return StandardCharsets.UTF_8.decode( slice ).toString();
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    /**
+     * ASCII characters of a range of a buffer. Uses only absolute reads, so one buffer can back many slices.
+     */
+    private static final class AsciiSlice implements CharSequence
+    {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        AsciiSlice( ByteBuffer buffer, int start, int end )
+        {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length()
+        {
+            return end - start;
+        }
+
+        @Override
+        public char charAt( int index )
+        {
+            return (char) buffer.get( start + index );
+        }
+
+        @Override
+        public CharSequence subSequence( int from, int to )
+        {
+            return new AsciiSlice( buffer, start + from, start + to );
+        }
+
+        @Override
+        public String toString()
+        {
+            char[] chars = new char[end - start];
+            for ( int i = 0; i < chars.length; i++ )
+            {
+                chars[i] = (char) buffer.get( start + i );
+            }
+            return new String( chars );
+        }
+    }
+}
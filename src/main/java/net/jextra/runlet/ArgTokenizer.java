@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Hand-written, single-pass classifier for command-line arguments. Recognizes <code>--prompt</code>,
+ * <code>--help|-h|-?</code>, <code>--name=value</code> and <code>--name</code> without compiling or running any regular
+ * expressions.
+ * </p>
+ * <p>
+ * After {@link #scan(CharSequence)} the name and value are available as offset ranges into the original argument, so callers
+ * that can work with ranges never copy the argument.
+ * </p>
+ */
+public final class ArgTokenizer
+{
+    // ============================================================
+    // Enums
+    // ============================================================
+
+    public enum Kind
+    {
+        /** null or blank argument */
+        EMPTY,
+        /** --prompt */
+        PROMPT,
+        /** --help, -h or -? */
+        HELP,
+        /** --name=value */
+        PARAM,
+        /** --name, either a boolean flag or a name followed by a separate value argument */
+        FLAG,
+        UNKNOWN
+    }
+
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private CharSequence arg;
+    private Kind kind;
+    private int nameStart;
+    private int nameEnd;
+    private int valueStart;
+    private int valueEnd;
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * True if the argument would be recognized as an option rather than a plain value. Used to decide whether the
+     * argument following a <code>--name</code> is its value.
+     */
+    public static boolean isOption( CharSequence arg )
+    {
+        if ( arg == null || arg.length() < 2 || arg.charAt( 0 ) != '-' )
+        {
+            return false;
+        }
+
+        char c = arg.charAt( 1 );
+        return c == '-' || ( arg.length() == 2 && ( c == 'h' || c == '?' ) );
+    }
+
+    /**
+     * Split a line into arguments the way a shell would: on whitespace, with '...' taken literally, "..." allowing
+     * backslash escapes, and a backslash outside quotes escaping the next character.
+     */
+    public static String[] splitLine( String line )
+    {
+        List<String> args = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inArg = false;
+        char quote = 0;
+
+        for ( int i = 0; i < line.length(); i++ )
+        {
+            char c = line.charAt( i );
+            if ( quote == '\'' )
+            {
+                if ( c == '\'' )
+                {
+                    quote = 0;
+                }
+                else
+                {
+                    current.append( c );
+                }
+            }
+            else if ( c == '\\' && i + 1 < line.length() && ( quote == 0 || line.charAt( i + 1 ) == '"' || line.charAt( i + 1 ) == '\\' ) )
+            {
+                current.append( line.charAt( ++i ) );
+                inArg = true;
+            }
+            else if ( quote == '"' )
+            {
+                if ( c == '"' )
+                {
+                    quote = 0;
+                }
+                else
+                {
+                    current.append( c );
+                }
+            }
+            else if ( c == '\'' || c == '"' )
+            {
+                quote = c;
+                inArg = true;
+            }
+            else if ( c <= ' ' )
+            {
+                if ( inArg )
+                {
+                    args.add( current.toString() );
+                    current.setLength( 0 );
+                    inArg = false;
+                }
+            }
+            else
+            {
+                current.append( c );
+                inArg = true;
+            }
+        }
+
+        if ( quote != 0 )
+        {
+            throw new IllegalArgumentException( "Unterminated quote in: " + line );
+        }
+
+        if ( inArg )
+        {
+            args.add( current.toString() );
+        }
+
+        return args.toArray( new String[0] );
+    }
+
+    public Kind scan( CharSequence arg )
+    {
+        this.arg = arg;
+        nameStart = nameEnd = valueStart = valueEnd = 0;
+
+        if ( arg == null || isBlank( arg ) )
+        {
+            return kind = Kind.EMPTY;
+        }
+
+        int length = arg.length();
+        if ( length < 2 || arg.charAt( 0 ) != '-' )
+        {
+            return kind = Kind.UNKNOWN;
+        }
+
+        if ( arg.charAt( 1 ) != '-' )
+        {
+            char c = arg.charAt( 1 );
+            return kind = length == 2 && ( c == 'h' || c == '?' ) ? Kind.HELP : Kind.UNKNOWN;
+        }
+
+        // single pass over the name looking for '='
+        nameStart = 2;
+        for ( int i = nameStart; i < length; i++ )
+        {
+            if ( arg.charAt( i ) == '=' )
+            {
+                nameEnd = i;
+                valueStart = i + 1;
+                valueEnd = length;
+                return kind = Kind.PARAM;
+            }
+        }
+
+        nameEnd = length;
+        if ( nameMatches( "prompt" ) )
+        {
+            return kind = Kind.PROMPT;
+        }
+        else if ( nameMatches( "help" ) )
+        {
+            return kind = Kind.HELP;
+        }
+
+        return kind = Kind.FLAG;
+    }
+
+    public Kind getKind()
+    {
+        return kind;
+    }
+
+    public CharSequence getArg()
+    {
+        return arg;
+    }
+
+    public int getNameStart()
+    {
+        return nameStart;
+    }
+
+    public int getNameEnd()
+    {
+        return nameEnd;
+    }
+
+    public int getValueStart()
+    {
+        return valueStart;
+    }
+
+    public int getValueEnd()
+    {
+        return valueEnd;
+    }
+
+    /**
+     * True if the scanned name is exactly the given string. Does not allocate.
+     */
+    public boolean nameMatches( String name )
+    {
+        if ( nameEnd - nameStart != name.length() )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < name.length(); i++ )
+        {
+            if ( arg.charAt( nameStart + i ) != name.charAt( i ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getName()
+    {
+        return arg.subSequence( nameStart, nameEnd ).toString();
+    }
+
+    /**
+     * The value of a {@link Kind#PARAM} argument, or null for any other kind.
+     */
+    public String getValue()
+    {
+        return kind == Kind.PARAM ? arg.subSequence( valueStart, valueEnd ).toString() : null;
+    }
+
+    /**
+     * Like {@link #getValue()} but a view of the argument's characters, so nothing is copied unless the value is
+     * later needed as a String.
+     */
+    public CharSequence getValueSequence()
+    {
+        return kind == Kind.PARAM ? new CharSlice( arg, valueStart, valueEnd ) : null;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static boolean isBlank( CharSequence arg )
+    {
+        for ( int i = 0; i < arg.length(); i++ )
+        {
+            if ( arg.charAt( i ) > ' ' )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
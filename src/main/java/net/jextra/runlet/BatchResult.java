@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Outcome of one argument vector run by a {@link RunletBatch}.
+ * </p>
+ */
+public final class BatchResult
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final int index;
+    private final String[] args;
+    private final int exitCode;
+    private final long elapsedNanos;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    BatchResult( int index, String[] args, int exitCode, long elapsedNanos )
+    {
+        this.index = index;
+        this.args = args;
+        this.exitCode = exitCode;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Position of the argument vector in the batch, starting at 0.
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    public String[] getArgs()
+    {
+        return args.clone();
+    }
+
+    public int getExitCode()
+    {
+        return exitCode;
+    }
+
+    public boolean isSuccess()
+    {
+        return exitCode == 0;
+    }
+
+    /**
+     * Wall time of processing args and executing the runlet.
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "#%d %s exit=%d (%.3f ms)", index, Arrays.toString( args ), exitCode, elapsedNanos / 1e6 );
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Cooperative cancellation of a running command. A {@link RunletCommand} method that declares a CancellationToken
+ * parameter is given one that is cancelled when the JVM is shutting down (e.g. on Ctrl-C), and should stop its work
+ * soon after, by polling {@link #isCancelled()} or registering {@link #onCancel(Runnable)}.
+ * </p>
+ */
+public final class CancellationToken
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private volatile boolean cancelled;
+    private List<Runnable> callbacks;
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Throws CancellationException if cancelled.
+     */
+    public void throwIfCancelled()
+    {
+        if ( cancelled )
+        {
+            throw new CancellationException( "Runlet command cancelled" );
+        }
+    }
+
+    /**
+     * Run the callback when cancelled, right away if already cancelled.
+     */
+    public void onCancel( Runnable callback )
+    {
+        synchronized ( this )
+        {
+            if ( !cancelled )
+            {
+                if ( callbacks == null )
+                {
+                    callbacks = new ArrayList<>();
+                }
+                callbacks.add( callback );
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * Cancel and run the registered callbacks. Only the first call has an effect.
+     */
+    public void cancel()
+    {
+        List<Runnable> toRun;
+        synchronized ( this )
+        {
+            if ( cancelled )
+            {
+                return;
+            }
+            cancelled = true;
+            toRun = callbacks;
+            callbacks = null;
+        }
+
+        if ( toRun != null )
+        {
+            for ( Runnable callback : toRun )
+            {
+                callback.run();
+            }
+        }
+    }
+}
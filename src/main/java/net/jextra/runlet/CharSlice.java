@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+/**
+ * <p>
+ * A view of a range of another CharSequence (typically a command-line argument). Nothing is copied until
+ * {@link #toString()} is called, and the String is then cached.
+ * </p>
+ */
+final class CharSlice implements CharSequence
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+    private String string;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    CharSlice( CharSequence source, int start, int end )
+    {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    @Override
+    public int length()
+    {
+        return end - start;
+    }
+
+    @Override
+    public char charAt( int index )
+    {
+        return source.charAt( start + index );
+    }
+
+    @Override
+    public CharSequence subSequence( int from, int to )
+    {
+        return new CharSlice( source, start + from, start + to );
+    }
+
+    @Override
+    public String toString()
+    {
+        if ( string == null )
+        {
+            string = source.subSequence( start, end ).toString();
+        }
+        return string;
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Per-class index of the {@link RunletCommand} methods of a runlet, built once and cached. Named commands are found
+ * by a hash lookup and invoked through {@link MethodHandle}s, so dispatch cost does not grow with the number of
+ * commands.
+ * </p>
+ */
+final class CommandIndex
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final ClassValue<CommandIndex> INDEXES = new ClassValue<CommandIndex>()
+    {
+        @Override
+        protected CommandIndex computeValue( Class<?> type )
+        {
+            return new CommandIndex( type );
+        }
+    };
+
+    private final Class<?> runletClass;
+    private final List<Method> defaultMethods;
+    private final Command defaultCommand;
+    private final Map<String, Command> named;
+    private final List<Command> sorted;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private CommandIndex( Class<?> runletClass )
+    {
+        this.runletClass = runletClass;
+
+        List<Method> unnamed = new ArrayList<>();
+        Map<String, Command> commands = new HashMap<>();
+
+        //
+        // Search for methods with RunletCommand annotations continuing up the object hierarchy.
+        //
+        for ( Class<?> cls = runletClass; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+        {
+            for ( Method method : cls.getDeclaredMethods() )
+            {
+                RunletCommand ann = method.getAnnotation( RunletCommand.class );
+                if ( ann == null )
+                {
+                    continue;
+                }
+
+                if ( ann.value().isEmpty() )
+                {
+                    unnamed.add( method );
+                    continue;
+                }
+
+                Command existing = commands.get( ann.value() );
+                if ( existing == null )
+                {
+                    commands.put( ann.value(), new Command( ann.value(), ann.description(), method ) );
+                }
+                else if ( !isOverride( existing.getMethod(), method ) )
+                {
+                    throw new IllegalArgumentException( String
+                        .format( "Duplicate RunletCommand name '%s' found on '%s' class hierarchy", ann.value(),
+                            runletClass.getName() ) );
+                }
+            }
+        }
+
+        //
+        // Next search for the default "execute" methods up the object hierarchy.
+        //
+        for ( Class<?> cls = runletClass; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+        {
+            try
+            {
+                Method execute = cls.getDeclaredMethod( "execute" );
+                if ( !unnamed.contains( execute ) )
+                {
+                    unnamed.add( execute );
+                }
+                break;
+            }
+            catch ( NoSuchMethodException ex )
+            {
+                continue;
+            }
+        }
+
+        defaultMethods = Collections.unmodifiableList( unnamed );
+        defaultCommand = unnamed.size() == 1 ? new Command( "", "", unnamed.get( 0 ) ) : null;
+        named = commands;
+        List<Command> list = new ArrayList<>( commands.values() );
+        list.sort( Comparator.comparing( Command::getName ) );
+        sorted = Collections.unmodifiableList( list );
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    static CommandIndex of( Class<?> runletClass )
+    {
+        return INDEXES.get( runletClass );
+    }
+
+    boolean hasNamedCommands()
+    {
+        return !named.isEmpty();
+    }
+
+    /**
+     * Named commands sorted by name.
+     */
+    List<Command> getNamedCommands()
+    {
+        return sorted;
+    }
+
+    /**
+     * The named command, or null if there is none.
+     */
+    Command getCommand( String name )
+    {
+        return named.get( name );
+    }
+
+    boolean hasDefaultCommand()
+    {
+        return defaultCommand != null;
+    }
+
+    /**
+     * The command run when no command name is given. Throws if there is none or it is ambiguous.
+     */
+    Command getDefaultCommand()
+        throws Exception
+    {
+        if ( defaultCommand != null )
+        {
+            return defaultCommand;
+        }
+
+        // ensure we found at least one command method
+        if ( defaultMethods.isEmpty() )
+        {
+            throw new RuntimeException(
+                String.format( "No method in class [%s] has a @RunletCommand annotation.", runletClass.getSimpleName() ) );
+        }
+
+        // if multiple command methods were found, report error
+        StringBuilder message = new StringBuilder( "The following command methods were found on runlet " + runletClass.getSimpleName() );
+        for ( Method commandMethod : defaultMethods )
+        {
+            message.append( "\n  " ).append( commandMethod );
+        }
+        message.append( "\nOnly a single command method is allowed" );
+        throw new Exception( message.toString() );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static boolean isOverride( Method method, Method superMethod )
+    {
+        return method.getName().equals( superMethod.getName() )
+            && Arrays.equals( method.getParameterTypes(), superMethod.getParameterTypes() );
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    static final class Command
+    {
+        private final String name;
+        private final String description;
+        private final Method method;
+        private final Class<?>[] argumentTypes;
+        private final Class<?> paramsType;
+        private final boolean async;
+        private final MethodHandle handle;
+
+        Command( String name, String description, Method method )
+        {
+            this.name = name;
+            this.description = description;
+            this.method = method;
+
+            //
+            // Arguments are the params object plus any of the framework supplied CancellationToken, executor,
+            // RunletMetrics and ShardSpec.
+            //
+            argumentTypes = method.getParameterTypes();
+            Class<?> foundParamsType = null;
+            boolean injected = false;
+            for ( Class<?> argumentType : argumentTypes )
+            {
+                if ( argumentType == CancellationToken.class || argumentType == ExecutorService.class || argumentType == Executor.class )
+                {
+                    injected = true;
+                }
+                else if ( argumentType == RunletMetrics.class || argumentType == ShardSpec.class )
+                {
+                    continue;
+                }
+                else if ( foundParamsType == null )
+                {
+                    foundParamsType = argumentType;
+                }
+                else
+                {
+                    throw new IllegalArgumentException( String
+                        .format( "RunletCommand method %s may have at most one params argument besides CancellationToken, ExecutorService, RunletMetrics and ShardSpec",
+                            method ) );
+                }
+            }
+            paramsType = foundParamsType;
+            async = injected || Future.class.isAssignableFrom( method.getReturnType() )
+                || CompletionStage.class.isAssignableFrom( method.getReturnType() );
+
+            try
+            {
+                method.setAccessible( true );
+                MethodHandle unreflected = MethodHandles.lookup().unreflect( method );
+                if ( Modifier.isStatic( method.getModifiers() ) )
+                {
+                    unreflected = MethodHandles.dropArguments( unreflected, 0, Object.class );
+                }
+                Class<?>[] objects = new Class<?>[argumentTypes.length + 1];
+                Arrays.fill( objects, Object.class );
+                handle = unreflected.asType( MethodType.methodType( Object.class, objects ) )
+                    .asSpreader( Object[].class, argumentTypes.length );
+            }
+            catch ( IllegalAccessException ex )
+            {
+                throw new IllegalArgumentException( "Unable to access RunletCommand method " + method, ex );
+            }
+        }
+
+        String getName()
+        {
+            return name;
+        }
+
+        String getDescription()
+        {
+            return description.isEmpty() ? name : description;
+        }
+
+        Method getMethod()
+        {
+            return method;
+        }
+
+        /**
+         * Type of the params argument of the method, or null if it takes none.
+         */
+        Class<?> getParamsType()
+        {
+            return paramsType;
+        }
+
+        /**
+         * True if the command returns a Future/CompletionStage or takes a CancellationToken or executor, and is run by
+         * {@link RunletFactory} on an executor with cancellation.
+         */
+        boolean isAsync()
+        {
+            return async;
+        }
+
+        /**
+         * Invoke the command, returning what the method returned (null for void).
+         */
+        Object invoke( Object runlet, Object params, CancellationToken token, ExecutorService executor, RunletMetrics metrics,
+            ShardSpec shard )
+            throws Exception
+        {
+            Object[] arguments = new Object[argumentTypes.length];
+            for ( int i = 0; i < arguments.length; i++ )
+            {
+                Class<?> argumentType = argumentTypes[i];
+                if ( argumentType == CancellationToken.class )
+                {
+                    arguments[i] = token;
+                }
+                else if ( argumentType == ExecutorService.class || argumentType == Executor.class )
+                {
+                    arguments[i] = executor;
+                }
+                else if ( argumentType == RunletMetrics.class )
+                {
+                    arguments[i] = metrics;
+                }
+                else if ( argumentType == ShardSpec.class )
+                {
+                    arguments[i] = shard;
+                }
+                else
+                {
+                    arguments[i] = params;
+                }
+            }
+
+            try
+            {
+                return (Object) handle.invokeExact( runlet, arguments );
+            }
+            catch ( Exception | Error ex )
+            {
+                throw ex;
+            }
+            catch ( Throwable ex )
+            {
+                throw new InvocationTargetException( ex );
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.*;
+
+/**
+ * <p>
+ * Registry of {@link Converter}s keyed by destination class.
+ * </p>
+ * <p>
+ * Besides the built-in and explicitly registered converters, converters are derived for enums, for classes with a
+ * public static <code>valueOf</code>, <code>of</code>, <code>parse</code> or <code>fromString</code> factory method
+ * taking a single String (or CharSequence), and for classes with a public single String constructor. Every lookup is
+ * resolved once and cached; {@link ParamSchema} resolves each field's converter when the schema is built, so register
+ * custom converters before parsing the first time.
+ * </p>
+ */
+public final class ConverterRegistry
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final String[] FACTORY_METHODS = { "valueOf", "of", "parse", "fromString" };
+
+    private static final Converter<Object> NONE = value -> {
+        throw new UnsupportedOperationException();
+    };
+
+    private static volatile ConverterRegistry defaultRegistry;
+
+    private final ConcurrentMap<Class<?>, Converter<?>> converters;
+    private final Map<Class<?>, Converter<?>> builtIns;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    /**
+     * A registry with only the built-in converters.
+     */
+    public ConverterRegistry()
+    {
+        converters = new ConcurrentHashMap<>();
+        registerBuiltIns();
+        builtIns = new HashMap<>( converters );
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * The registry used by {@link StringCoercer} and {@link ParamSchema}. Includes any converters contributed by
+     * {@link ConverterProvider} services.
+     */
+    public static ConverterRegistry getDefault()
+    {
+        ConverterRegistry registry = defaultRegistry;
+        if ( registry == null )
+        {
+            synchronized ( ConverterRegistry.class )
+            {
+                registry = defaultRegistry;
+                if ( registry == null )
+                {
+                    registry = new ConverterRegistry();
+                    for ( ConverterProvider provider : ServiceLoader.load( ConverterProvider.class ) )
+                    {
+                        provider.register( registry );
+                    }
+                    defaultRegistry = registry;
+                }
+            }
+        }
+
+        return registry;
+    }
+
+    public <T> void register( Class<T> type, Converter<? extends T> converter )
+    {
+        converters.put( type, converter );
+    }
+
+    /**
+     * Converter for the given class, or null if there is no way to convert a String to it.
+     */
+    public Converter<?> lookup( Class<?> type )
+    {
+        Converter<?> converter = converters.get( type );
+        if ( converter == null )
+        {
+            converter = converters.computeIfAbsent( type, ConverterRegistry::derive );
+        }
+
+        return converter == NONE ? null : converter;
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * True if the type is converted by the built-in converter, i.e. one was not registered in its place.
+     */
+    boolean isBuiltIn( Class<?> type )
+    {
+        Converter<?> converter = builtIns.get( type );
+        return converter != null && converters.get( type ) == converter;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private void registerBuiltIns()
+    {
+        register( String.class, value -> value );
+        registerPrimitive( Boolean.TYPE, Boolean.class, Boolean::valueOf );
+        registerPrimitive( Byte.TYPE, Byte.class, Byte::valueOf );
+        registerPrimitive( Short.TYPE, Short.class, Short::valueOf );
+        registerPrimitive( Integer.TYPE, Integer.class, Integer::valueOf );
+        registerPrimitive( Long.TYPE, Long.class, Long::valueOf );
+        registerPrimitive( Float.TYPE, Float.class, Float::valueOf );
+        registerPrimitive( Double.TYPE, Double.class, Double::valueOf );
+        register( File.class, value -> RunletContext.current().resolveFile( value ) );
+        register( UUID.class, UUID::fromString );
+        register( Pattern.class, Pattern::compile );
+        register( ShardSpec.class, ShardSpec::parse );
+        TemporalConverters.register( this );
+    }
+
+    private <T> void registerPrimitive( Class<?> primitiveType, Class<T> boxedType, Converter<T> converter )
+    {
+        converters.put( primitiveType, converter );
+        converters.put( boxedType, converter );
+    }
+
+    private static Converter<?> derive( Class<?> type )
+    {
+        if ( type.isEnum() )
+        {
+            return enumConverter( type );
+        }
+
+        MethodType converterType = MethodType.methodType( Object.class, String.class );
+
+        for ( String name : FACTORY_METHODS )
+        {
+            for ( Class<?> paramType : new Class<?>[] { String.class, CharSequence.class } )
+            {
+                try
+                {
+                    Method method = type.getMethod( name, paramType );
+                    if ( Modifier.isStatic( method.getModifiers() ) && type.isAssignableFrom( method.getReturnType() ) )
+                    {
+                        return handleConverter( unreflect( method ).asType( converterType ) );
+                    }
+                }
+                catch ( NoSuchMethodException | IllegalAccessException ex )
+                {
+                    // try next
+                }
+            }
+        }
+
+        try
+        {
+            if ( !Modifier.isAbstract( type.getModifiers() ) )
+            {
+                return handleConverter( unreflect( type.getConstructor( String.class ) ).asType( converterType ) );
+            }
+        }
+        catch ( NoSuchMethodException | IllegalAccessException ex )
+        {
+            // fall through
+        }
+
+        return NONE;
+    }
+
+    private static MethodHandle unreflect( Executable executable )
+        throws IllegalAccessException
+    {
+        try
+        {
+            // public members of non-public classes
+            executable.setAccessible( true );
+        }
+        catch ( RuntimeException ex )
+        {
+            // not open to us, fall back to normal access checks
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if ( executable instanceof Method )
+        {
+            return lookup.unreflect( (Method) executable );
+        }
+
+        return lookup.unreflectConstructor( (Constructor<?>) executable );
+    }
+
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private static Converter<?> enumConverter( Class<?> type )
+    {
+        Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+        return value -> {
+            try
+            {
+                return Enum.valueOf( enumType, value );
+            }
+            catch ( IllegalArgumentException ex )
+            {
+                // be lenient with case on the command-line
+                for ( Enum constant : enumType.getEnumConstants() )
+                {
+                    if ( constant.name().equalsIgnoreCase( value ) )
+                    {
+                        return constant;
+                    }
+                }
+                throw ex;
+            }
+        };
+    }
+
+    private static Converter<?> handleConverter( MethodHandle handle )
+    {
+        return value -> {
+            try
+            {
+                return (Object) handle.invokeExact( value );
+            }
+            catch ( Exception | Error ex )
+            {
+                throw ex;
+            }
+            catch ( Throwable ex )
+            {
+                throw new IllegalStateException( ex );
+            }
+        };
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Wire format and transport shared by {@link RunletServer} and {@link RunletClient}.
+ * </p>
+ * <p>
+ * A request is the runlet name, the arguments, the client's working directory and environment. The response is a
+ * sequence of frames: stdout and stderr chunks as they are written, then the exit code.
+ * </p>
+ * <p>
+ * The transport is a Unix domain socket when the JVM supports it (JDK 16+). Otherwise the server listens on an
+ * ephemeral loopback TCP port and writes the port number into a regular file at the socket path instead. Since any
+ * local user can connect to a loopback port, the server then also writes a random token into an owner-only file next
+ * to it (the socket path plus <code>.token</code>), and a TCP client must send the token before its request.
+ * </p>
+ */
+final class DaemonProtocol
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    static final int VERSION = 1;
+
+    static final int FRAME_STDOUT = 1;
+    static final int FRAME_STDERR = 2;
+    static final int FRAME_EXIT = 3;
+
+    static final int TOKEN_LENGTH = 32;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private DaemonProtocol()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    static void writeString( DataOutputStream out, String string )
+        throws IOException
+    {
+        byte[] bytes = string.getBytes( StandardCharsets.UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    static String readString( DataInputStream in )
+        throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    static void writeRequest( DataOutputStream out, String runletName, String[] args, String cwd, Map<String, String> env )
+        throws IOException
+    {
+        out.writeInt( VERSION );
+        writeString( out, runletName );
+        out.writeInt( args.length );
+        for ( String arg : args )
+        {
+            writeString( out, arg );
+        }
+        writeString( out, cwd );
+        out.writeInt( env.size() );
+        for ( Map.Entry<String, String> entry : env.entrySet() )
+        {
+            writeString( out, entry.getKey() );
+            writeString( out, entry.getValue() );
+        }
+        out.flush();
+    }
+
+    /**
+     * The file holding the token of the TCP fallback for the socket path.
+     */
+    static Path getTokenPath( Path socketPath )
+    {
+        return socketPath.resolveSibling( socketPath.getFileName() + ".token" );
+    }
+
+    /**
+     * Create a new random token and write it to the owner-only token file of the socket path.
+     */
+    static byte[] createToken( Path socketPath )
+        throws IOException
+    {
+        byte[] token = new byte[TOKEN_LENGTH];
+        new SecureRandom().nextBytes( token );
+
+        Path tokenPath = getTokenPath( socketPath );
+        Files.deleteIfExists( tokenPath );
+        if ( tokenPath.getFileSystem().supportedFileAttributeViews().contains( "posix" ) )
+        {
+            Files.createFile( tokenPath, PosixFilePermissions.asFileAttribute( PosixFilePermissions.fromString( "rw-------" ) ) );
+        }
+        else
+        {
+            File file = Files.createFile( tokenPath ).toFile();
+            if ( !file.setReadable( false, false ) || !file.setReadable( true, true ) || !file.setWritable( false, false )
+                || !file.setWritable( true, true ) )
+            {
+                throw new IOException( "Unable to restrict the permissions of " + tokenPath );
+            }
+        }
+        Files.write( tokenPath, token );
+        return token;
+    }
+
+    static byte[] readToken( Path socketPath )
+        throws IOException
+    {
+        byte[] token = Files.readAllBytes( getTokenPath( socketPath ) );
+        if ( token.length != TOKEN_LENGTH )
+        {
+            throw new IOException( "Invalid runlet daemon token file " + getTokenPath( socketPath ) );
+        }
+        return token;
+    }
+
+    /**
+     * Read the token a TCP client sends first and check it, in constant time.
+     *
+     * @throws IOException if the token does not match.
+     */
+    static void checkToken( DataInputStream in, byte[] token )
+        throws IOException
+    {
+        byte[] given = new byte[TOKEN_LENGTH];
+        in.readFully( given );
+        if ( !MessageDigest.isEqual( given, token ) )
+        {
+            throw new IOException( "Rejected runlet daemon client with an invalid token" );
+        }
+    }
+
+    /**
+     * True if this JVM can use Unix domain sockets.
+     */
+    static boolean supportsUnixSockets()
+    {
+        try
+        {
+            StandardProtocolFamily.valueOf( "UNIX" );
+            Class.forName( "java.net.UnixDomainSocketAddress" );
+            return true;
+        }
+        catch ( IllegalArgumentException | ClassNotFoundException ex )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Unix domain socket address for the path. Only valid if {@link #supportsUnixSockets()}.
+     */
+    static SocketAddress unixAddress( Path path )
+        throws IOException
+    {
+        try
+        {
+            return (SocketAddress) Class.forName( "java.net.UnixDomainSocketAddress" ).getMethod( "of", Path.class ).invoke( null, path );
+        }
+        catch ( ReflectiveOperationException ex )
+        {
+            throw new IOException( "Unix domain sockets are not supported", ex );
+        }
+    }
+
+    static ServerSocketChannel openUnixServer( Path path )
+        throws IOException
+    {
+        ServerSocketChannel channel = (ServerSocketChannel) open( ServerSocketChannel.class );
+        channel.bind( unixAddress( path ) );
+        return channel;
+    }
+
+    static SocketChannel openUnixClient( Path path )
+        throws IOException
+    {
+        SocketChannel channel = (SocketChannel) open( SocketChannel.class );
+        channel.connect( unixAddress( path ) );
+        return channel;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    /**
+     * ServerSocketChannel.open(ProtocolFamily)/SocketChannel.open(ProtocolFamily) only exist on JDK 15+.
+     */
+    private static Object open( Class<?> channelClass )
+        throws IOException
+    {
+        try
+        {
+            return channelClass.getMethod( "open", ProtocolFamily.class ).invoke( null, StandardProtocolFamily.valueOf( "UNIX" ) );
+        }
+        catch ( ReflectiveOperationException | IllegalArgumentException ex )
+        {
+            throw new IOException( "Unix domain sockets are not supported", ex );
+        }
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    /**
+     * Sends everything written to it as frames of the given type. Writes after {@link #close()} are dropped, since
+     * threads started by a runlet may outlive its invocation.
+     */
+    static class FrameOutputStream extends OutputStream
+    {
+        private final DataOutputStream out;
+        private final int type;
+        private volatile boolean closed;
+
+        FrameOutputStream( DataOutputStream out, int type )
+        {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write( int b )
+            throws IOException
+        {
+            write( new byte[] { (byte) b }, 0, 1 );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            if ( closed || len == 0 )
+            {
+                return;
+            }
+
+            synchronized ( out )
+            {
+                out.writeByte( type );
+                out.writeInt( len );
+                out.write( b, off, len );
+            }
+        }
+
+        @Override
+        public void flush()
+            throws IOException
+        {
+            if ( closed )
+            {
+                return;
+            }
+
+            synchronized ( out )
+            {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+}
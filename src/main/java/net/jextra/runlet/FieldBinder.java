@@ -0,0 +1,405 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+
+/**
+ * <p>
+ * Reads and writes a single {@link ParamField} field without going through {@link Field#get}/{@link Field#set} on every
+ * call.
+ * </p>
+ * <p>
+ * Binders are created once per field by {@link ParamSchema} and are backed by {@link MethodHandle}s, with primitive
+ * specialized setters so that int, long, double and boolean fields are written without boxing. Fields that cannot be
+ * unreflected (e.g. final fields) fall back to plain reflection.
+ * </p>
+ */
+public abstract class FieldBinder
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    protected final Field field;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    protected FieldBinder( Field field )
+    {
+        this.field = field;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Create a binder for the given field. The field is made accessible if needed.
+     */
+    public static FieldBinder of( Field field )
+    {
+        field.setAccessible( true );
+        try
+        {
+            return new MethodHandleBinder( field );
+        }
+        catch ( IllegalAccessException ex )
+        {
+            return new ReflectionBinder( field );
+        }
+    }
+
+    /**
+     * Create a binder for a field of a nested {@link ParamGroup} object, reached from the params object through the
+     * given group fields. Missing group objects read as null and are created when a value is set.
+     */
+    public static FieldBinder nested( Field[] groups, FieldBinder leaf )
+    {
+        return groups.length == 0 ? leaf : new NestedBinder( groups, leaf );
+    }
+
+    public Field getField()
+    {
+        return field;
+    }
+
+    public abstract Object get( Object target );
+
+    public abstract void set( Object target, Object value );
+
+    public void setInt( Object target, int value )
+    {
+        set( target, value );
+    }
+
+    public void setLong( Object target, long value )
+    {
+        set( target, value );
+    }
+
+    public void setDouble( Object target, double value )
+    {
+        set( target, value );
+    }
+
+    public void setBoolean( Object target, boolean value )
+    {
+        set( target, value );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static RuntimeException rethrow( Throwable ex )
+    {
+        if ( ex instanceof RuntimeException )
+        {
+            return (RuntimeException) ex;
+        }
+        else if ( ex instanceof Error )
+        {
+            throw (Error) ex;
+        }
+
+        return new IllegalStateException( ex );
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    private static class MethodHandleBinder extends FieldBinder
+    {
+        private static final MethodType GETTER_TYPE = MethodType.methodType( Object.class, Object.class );
+        private static final MethodType SETTER_TYPE = MethodType.methodType( void.class, Object.class, Object.class );
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final MethodHandle primitiveSetter;
+
+        MethodHandleBinder( Field field )
+            throws IllegalAccessException
+        {
+            super( field );
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle rawSetter = lookup.unreflectSetter( field );
+            getter = lookup.unreflectGetter( field ).asType( GETTER_TYPE );
+            setter = rawSetter.asType( SETTER_TYPE );
+
+            Class<?> type = field.getType();
+            if ( type == int.class || type == long.class || type == double.class || type == boolean.class )
+            {
+                primitiveSetter = rawSetter.asType( MethodType.methodType( void.class, Object.class, type ) );
+            }
+            else
+            {
+                primitiveSetter = null;
+            }
+        }
+
+        @Override
+        public Object get( Object target )
+        {
+            try
+            {
+                return (Object) getter.invokeExact( target );
+            }
+            catch ( Throwable ex )
+            {
+                throw rethrow( ex );
+            }
+        }
+
+        @Override
+        public void set( Object target, Object value )
+        {
+            try
+            {
+                setter.invokeExact( target, value );
+            }
+            catch ( Throwable ex )
+            {
+                throw rethrow( ex );
+            }
+        }
+
+        @Override
+        public void setInt( Object target, int value )
+        {
+            if ( field.getType() != int.class )
+            {
+                super.setInt( target, value );
+                return;
+            }
+
+            try
+            {
+                primitiveSetter.invokeExact( target, value );
+            }
+            catch ( Throwable ex )
+            {
+                throw rethrow( ex );
+            }
+        }
+
+        @Override
+        public void setLong( Object target, long value )
+        {
+            if ( field.getType() != long.class )
+            {
+                super.setLong( target, value );
+                return;
+            }
+
+            try
+            {
+                primitiveSetter.invokeExact( target, value );
+            }
+            catch ( Throwable ex )
+            {
+                throw rethrow( ex );
+            }
+        }
+
+        @Override
+        public void setDouble( Object target, double value )
+        {
+            if ( field.getType() != double.class )
+            {
+                super.setDouble( target, value );
+                return;
+            }
+
+            try
+            {
+                primitiveSetter.invokeExact( target, value );
+            }
+            catch ( Throwable ex )
+            {
+                throw rethrow( ex );
+            }
+        }
+
+        @Override
+        public void setBoolean( Object target, boolean value )
+        {
+            if ( field.getType() != boolean.class )
+            {
+                super.setBoolean( target, value );
+                return;
+            }
+
+            try
+            {
+                primitiveSetter.invokeExact( target, value );
+            }
+            catch ( Throwable ex )
+            {
+                throw rethrow( ex );
+            }
+        }
+    }
+
+    private static class NestedBinder extends FieldBinder
+    {
+        private final FieldBinder[] groups;
+        private final Constructor<?>[] constructors;
+        private final FieldBinder leaf;
+
+        NestedBinder( Field[] groupFields, FieldBinder leaf )
+        {
+            super( leaf.getField() );
+            this.leaf = leaf;
+            groups = new FieldBinder[groupFields.length];
+            constructors = new Constructor<?>[groupFields.length];
+            for ( int i = 0; i < groupFields.length; i++ )
+            {
+                groups[i] = of( groupFields[i] );
+                try
+                {
+                    constructors[i] = groupFields[i].getType().getDeclaredConstructor();
+                    constructors[i].setAccessible( true );
+                }
+                catch ( NoSuchMethodException ex )
+                {
+                    throw new IllegalArgumentException( "ParamGroup " + groupFields[i] + " must have a type with a no-arg constructor", ex );
+                }
+            }
+        }
+
+        @Override
+        public Object get( Object target )
+        {
+            Object group = resolve( target, false );
+            return group == null ? null : leaf.get( group );
+        }
+
+        @Override
+        public void set( Object target, Object value )
+        {
+            leaf.set( resolve( target, true ), value );
+        }
+
+        @Override
+        public void setInt( Object target, int value )
+        {
+            leaf.setInt( resolve( target, true ), value );
+        }
+
+        @Override
+        public void setLong( Object target, long value )
+        {
+            leaf.setLong( resolve( target, true ), value );
+        }
+
+        @Override
+        public void setDouble( Object target, double value )
+        {
+            leaf.setDouble( resolve( target, true ), value );
+        }
+
+        @Override
+        public void setBoolean( Object target, boolean value )
+        {
+            leaf.setBoolean( resolve( target, true ), value );
+        }
+
+        /**
+         * The innermost group object of the target, creating missing groups if asked to, otherwise null if one is
+         * missing.
+         */
+        private Object resolve( Object target, boolean create )
+        {
+            for ( int i = 0; i < groups.length; i++ )
+            {
+                Object group = groups[i].get( target );
+                if ( group == null )
+                {
+                    if ( !create )
+                    {
+                        return null;
+                    }
+
+                    try
+                    {
+                        group = constructors[i].newInstance();
+                    }
+                    catch ( InvocationTargetException ex )
+                    {
+                        throw rethrow( ex.getCause() );
+                    }
+                    catch ( ReflectiveOperationException ex )
+                    {
+                        throw new IllegalStateException( ex );
+                    }
+                    groups[i].set( target, group );
+                }
+                target = group;
+            }
+            return target;
+        }
+    }
+
+    private static class ReflectionBinder extends FieldBinder
+    {
+        ReflectionBinder( Field field )
+        {
+            super( field );
+        }
+
+        @Override
+        public Object get( Object target )
+        {
+            try
+            {
+                return field.get( target );
+            }
+            catch ( IllegalAccessException ex )
+            {
+                throw new IllegalStateException( ex );
+            }
+        }
+
+        @Override
+        public void set( Object target, Object value )
+        {
+            try
+            {
+                field.set( target, value );
+            }
+            catch ( IllegalAccessException ex )
+            {
+                throw new IllegalStateException( ex );
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+/**
+ * <p>
+ * Implemented by classes generated at compile-time by {@link net.jextra.runlet.processor.RunletProcessor} for a params
+ * class. Binds {@link ParamField}s using direct field access and a switch on the parameter name instead of reflection.
+ * </p>
+ * <p>
+ * The generated class is named after the binary name of the params class with {@link #SUFFIX} appended, e.g.
+ * <code>MyRunlet$Params$$RunletParams</code>.
+ * </p>
+ */
+public interface GeneratedParams
+{
+    String SUFFIX = "$$RunletParams";
+
+    /**
+     * Coerce and set the named parameter. The value may be a view of the command-line argument; numeric fields are
+     * parsed from it without creating a String.
+     *
+     * @return false if the parameter is not handled by the generated code, in which case the reflective path is used.
+     */
+    boolean setValue( Object params, String name, CharSequence value )
+        throws Exception;
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * <p>
+ * Lock-free latency histogram with log-linear buckets: every power of two is split into 16 linear sub-buckets, so
+ * percentiles are within about 6% of the recorded values over the whole long range. Recording is one atomic bucket
+ * increment plus striped adders, and never blocks.
+ * </p>
+ */
+public final class LatencyHistogram
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = ( 64 - SUB_BUCKET_BITS ) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray( BUCKETS );
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new LongAccumulator( Math::max, 0 );
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Record a value, typically elapsed nanoseconds. Negative values are recorded as 0.
+     */
+    public void record( long value )
+    {
+        if ( value < 0 )
+        {
+            value = 0;
+        }
+
+        counts.incrementAndGet( indexOf( value ) );
+        count.increment();
+        sum.add( value );
+        max.accumulate( value );
+    }
+
+    /**
+     * Record the nanoseconds elapsed since the given {@link System#nanoTime()}.
+     */
+    public void recordSince( long startNanos )
+    {
+        record( System.nanoTime() - startNanos );
+    }
+
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    public double getMean()
+    {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * The value below which the given percentage (0-100) of recorded values fall, as the midpoint of its bucket.
+     */
+    public long getPercentile( double percentile )
+    {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            snapshot[i] = counts.get( i );
+            total += snapshot[i];
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+
+        long rank = Math.max( 1, (long) Math.ceil( total * Math.min( 100, Math.max( 0, percentile ) ) / 100 ) );
+        long seen = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            seen += snapshot[i];
+            if ( seen >= rank )
+            {
+                return Math.min( midpointOf( i ), max.get() );
+            }
+        }
+        return max.get();
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    static int indexOf( long value )
+    {
+        if ( value < SUB_BUCKETS )
+        {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros( value );
+        int subBucket = (int) ( value >>> ( exponent - SUB_BUCKET_BITS ) ) & ( SUB_BUCKETS - 1 );
+        return ( exponent - SUB_BUCKET_BITS + 1 ) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBoundOf( int index )
+    {
+        if ( index < SUB_BUCKETS )
+        {
+            return index;
+        }
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ( 1L << exponent ) + ( subBucket << ( exponent - SUB_BUCKET_BITS ) );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static long midpointOf( int index )
+    {
+        if ( index < SUB_BUCKETS )
+        {
+            return index;
+        }
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return lowerBoundOf( index ) + ( ( 1L << ( exponent - SUB_BUCKET_BITS ) ) >>> 1 );
+    }
+}
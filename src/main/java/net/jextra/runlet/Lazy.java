@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.function.*;
+
+/**
+ * <p>
+ * A parameter value converted on first access. Declare a {@link ParamField} as <code>Lazy&lt;T&gt;</code> (or
+ * <code>Supplier&lt;T&gt;</code>) for types that are expensive to convert, e.g. a large file or a pattern, and only
+ * needed by some commands. The raw value is kept until {@link #get()} is first called; the converted value is then
+ * remembered. Safe to share between threads.
+ * </p>
+ * <p>
+ * Conversion errors are thrown from {@link #get()} as IllegalArgumentException naming the parameter.
+ * </p>
+ */
+public final class Lazy<T> implements Supplier<T>
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final String name;
+    private final String rawValue;
+    private final Class<?> type;
+    private final Converter<? extends T> converter;
+    private final RunletContext context;
+    private volatile boolean resolved;
+    private T value;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    Lazy( String name, String rawValue, Class<?> type, Converter<? extends T> converter )
+    {
+        this.name = name;
+        this.rawValue = rawValue;
+        this.type = type;
+        this.converter = converter;
+        // relative files etc. resolve against the invocation that supplied the value
+        context = RunletContext.current();
+    }
+
+    private Lazy( T value )
+    {
+        name = null;
+        rawValue = StringCoercer.toString( value );
+        type = value == null ? Object.class : value.getClass();
+        converter = null;
+        context = null;
+        this.value = value;
+        resolved = true;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * An already resolved value, e.g. to set a lazy parameter in code.
+     */
+    public static <T> Lazy<T> of( T value )
+    {
+        return new Lazy<>( value );
+    }
+
+    @Override
+    public T get()
+    {
+        if ( !resolved )
+        {
+            synchronized ( this )
+            {
+                if ( !resolved )
+                {
+                    value = convert();
+                    resolved = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * The value as given, before conversion.
+     */
+    public String getRawValue()
+    {
+        return rawValue;
+    }
+
+    public boolean isResolved()
+    {
+        return resolved;
+    }
+
+    /**
+     * The raw value, so that the parameter can be passed on as an argument without converting it.
+     */
+    @Override
+    public String toString()
+    {
+        return rawValue;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private T convert()
+    {
+        if ( rawValue == null )
+        {
+            return null;
+        }
+
+        RunletContext previous = RunletContext.attach( context );
+        try
+        {
+            if ( converter == null )
+            {
+                throw new RuntimeException( "No converter registered for " + type.getCanonicalName() + "." );
+            }
+            return converter.convert( rawValue );
+        }
+        catch ( Exception ex )
+        {
+            throw new IllegalArgumentException( String
+                .format( "For ParamField \"%s\", cannot coerce String value(%s) to type:%s", name, rawValue, type.getSimpleName() ),
+                ex );
+        }
+        finally
+        {
+            RunletContext.restore( previous );
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * <p>
+ * Periodically writes {@link RunletMetrics} as a line of text to stderr, or as JSON lines appended to a file: counter
+ * totals and rates since the previous report, gauge values, and histogram count, mean, p50, p90, p99 and max in
+ * milliseconds. Closing writes a final summary with rates over the whole run.
+ * </p>
+ */
+final class MetricsReporter implements Closeable
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final RunletMetrics metrics;
+    private final Path jsonLines;
+    private final PrintStream err;
+    private final ScheduledExecutorService scheduler;
+    private final long startNanos;
+    private final Map<String, Long> previousCounts;
+    private long previousNanos;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    /**
+     * @param target "stderr" or "jsonl:&lt;path&gt;".
+     */
+    MetricsReporter( RunletMetrics metrics, String target, long intervalMillis )
+    {
+        this.metrics = metrics;
+        if ( target.equals( "stderr" ) )
+        {
+            jsonLines = null;
+        }
+        else if ( target.startsWith( "jsonl:" ) )
+        {
+            jsonLines = RunletContext.current().resolveFile( target.substring( "jsonl:".length() ) ).toPath();
+        }
+        else
+        {
+            throw new IllegalArgumentException( "Unknown metrics report target: " + target );
+        }
+
+        // the invoking thread's stderr, also when called from the scheduler thread
+        err = System.err;
+        previousCounts = new HashMap<>();
+        startNanos = previousNanos = System.nanoTime();
+        scheduler = Executors.newSingleThreadScheduledExecutor( runnable -> {
+            Thread thread = new Thread( runnable, "runlet-metrics" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        scheduler.scheduleAtFixedRate( () -> report( false ), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS );
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Stop reporting and write the final summary.
+     */
+    @Override
+    public void close()
+    {
+        scheduler.shutdownNow();
+        try
+        {
+            scheduler.awaitTermination( 1, TimeUnit.SECONDS );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+        report( true );
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    synchronized void report( boolean summary )
+    {
+        long now = System.nanoTime();
+        double seconds = Math.max( 1, summary ? now - startNanos : now - previousNanos ) / 1e9;
+        previousNanos = now;
+
+        StringBuilder text = new StringBuilder();
+        if ( jsonLines == null )
+        {
+            text.append( summary ? "[metrics summary]" : "[metrics]" );
+        }
+        else
+        {
+            text.append( "{\"time\":" ).append( System.currentTimeMillis() ).append( ",\"summary\":" ).append( summary );
+            text.append( ",\"seconds\":" ).append( format( seconds ) ).append( ",\"counters\":{" );
+        }
+
+        int n = 0;
+        for ( Map.Entry<String, LongAdder> entry : metrics.getCounters().entrySet() )
+        {
+            long total = entry.getValue().sum();
+            Long previous = previousCounts.put( entry.getKey(), total );
+            long delta = summary || previous == null ? total : total - previous;
+            double rate = delta / seconds;
+            if ( jsonLines == null )
+            {
+                text.append( ' ' ).append( entry.getKey() ).append( '=' ).append( total ).append( " (" ).append( format( rate ) )
+                    .append( "/s)" );
+            }
+            else
+            {
+                text.append( n++ == 0 ? "" : "," ).append( quote( entry.getKey() ) ).append( ":{\"count\":" ).append( total )
+                    .append( ",\"rate\":" ).append( format( rate ) ).append( '}' );
+            }
+        }
+
+        if ( jsonLines != null )
+        {
+            text.append( "},\"gauges\":{" );
+            n = 0;
+        }
+        for ( Map.Entry<String, DoubleSupplier> entry : metrics.getGauges().entrySet() )
+        {
+            String value = format( entry.getValue().getAsDouble() );
+            if ( jsonLines == null )
+            {
+                text.append( ' ' ).append( entry.getKey() ).append( '=' ).append( value );
+            }
+            else
+            {
+                text.append( n++ == 0 ? "" : "," ).append( quote( entry.getKey() ) ).append( ':' ).append( value );
+            }
+        }
+
+        if ( jsonLines != null )
+        {
+            text.append( "},\"histograms\":{" );
+            n = 0;
+        }
+        for ( Map.Entry<String, LatencyHistogram> entry : metrics.getHistograms().entrySet() )
+        {
+            LatencyHistogram histogram = entry.getValue();
+            String[] names = { "count", "mean", "p50", "p90", "p99", "max" };
+            String[] values = { Long.toString( histogram.getCount() ), millis( histogram.getMean() ),
+                millis( histogram.getPercentile( 50 ) ), millis( histogram.getPercentile( 90 ) ),
+                millis( histogram.getPercentile( 99 ) ), millis( histogram.getMax() ) };
+            if ( jsonLines == null )
+            {
+                text.append( ' ' ).append( entry.getKey() ).append( '[' );
+                for ( int i = 0; i < names.length; i++ )
+                {
+                    text.append( i == 0 ? "" : " " ).append( names[i] ).append( '=' ).append( values[i] ).append( i == 0 ? "" : "ms" );
+                }
+                text.append( ']' );
+            }
+            else
+            {
+                text.append( n++ == 0 ? "" : "," ).append( quote( entry.getKey() ) ).append( ":{" );
+                for ( int i = 0; i < names.length; i++ )
+                {
+                    text.append( i == 0 ? "" : "," ).append( '"' ).append( names[i] ).append( "\":" ).append( values[i] );
+                }
+                text.append( '}' );
+            }
+        }
+
+        if ( jsonLines == null )
+        {
+            err.println( text );
+            return;
+        }
+
+        text.append( "}}\n" );
+        try
+        {
+            Files.write( jsonLines, text.toString().getBytes( StandardCharsets.UTF_8 ), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND );
+        }
+        catch ( IOException ex )
+        {
+            err.println( "Unable to write metrics to " + jsonLines + ": " + ex );
+        }
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static String millis( double nanos )
+    {
+        return format( nanos / NANOS_PER_MILLI );
+    }
+
+    private static String format( double value )
+    {
+        if ( Double.isNaN( value ) || Double.isInfinite( value ) )
+        {
+            return "0";
+        }
+        return String.format( Locale.ROOT, "%.3f", value );
+    }
+
+    private static String quote( String value )
+    {
+        StringBuilder builder = new StringBuilder( "\"" );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            if ( c == '"' || c == '\\' )
+            {
+                builder.append( '\\' ).append( c );
+            }
+            else if ( c < ' ' )
+            {
+                builder.append( String.format( "\\u%04x", (int) c ) );
+            }
+            else
+            {
+                builder.append( c );
+            }
+        }
+        return builder.append( '"' ).toString();
+    }
+}
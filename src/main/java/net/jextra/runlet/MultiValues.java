@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Converts the values of an array or collection {@link ParamField}. Each value may hold several elements separated
+ * by the field's {@link ParamField#delimiter()}.
+ * </p>
+ * <p>
+ * int[], long[] and double[] are parsed straight from the characters of the values into growable primitive buffers,
+ * so neither element Strings nor boxed numbers are created.
+ * </p>
+ */
+final class MultiValues
+{
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private MultiValues()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    static Object convert( ParamDescriptor descriptor, List<CharSequence> values )
+        throws Exception
+    {
+        Class<?> type = descriptor.getType();
+        Class<?> elementType = descriptor.getElementType();
+        char delimiter = descriptor.getDelimiter();
+
+        if ( elementType == Integer.TYPE )
+        {
+            return parseInts( values, delimiter );
+        }
+        else if ( elementType == Long.TYPE )
+        {
+            return parseLongs( values, delimiter );
+        }
+        else if ( elementType == Double.TYPE )
+        {
+            return parseDoubles( values, delimiter );
+        }
+
+        Converter<?> converter = descriptor.getElementConverter();
+        if ( converter == null )
+        {
+            throw new RuntimeException( "No converter registered for " + elementType.getCanonicalName() + "." );
+        }
+
+        List<Object> elements = new ArrayList<>();
+        for ( CharSequence value : values )
+        {
+            int length = value.length();
+            int start = 0;
+            for ( int i = 0; i <= length; i++ )
+            {
+                if ( i == length || value.charAt( i ) == delimiter )
+                {
+                    int from = skipSpace( value, start, i );
+                    int to = trimSpace( value, from, i );
+                    if ( from < to )
+                    {
+                        elements.add( converter.convert( value.subSequence( from, to ).toString() ) );
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+
+        return toValue( type, elementType, elements );
+    }
+
+    /**
+     * Array or collection of the given type holding the already converted elements.
+     */
+    static Object toValue( Class<?> type, Class<?> elementType, List<Object> elements )
+    {
+        if ( type.isArray() )
+        {
+            Object array = Array.newInstance( elementType, elements.size() );
+            for ( int i = 0; i < elements.size(); i++ )
+            {
+                Array.set( array, i, elements.get( i ) );
+            }
+            return array;
+        }
+
+        Collection<Object> collection = newCollection( type );
+        collection.addAll( elements );
+        return collection;
+    }
+
+    /**
+     * True if the type is bound as several values.
+     */
+    static boolean isMultiValued( Class<?> type )
+    {
+        return ( type.isArray() && type != char[].class ) || type == List.class || type == Collection.class || type == Set.class
+            || type == SortedSet.class;
+    }
+
+    /**
+     * Element type of an array or collection field. Collections without a type argument hold Strings.
+     */
+    static Class<?> getElementType( Field field )
+    {
+        Class<?> type = field.getType();
+        if ( type.isArray() )
+        {
+            return type.getComponentType();
+        }
+
+        Type genericType = field.getGenericType();
+        if ( genericType instanceof ParameterizedType )
+        {
+            Type argument = ( (ParameterizedType) genericType ).getActualTypeArguments()[0];
+            if ( argument instanceof Class )
+            {
+                return (Class<?>) argument;
+            }
+            else if ( argument instanceof ParameterizedType )
+            {
+                return (Class<?>) ( (ParameterizedType) argument ).getRawType();
+            }
+        }
+        return String.class;
+    }
+
+    static int[] parseInts( List<CharSequence> values, char delimiter )
+    {
+        int[] buffer = new int[16];
+        int size = 0;
+        for ( CharSequence value : values )
+        {
+            int length = value.length();
+            int start = 0;
+            for ( int i = 0; i <= length; i++ )
+            {
+                if ( i == length || value.charAt( i ) == delimiter )
+                {
+                    int from = skipSpace( value, start, i );
+                    int to = trimSpace( value, from, i );
+                    if ( from < to )
+                    {
+                        if ( size == buffer.length )
+                        {
+                            buffer = Arrays.copyOf( buffer, size * 2 );
+                        }
+                        buffer[size++] = StringCoercer.parseIntRange( value, from, to );
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf( buffer, size );
+    }
+
+    static long[] parseLongs( List<CharSequence> values, char delimiter )
+    {
+        long[] buffer = new long[16];
+        int size = 0;
+        for ( CharSequence value : values )
+        {
+            int length = value.length();
+            int start = 0;
+            for ( int i = 0; i <= length; i++ )
+            {
+                if ( i == length || value.charAt( i ) == delimiter )
+                {
+                    int from = skipSpace( value, start, i );
+                    int to = trimSpace( value, from, i );
+                    if ( from < to )
+                    {
+                        if ( size == buffer.length )
+                        {
+                            buffer = Arrays.copyOf( buffer, size * 2 );
+                        }
+                        buffer[size++] = StringCoercer.parseLongRange( value, from, to );
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf( buffer, size );
+    }
+
+    static double[] parseDoubles( List<CharSequence> values, char delimiter )
+    {
+        double[] buffer = new double[16];
+        int size = 0;
+        for ( CharSequence value : values )
+        {
+            int length = value.length();
+            int start = 0;
+            for ( int i = 0; i <= length; i++ )
+            {
+                if ( i == length || value.charAt( i ) == delimiter )
+                {
+                    int from = skipSpace( value, start, i );
+                    int to = trimSpace( value, from, i );
+                    if ( from < to )
+                    {
+                        if ( size == buffer.length )
+                        {
+                            buffer = Arrays.copyOf( buffer, size * 2 );
+                        }
+                        buffer[size++] = StringCoercer.parseDoubleRange( value, from, to );
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+        return size == buffer.length ? buffer : Arrays.copyOf( buffer, size );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    @SuppressWarnings( "unchecked" )
+    private static Collection<Object> newCollection( Class<?> type )
+    {
+        if ( type == SortedSet.class )
+        {
+            return new TreeSet<>();
+        }
+        else if ( type == Set.class )
+        {
+            return new LinkedHashSet<>();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * First index in the range that is not whitespace, or end.
+     */
+    private static int skipSpace( CharSequence value, int start, int end )
+    {
+        while ( start < end && value.charAt( start ) <= ' ' )
+        {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * End of the range without trailing whitespace.
+     */
+    private static int trimSpace( CharSequence value, int start, int end )
+    {
+        while ( end > start && value.charAt( end - 1 ) <= ' ' )
+        {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.regex.Pattern;
+import net.jextra.runlet.constraint.*;
+
+/**
+ * <p>
+ * The constraints of a params class ({@link Range}, {@link net.jextra.runlet.constraint.Pattern}, {@link OneOf},
+ * {@link Exists} and {@link RequiresOneOf}), compiled once per class into a flat array of checks with the regular
+ * expressions precompiled and the bounds held as primitives.
+ * </p>
+ * <p>
+ * {@link #validate(Object)} runs every check in one pass over the array and returns all violations, so a bad
+ * command-line is reported completely at once. Null values are not checked; whether a value must be given is up to
+ * {@link ParamField#required()}. When the parameters that were given (or defaulted) are known, as for a parsed
+ * command-line, only those are checked, so an optional primitive that was not given is not reported for its zero, and
+ * {@link RequiresOneOf} is satisfied only by a parameter that was given.
+ * </p>
+ */
+final class ParamConstraints
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final ClassValue<ParamConstraints> CONSTRAINTS = new ClassValue<ParamConstraints>()
+    {
+        @Override
+        protected ParamConstraints computeValue( Class<?> type )
+        {
+            return new ParamConstraints( ParamSchema.of( type ) );
+        }
+    };
+
+    private final Check[] checks;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private ParamConstraints( ParamSchema schema )
+    {
+        List<Check> list = new ArrayList<>();
+        for ( ParamDescriptor descriptor : schema.getDescriptors() )
+        {
+            Field field = descriptor.getField();
+
+            Range range = field.getAnnotation( Range.class );
+            if ( range != null )
+            {
+                list.add( new RangeCheck( descriptor, range.min(), range.max() ) );
+            }
+
+            net.jextra.runlet.constraint.Pattern pattern = field.getAnnotation( net.jextra.runlet.constraint.Pattern.class );
+            if ( pattern != null )
+            {
+                list.add( new PatternCheck( descriptor, Pattern.compile( pattern.value() ) ) );
+            }
+
+            OneOf oneOf = field.getAnnotation( OneOf.class );
+            if ( oneOf != null )
+            {
+                list.add( new OneOfCheck( descriptor, oneOf.value(), oneOf.ignoreCase() ) );
+            }
+
+            Exists exists = field.getAnnotation( Exists.class );
+            if ( exists != null )
+            {
+                list.add( new ExistsCheck( descriptor, exists.directory() ) );
+            }
+        }
+
+        Class<?> paramsClass = schema.getParamsClass();
+        for ( Class<?> cls = paramsClass; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+        {
+            RequiresOneOf requiresOneOf = cls.getAnnotation( RequiresOneOf.class );
+            if ( requiresOneOf != null )
+            {
+                ParamDescriptor[] descriptors = new ParamDescriptor[requiresOneOf.value().length];
+                for ( int i = 0; i < descriptors.length; i++ )
+                {
+                    descriptors[i] = schema.getDescriptor( requiresOneOf.value()[i] );
+                    if ( descriptors[i] == null )
+                    {
+                        throw new IllegalArgumentException( String
+                            .format( "RequiresOneOf on '%s' names unknown parameter '%s'", cls.getName(), requiresOneOf.value()[i] ) );
+                    }
+                }
+                list.add( new RequiresOneOfCheck( descriptors ) );
+            }
+        }
+
+        checks = list.toArray( new Check[0] );
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    static ParamConstraints of( Class<?> paramsClass )
+    {
+        return CONSTRAINTS.get( paramsClass );
+    }
+
+    int size()
+    {
+        return checks.length;
+    }
+
+    /**
+     * Every violation of the constraints by the params, empty if there are none.
+     */
+    List<String> validate( Object params )
+    {
+        return validate( params, null );
+    }
+
+    /**
+     * Every violation of the constraints by the parameters given, by the indexes of their descriptors. With null
+     * given, every non-null value is checked.
+     */
+    List<String> validate( Object params, BitSet given )
+    {
+        if ( checks.length == 0 )
+        {
+            return Collections.emptyList();
+        }
+
+        List<String> violations = new ArrayList<>();
+        for ( Check check : checks )
+        {
+            check.check( params, given, violations );
+        }
+        return violations;
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    private interface Check
+    {
+        void check( Object params, BitSet given, List<String> violations );
+    }
+
+    /**
+     * A check of the value of one parameter, applied to each element of arrays and collections.
+     */
+    private abstract static class ValueCheck implements Check
+    {
+        final ParamDescriptor descriptor;
+
+        ValueCheck( ParamDescriptor descriptor )
+        {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public void check( Object params, BitSet given, List<String> violations )
+        {
+            if ( given != null && !given.get( descriptor.getIndex() ) )
+            {
+                return;
+            }
+
+            Object value = descriptor.getBinder().get( params );
+            if ( value == null || value instanceof Lazy )
+            {
+                return;
+            }
+
+            if ( value instanceof Collection )
+            {
+                for ( Object element : (Collection<?>) value )
+                {
+                    checkElement( element, violations );
+                }
+            }
+            else if ( value instanceof Object[] )
+            {
+                for ( Object element : (Object[]) value )
+                {
+                    checkElement( element, violations );
+                }
+            }
+            else if ( value.getClass().isArray() && !( value instanceof char[] ) )
+            {
+                checkArray( value, violations );
+            }
+            else
+            {
+                checkElement( value, violations );
+            }
+        }
+
+        void checkArray( Object array, List<String> violations )
+        {
+            for ( int i = 0, length = Array.getLength( array ); i < length; i++ )
+            {
+                checkElement( Array.get( array, i ), violations );
+            }
+        }
+
+        private void checkElement( Object element, List<String> violations )
+        {
+            if ( element != null )
+            {
+                String violation = checkValue( element );
+                if ( violation != null )
+                {
+                    violations.add( String.format( "Invalid parameter [%s]: %s.", descriptor.getName(), violation ) );
+                }
+            }
+        }
+
+        /**
+         * Description of the violation, or null if the value is valid.
+         */
+        abstract String checkValue( Object value );
+    }
+
+    private static class RangeCheck extends ValueCheck
+    {
+        // doubles represent every integer up to this magnitude exactly
+        private static final double EXACT_LONG_LIMIT = 1L << 53;
+
+        private final double min;
+        private final double max;
+        private final long longMin;
+        private final long longMax;
+
+        RangeCheck( ParamDescriptor descriptor, double min, double max )
+        {
+            super( descriptor );
+            this.min = min;
+            this.max = max;
+
+            Class<?> type = descriptor.getElementType() != null ? descriptor.getElementType() : descriptor.getType();
+            if ( ( type == long.class || type == Long.class ) && ( !isExact( min ) || !isExact( max ) ) )
+            {
+                throw new IllegalArgumentException( String.format( "Range of long ParamField \"%s\" has a bound beyond 2^53, which a double "
+                    + "does not hold exactly", descriptor.getName() ) );
+            }
+            // casts saturate, so infinite bounds become Long.MIN_VALUE and Long.MAX_VALUE
+            longMin = (long) Math.ceil( min );
+            longMax = (long) Math.floor( max );
+        }
+
+        @Override
+        void checkArray( Object array, List<String> violations )
+        {
+            // primitive arrays are checked without boxing each element
+            if ( array instanceof int[] )
+            {
+                for ( int element : (int[]) array )
+                {
+                    report( element, violations );
+                }
+            }
+            else if ( array instanceof long[] )
+            {
+                for ( long element : (long[]) array )
+                {
+                    report( element, violations );
+                }
+            }
+            else if ( array instanceof double[] )
+            {
+                for ( double element : (double[]) array )
+                {
+                    report( element, violations );
+                }
+            }
+            else
+            {
+                super.checkArray( array, violations );
+            }
+        }
+
+        @Override
+        String checkValue( Object value )
+        {
+            if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte )
+            {
+                long number = ( (Number) value ).longValue();
+                return isValid( number ) ? null : describe( Long.toString( number ) );
+            }
+            if ( !( value instanceof Number ) )
+            {
+                return "not a number";
+            }
+            double number = ( (Number) value ).doubleValue();
+            return isValid( number ) ? null : describe( format( number ) );
+        }
+
+        private void report( long number, List<String> violations )
+        {
+            if ( !isValid( number ) )
+            {
+                violations.add( String.format( "Invalid parameter [%s]: %s.", descriptor.getName(), describe( Long.toString( number ) ) ) );
+            }
+        }
+
+        private void report( double number, List<String> violations )
+        {
+            if ( !isValid( number ) )
+            {
+                violations.add( String.format( "Invalid parameter [%s]: %s.", descriptor.getName(), describe( format( number ) ) ) );
+            }
+        }
+
+        private boolean isValid( long number )
+        {
+            return number >= longMin && number <= longMax;
+        }
+
+        private boolean isValid( double number )
+        {
+            return number >= min && number <= max;
+        }
+
+        private String describe( String number )
+        {
+            if ( min == Double.NEGATIVE_INFINITY )
+            {
+                return String.format( "%s is greater than %s", number, format( max ) );
+            }
+            else if ( max == Double.POSITIVE_INFINITY )
+            {
+                return String.format( "%s is less than %s", number, format( min ) );
+            }
+            return String.format( "%s is not between %s and %s", number, format( min ), format( max ) );
+        }
+
+        private static boolean isExact( double bound )
+        {
+            return Double.isInfinite( bound ) || Math.abs( bound ) <= EXACT_LONG_LIMIT;
+        }
+
+        private static String format( double number )
+        {
+            return number == Math.rint( number ) && Math.abs( number ) <= EXACT_LONG_LIMIT ? Long.toString( (long) number ) : Double.toString( number );
+        }
+    }
+
+    private static class PatternCheck extends ValueCheck
+    {
+        private final Pattern pattern;
+
+        PatternCheck( ParamDescriptor descriptor, Pattern pattern )
+        {
+            super( descriptor );
+            this.pattern = pattern;
+        }
+
+        @Override
+        String checkValue( Object value )
+        {
+            String text = StringCoercer.toString( value );
+            return pattern.matcher( text ).matches() ? null : String.format( "'%s' does not match %s", text, pattern.pattern() );
+        }
+    }
+
+    private static class OneOfCheck extends ValueCheck
+    {
+        private final Set<String> allowed;
+        private final boolean ignoreCase;
+        private final String description;
+
+        OneOfCheck( ParamDescriptor descriptor, String[] values, boolean ignoreCase )
+        {
+            super( descriptor );
+            this.ignoreCase = ignoreCase;
+            allowed = new HashSet<>();
+            for ( String value : values )
+            {
+                allowed.add( ignoreCase ? value.toLowerCase( Locale.ROOT ) : value );
+            }
+            description = String.join( ", ", values );
+        }
+
+        @Override
+        String checkValue( Object value )
+        {
+            String text = StringCoercer.toString( value );
+            boolean valid = allowed.contains( ignoreCase ? text.toLowerCase( Locale.ROOT ) : text );
+            return valid ? null : String.format( "'%s' is not one of %s", text, description );
+        }
+    }
+
+    private static class ExistsCheck extends ValueCheck
+    {
+        private final boolean directory;
+
+        ExistsCheck( ParamDescriptor descriptor, boolean directory )
+        {
+            super( descriptor );
+            this.directory = directory;
+        }
+
+        @Override
+        String checkValue( Object value )
+        {
+            // File values were resolved by their converter, Path and String values are resolved here
+            File file = value instanceof File ? (File) value : RunletContext.current().resolveFile( StringCoercer.toString( value ) );
+
+            if ( !file.exists() )
+            {
+                return String.format( "%s does not exist", file );
+            }
+            return directory && !file.isDirectory() ? String.format( "%s is not a directory", file ) : null;
+        }
+    }
+
+    private static class RequiresOneOfCheck implements Check
+    {
+        private final ParamDescriptor[] descriptors;
+
+        RequiresOneOfCheck( ParamDescriptor[] descriptors )
+        {
+            this.descriptors = descriptors;
+        }
+
+        @Override
+        public void check( Object params, BitSet given, List<String> violations )
+        {
+            for ( ParamDescriptor descriptor : descriptors )
+            {
+                if ( given != null ? given.get( descriptor.getIndex() ) : descriptor.getBinder().get( params ) != null )
+                {
+                    return;
+                }
+            }
+
+            StringBuilder names = new StringBuilder();
+            for ( ParamDescriptor descriptor : descriptors )
+            {
+                names.append( names.length() == 0 ? "" : ", " ).append( descriptor.getName() );
+            }
+            violations.add( String.format( "One of the parameters [%s] is required.", names ) );
+        }
+    }
+}
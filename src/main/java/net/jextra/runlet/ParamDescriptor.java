@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * <p>
+ * Immutable description of a single {@link ParamField} as found in a {@link ParamSchema}.
+ * </p>
+ */
+public final class ParamDescriptor
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final int index;
+    private final Field field;
+    private final ParamField annotation;
+    private final String name;
+    private final String description;
+    private final boolean required;
+    private final boolean hidden;
+    private final Class<?> type;
+    private final String format;
+    private final String defaultValue;
+    private final FieldBinder binder;
+    private final Converter<?> converter;
+    private final boolean multiValued;
+    private final boolean lazy;
+    private final Class<?> elementType;
+    private final char delimiter;
+    private final Converter<?> elementConverter;
+    private final Function<Object, String> printer;
+    private final boolean builtInConverter;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    ParamDescriptor( int index, Field field, ParamField annotation )
+    {
+        this( index, annotation.value(), field, annotation, FieldBinder.of( field ) );
+    }
+
+    /**
+     * A parameter of a nested {@link ParamGroup}, with its prefixed name and a binder reaching it from the params
+     * object.
+     */
+    ParamDescriptor( int index, String name, Field field, ParamField annotation, FieldBinder binder )
+    {
+        this.index = index;
+        this.field = field;
+        this.annotation = annotation;
+        this.name = name;
+        description = annotation.description() == null || annotation.description().isEmpty() ? name : annotation.description();
+        required = annotation.required();
+        hidden = annotation.hidden();
+        type = field.getType();
+        format = annotation.format();
+        defaultValue = annotation.defaultValue().isEmpty() ? null : annotation.defaultValue();
+        this.binder = binder;
+        multiValued = MultiValues.isMultiValued( type );
+        lazy = type == Lazy.class || type == Supplier.class;
+        elementType = multiValued || lazy ? MultiValues.getElementType( field ) : null;
+        delimiter = getDelimiter( annotation );
+        converter = multiValued || lazy ? null : getConverter( type );
+        boolean converted = lazy || ( multiValued && elementType != Integer.TYPE && elementType != Long.TYPE && elementType != Double.TYPE );
+        elementConverter = converted ? getConverter( elementType ) : null;
+        if ( converted && elementConverter == null )
+        {
+            // fail now rather than on first access of a lazy value
+            throw new IllegalArgumentException(
+                String.format( "No converter registered for %s of ParamField \"%s\"", elementType.getCanonicalName(), name ) );
+        }
+        printer = format.isEmpty() ? null : TemporalConverters.printerForFormat( multiValued || lazy ? elementType : type, format );
+        builtInConverter = format.isEmpty() && !multiValued && !lazy && ConverterRegistry.getDefault().isBuiltIn( type );
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Position of this parameter within its schema.
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    public Field getField()
+    {
+        return field;
+    }
+
+    public ParamField getAnnotation()
+    {
+        return annotation;
+    }
+
+    /**
+     * The command-line name of the parameter, e.g. "name" for --name=value, including the prefix of any
+     * {@link ParamGroup}s it is nested in.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Description to display in usage. Falls back to the name when no description was given.
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public boolean isRequired()
+    {
+        return required;
+    }
+
+    public boolean isHidden()
+    {
+        return hidden;
+    }
+
+    public Class<?> getType()
+    {
+        return type;
+    }
+
+    /**
+     * The {@link ParamField#format()}, empty if none.
+     */
+    public String getFormat()
+    {
+        return format;
+    }
+
+    /**
+     * The {@link ParamField#defaultValue()}, or null if none.
+     */
+    public String getDefaultValue()
+    {
+        return defaultValue;
+    }
+
+    /**
+     * Cached accessor used to read and write this parameter on a params object.
+     */
+    public FieldBinder getBinder()
+    {
+        return binder;
+    }
+
+    /**
+     * Converter resolved for the field's type when the schema was built, or null if the type is not convertible.
+     */
+    public Converter<?> getConverter()
+    {
+        return converter;
+    }
+
+    /**
+     * True for array and collection parameters, which bind every value given for the name.
+     */
+    public boolean isMultiValued()
+    {
+        return multiValued;
+    }
+
+    /**
+     * True for {@link Lazy} and Supplier parameters, which hold the value unconverted until first accessed.
+     */
+    public boolean isLazy()
+    {
+        return lazy;
+    }
+
+    /**
+     * Element type of an array or collection parameter, the value type of a lazy parameter, otherwise null.
+     */
+    public Class<?> getElementType()
+    {
+        return elementType;
+    }
+
+    /**
+     * The {@link ParamField#delimiter()} splitting the values of an array or collection parameter, or 0 if values
+     * are not split.
+     */
+    public char getDelimiter()
+    {
+        return delimiter;
+    }
+
+    /**
+     * Converter for the elements of an array or collection parameter, or the value of a lazy parameter. Null for int,
+     * long and double elements, which are parsed directly, and for other parameters.
+     */
+    public Converter<?> getElementConverter()
+    {
+        return elementConverter;
+    }
+
+    /**
+     * Text of a single value, or of one element of an array or collection parameter, that converts back to the same
+     * value: written with the {@link ParamField#format()} if there is one. A {@link Lazy} value gives its raw value.
+     */
+    public String formatValue( Object value )
+    {
+        if ( value instanceof Lazy )
+        {
+            return ( (Lazy<?>) value ).getRawValue();
+        }
+        else if ( lazy && value instanceof Supplier )
+        {
+            value = ( (Supplier<?>) value ).get();
+        }
+
+        if ( value == null )
+        {
+            return null;
+        }
+        else if ( printer != null )
+        {
+            return printer.apply( value );
+        }
+        else if ( value instanceof Date )
+        {
+            return TemporalConverters.printDate( (Date) value );
+        }
+        return StringCoercer.toString( value );
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + ":" + type.getSimpleName();
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * True if the value is converted by a built-in converter, which the {@link GeneratedParams} of the class inlines.
+     * Otherwise a converter registered for the type must be used instead.
+     */
+    boolean hasBuiltInConverter()
+    {
+        return builtInConverter;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private Converter<?> getConverter( Class<?> targetType )
+    {
+        if ( format.isEmpty() )
+        {
+            return ConverterRegistry.getDefault().lookup( targetType );
+        }
+
+        try
+        {
+            return TemporalConverters.forFormat( targetType, format );
+        }
+        catch ( IllegalArgumentException ex )
+        {
+            throw new IllegalArgumentException( String.format( "Invalid format '%s' for ParamField \"%s\"", format, name ), ex );
+        }
+    }
+
+    private static char getDelimiter( ParamField annotation )
+    {
+        String value = annotation.delimiter();
+        if ( value.length() > 1 )
+        {
+            throw new IllegalArgumentException(
+                String.format( "ParamField \"%s\" delimiter must be a single character, not '%s'", annotation.value(), value ) );
+        }
+        return value.isEmpty() ? 0 : value.charAt( 0 );
+    }
+}
@@ -40,4 +40,22 @@ public @interface ParamField
     boolean required() default true;
 
     boolean hidden() default false;
+
+    /**
+     * Pattern for parsing {@link java.util.Date} and java.time values, see {@link java.time.format.DateTimeFormatter}.
+     * ISO-8601 is used when empty.
+     */
+    String format() default "";
+
+    /**
+     * Character separating several elements within one value of an array or collection field, e.g. --ids=1,2,3.
+     * Repeating the parameter (--id=1 --id=2) always adds elements. Empty means values are not split.
+     */
+    String delimiter() default ",";
+
+    /**
+     * Value used when no command-line argument or {@link ParamSource} provides one. Empty means no default. A
+     * parameter with a default never counts as missing.
+     */
+    String defaultValue() default "";
 }
@@ -36,7 +36,7 @@ public class ParamFields
     // ============================================================
 
     private Object params;
-    private Map<ParamField, Field> anns;
+    private ParamSchema schema;
 
     // ============================================================
     // Constructors
@@ -45,32 +45,7 @@ public class ParamFields
     public ParamFields( Object params )
     {
         this.params = params;
-        anns = new LinkedHashMap<ParamField, Field>();
-
-        if ( params != null )
-        {
-            Set<String> paramFieldNames = new HashSet<>();
-            // walk up params object hierarchy looking for ParamFields to process
-            for ( Class<?> cls = params.getClass(); cls != null && cls != Object.class; cls = cls.getSuperclass() )
-            {
-                for ( Field field : cls.getDeclaredFields() )
-                {
-                    if ( field.isAnnotationPresent( ParamField.class ) )
-                    {
-                        ParamField ann = field.getAnnotation( ParamField.class );
-                        // Ensure unique param field names
-                        String fieldName = ann.value();
-                        if ( !paramFieldNames.add( fieldName ) )
-                        {
-                            throw new IllegalArgumentException( String
-                                .format( "Duplicate ParamField fieldName '%s' found on '%s' class hierarchy", fieldName,
-                                    params.getClass().getName() ) );
-                        }
-                        anns.put( ann, field );
-                    }
-                }
-            }
-        }
+        schema = ParamSchema.forParams( params );
     }
 
     // ============================================================
@@ -81,44 +56,164 @@ public class ParamFields
     // public
     // ----------
 
+    public ParamSchema getSchema()
+    {
+        return schema;
+    }
+
     public Set<ParamField> getParamFields()
     {
-        return anns.keySet();
+        return schema.getFieldsByAnnotation().keySet();
     }
 
     public Field getField( ParamField ann )
     {
-        return anns.get( ann );
+        return schema.getFieldsByAnnotation().get( ann );
     }
 
     public void setValues( Map<String, String> values )
     {
-        for ( ParamField ann : anns.keySet() )
+        setValues( ParamValues.of( values ) );
+    }
+
+    /**
+     * Set fields from the given values. Array and collection fields receive every value of their name, other fields
+     * the last one. Names that are not parameters are ignored. The work done depends on the number of values, not on
+     * the size of the schema.
+     */
+    public void setValues( ParamValues values )
+    {
+        setValues( values, null );
+    }
+
+    /**
+     * Every violation of the constraint annotations of the params class (see the
+     * <code>net.jextra.runlet.constraint</code> package), empty if there are none.
+     */
+    public List<String> validate()
+    {
+        return params == null ? Collections.emptyList() : ParamConstraints.of( params.getClass() ).validate( params );
+    }
+
+    /**
+     * Every violation of the constraint annotations by the parameters given, by the indexes of their descriptors.
+     */
+    List<String> validate( BitSet given )
+    {
+        return params == null ? Collections.emptyList() : ParamConstraints.of( params.getClass() ).validate( params, given );
+    }
+
+    /**
+     * Like {@link #setValues(ParamValues)}, but if errors is not null, a message for each value that cannot be converted
+     * is added to it and the remaining values are still set.
+     */
+    void setValues( ParamValues values, List<String> errors )
+    {
+        for ( String paramFieldName : values.getNames() )
         {
-            String paramFieldName = ann.value();
-            if ( values.containsKey( paramFieldName ) )
+            ParamDescriptor descriptor = schema.getDescriptor( paramFieldName );
+            if ( descriptor == null )
+            {
+                continue;
+            }
+
+            try
             {
-                setFieldValue( anns.get( ann ), paramFieldName, values.get( paramFieldName ) );
+                if ( descriptor.isMultiValued() )
+                {
+                    setFieldValues( descriptor, values.getAll( paramFieldName ) );
+                }
+                else
+                {
+                    setFieldValue( descriptor, values.get( paramFieldName ) );
+                }
+            }
+            catch ( IllegalArgumentException ex )
+            {
+                if ( errors == null )
+                {
+                    throw ex;
+                }
+                errors.add( ex.getCause() == null ? ex.getMessage() : ex.getMessage() + ": " + ex.getCause().getMessage() );
             }
         }
     }
 
-    private void setFieldValue( Field field, String paramFieldName, String paramValue )
+    void setFieldValue( ParamDescriptor descriptor, CharSequence paramValue )
     {
         //System.out.printf( "Setting value: %s=%s.\n", paramFieldName, paramValue );
-        field.setAccessible( true );
+        Class<?> fldType = descriptor.getType();
+        FieldBinder binder = descriptor.getBinder();
 
-        Class fldType = field.getType();
+        try
+        {
+            GeneratedParams generated = schema.getGenerated();
+            if ( generated != null && descriptor.hasBuiltInConverter() && generated.setValue( params, descriptor.getName(), paramValue ) )
+            {
+                return;
+            }
+
+            if ( paramValue == null )
+            {
+                binder.set( params, null );
+            }
+            else if ( descriptor.isLazy() )
+            {
+                binder.set( params,
+                    new Lazy<>( descriptor.getName(), paramValue.toString(), descriptor.getElementType(), descriptor.getElementConverter() ) );
+            }
+            else if ( fldType == Integer.TYPE )
+            {
+                binder.setInt( params, StringCoercer.parseIntRange( paramValue, 0, paramValue.length() ) );
+            }
+            else if ( fldType == Long.TYPE )
+            {
+                binder.setLong( params, StringCoercer.parseLongRange( paramValue, 0, paramValue.length() ) );
+            }
+            else if ( fldType == Double.TYPE )
+            {
+                binder.setDouble( params, StringCoercer.parseDoubleRange( paramValue, 0, paramValue.length() ) );
+            }
+            else if ( fldType == Boolean.TYPE )
+            {
+                binder.setBoolean( params, StringCoercer.parseBooleanRange( paramValue, 0, paramValue.length() ) );
+            }
+            else
+            {
+                Converter<?> converter = descriptor.getConverter();
+                if ( converter == null )
+                {
+                    throw new RuntimeException( "No converter registered for " + fldType.getCanonicalName() + "." );
+                }
+                binder.set( params, converter.convert( paramValue.toString() ) );
+            }
+        }
+        catch ( Exception ex )
+        {
+            throw new IllegalArgumentException( String
+                .format( "For ParamField \"%s\", cannot coerce String value(%s) to type:%s", descriptor.getName(), paramValue,
+                    fldType.getSimpleName() ), ex );
+        }
+    }
 
+    private void setFieldValues( ParamDescriptor descriptor, List<CharSequence> paramValues )
+    {
         try
         {
-            field.set( params, StringCoercer.fromString( paramValue, fldType ) );
+            if ( paramValues.size() == 1 && paramValues.get( 0 ) == null )
+            {
+                descriptor.getBinder().set( params, null );
+            }
+            else
+            {
+                descriptor.getBinder().set( params, MultiValues.convert( descriptor, paramValues ) );
+            }
         }
         catch ( Exception ex )
         {
             throw new IllegalArgumentException( String
-                .format( "For ParamField \"%s\", cannot coerce String value(%s) to type:%s", paramFieldName, paramValue, fldType.getSimpleName() ),
-                ex );
+                .format( "For ParamField \"%s\", cannot coerce String values%s to type:%s", descriptor.getName(), paramValues,
+                    descriptor.getType().getSimpleName() ), ex );
         }
     }
 
@@ -129,27 +224,50 @@ public class ParamFields
     }
 
     /**
-     * Append fields to the given prefix of Strings.
+     * Append fields to the given prefix of Strings, with values written in each field's format. Array and collection
+     * fields give one argument per element.
      */
     public List<String> appendArgs( List<String> prefix )
         throws Exception
     {
         ArrayList<String> args = new ArrayList<>( prefix );
 
-        ParamFields fields = new ParamFields( params );
-        for ( ParamField ann : getParamFields() )
+        for ( ParamDescriptor descriptor : schema.getDescriptors() )
         {
-            Field field = fields.getField( ann );
-            field.setAccessible( true );
-            Object value = field.get( params );
+            Object value = descriptor.getBinder().get( params );
 
             if ( value == null )
             {
                 continue;
             }
 
-            args.add( String.format( "--%s=\"%s\"", ann.value(), StringCoercer.toString( value ) ) );
+            if ( descriptor.isMultiValued() && value instanceof Collection )
+            {
+                for ( Object element : (Collection<?>) value )
+                {
+                    appendArg( args, descriptor, element );
+                }
+            }
+            else if ( descriptor.isMultiValued() && value.getClass().isArray() )
+            {
+                for ( int i = 0, length = Array.getLength( value ); i < length; i++ )
+                {
+                    appendArg( args, descriptor, Array.get( value, i ) );
+                }
+            }
+            else
+            {
+                appendArg( args, descriptor, value );
+            }
         }
         return args;
     }
+
+    private static void appendArg( List<String> args, ParamDescriptor descriptor, Object value )
+    {
+        if ( value != null )
+        {
+            args.add( String.format( "--%s=%s", descriptor.getName(), descriptor.formatValue( value ) ) );
+        }
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>
+ * Add this to a field of a params object whose type holds further {@link ParamField}s (and groups). The nested
+ * parameters are named with the group's prefix, e.g. <code>--db.url=</code> for a field <code>url</code> in a group
+ * <code>db</code>. The group object is created with its no-arg constructor when the first of its parameters is set.
+ * </p>
+ */
+@Retention( RetentionPolicy.RUNTIME )
+@Target( ElementType.FIELD )
+public @interface ParamGroup
+{
+    /**
+     * Name prefix of the nested parameters. Empty means the name of the field.
+     */
+    String value() default "";
+
+    /**
+     * Separator between the prefix and the nested names, e.g. "-" for <code>--db-url=</code>.
+     */
+    String separator() default ".";
+}
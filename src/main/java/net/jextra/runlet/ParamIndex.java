@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Open-addressing hash table from parameter name to {@link ParamDescriptor}, built once per {@link ParamSchema}.
+ * Lookups take a character range of the argument, so finding the descriptor of <code>--name=value</code> neither
+ * copies the name nor depends on the number of parameters in the schema.
+ * </p>
+ */
+final class ParamIndex
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final ParamDescriptor[] values;
+    private final int mask;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    ParamIndex( List<ParamDescriptor> descriptors )
+    {
+        // at most half full, so probe sequences stay short
+        int capacity = 2;
+        while ( capacity < descriptors.size() * 2 )
+        {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        values = new ParamDescriptor[capacity];
+        mask = capacity - 1;
+
+        for ( ParamDescriptor descriptor : descriptors )
+        {
+            String name = descriptor.getName();
+            int hash = hash( name, 0, name.length() );
+            int slot = hash & mask;
+            while ( keys[slot] != null )
+            {
+                slot = ( slot + 1 ) & mask;
+            }
+            keys[slot] = name;
+            hashes[slot] = hash;
+            values[slot] = descriptor;
+        }
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    ParamDescriptor get( CharSequence name )
+    {
+        return get( name, 0, name.length() );
+    }
+
+    /**
+     * The descriptor named by the characters start (inclusive) to end (exclusive), or null.
+     */
+    ParamDescriptor get( CharSequence chars, int start, int end )
+    {
+        int hash = hash( chars, start, end );
+        for ( int slot = hash & mask; keys[slot] != null; slot = ( slot + 1 ) & mask )
+        {
+            if ( hashes[slot] == hash && matches( keys[slot], chars, start, end ) )
+            {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static int hash( CharSequence chars, int start, int end )
+    {
+        int hash = 0;
+        for ( int i = start; i < end; i++ )
+        {
+            hash = 31 * hash + chars.charAt( i );
+        }
+        // spread the high bits into the bits used for the slot
+        return hash ^ ( hash >>> 16 );
+    }
+
+    private static boolean matches( String key, CharSequence chars, int start, int end )
+    {
+        if ( key.length() != end - start )
+        {
+            return false;
+        }
+        for ( int i = 0; i < key.length(); i++ )
+        {
+            if ( key.charAt( i ) != chars.charAt( start + i ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
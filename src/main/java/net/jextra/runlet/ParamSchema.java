@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Immutable, per-class description of all {@link ParamField}s of a parameters class.
+ * </p>
+ * <p>
+ * The class hierarchy is scanned once per class and the result is cached, so it is safe and cheap to call
+ * {@link #of(Class)} on every parse from any thread.
+ * </p>
+ * <p>
+ * Parameters of nested {@link ParamGroup}s are flattened into the schema under their prefixed names, and all names go
+ * into one {@link ParamIndex}, so looking up the parameters given on a command-line costs the same no matter how many
+ * parameters the schema declares.
+ * </p>
+ */
+public final class ParamSchema
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final ClassValue<ParamSchema> SCHEMAS = new ClassValue<ParamSchema>()
+    {
+        @Override
+        protected ParamSchema computeValue( Class<?> type )
+        {
+            return new ParamSchema( type );
+        }
+    };
+
+    private static final ParamSchema EMPTY = new ParamSchema( null );
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Class<?> paramsClass;
+    private final List<ParamDescriptor> descriptors;
+    private final ParamIndex index;
+    private final List<ParamDescriptor> requiredDescriptors;
+    private final List<ParamDescriptor> defaultedDescriptors;
+    private final Map<ParamField, Field> fields;
+    private final GeneratedParams generated;
+    private final long schemaHash;
+    private final ConcurrentMap<String, UsageLayout> usageLayouts = new ConcurrentHashMap<>();
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private ParamSchema( Class<?> paramsClass )
+    {
+        this.paramsClass = paramsClass;
+
+        List<ParamDescriptor> list = new ArrayList<>();
+        Map<ParamField, Field> anns = new LinkedHashMap<>();
+        if ( paramsClass != null )
+        {
+            collect( paramsClass, "", new Field[0], list, new HashSet<>(), anns, new HashSet<>() );
+        }
+
+        List<ParamDescriptor> required = new ArrayList<>();
+        List<ParamDescriptor> defaulted = new ArrayList<>();
+        for ( ParamDescriptor descriptor : list )
+        {
+            if ( descriptor.getDefaultValue() != null )
+            {
+                defaulted.add( descriptor );
+            }
+            else if ( descriptor.isRequired() && !descriptor.isHidden() )
+            {
+                required.add( descriptor );
+            }
+        }
+
+        descriptors = Collections.unmodifiableList( list );
+        index = new ParamIndex( list );
+        requiredDescriptors = Collections.unmodifiableList( required );
+        defaultedDescriptors = Collections.unmodifiableList( defaulted );
+        fields = Collections.unmodifiableMap( anns );
+        generated = list.isEmpty() ? null : findGenerated( paramsClass, GeneratedParams.SUFFIX, GeneratedParams.class );
+
+        // FNV-1a over the names and generic types of the parameters in order
+        long hash = FNV_OFFSET_BASIS;
+        for ( ParamDescriptor descriptor : list )
+        {
+            String signature = descriptor.getName() + ':' + descriptor.getField().getGenericType().getTypeName() + ';';
+            for ( int i = 0; i < signature.length(); i++ )
+            {
+                hash = ( hash ^ signature.charAt( i ) ) * FNV_PRIME;
+            }
+        }
+        schemaHash = hash;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Cached schema for the given parameters class.
+     */
+    public static ParamSchema of( Class<?> paramsClass )
+    {
+        if ( paramsClass == null )
+        {
+            return EMPTY;
+        }
+
+        return SCHEMAS.get( paramsClass );
+    }
+
+    /**
+     * Cached schema for the class of the given parameters object. A null object has an empty schema.
+     */
+    public static ParamSchema forParams( Object params )
+    {
+        return params == null ? EMPTY : of( params.getClass() );
+    }
+
+    public Class<?> getParamsClass()
+    {
+        return paramsClass;
+    }
+
+    /**
+     * All parameters in declaration order, sub-class fields first, with the parameters of a {@link ParamGroup} in
+     * place of the group field.
+     */
+    public List<ParamDescriptor> getDescriptors()
+    {
+        return descriptors;
+    }
+
+    public ParamDescriptor getDescriptor( String name )
+    {
+        return index.get( name );
+    }
+
+    public int size()
+    {
+        return descriptors.size();
+    }
+
+    /**
+     * Hash of the names and types of the parameters in order. Two schemas with the same hash bind the same encoded
+     * values, see {@link ParamsCodec}.
+     */
+    public long getSchemaHash()
+    {
+        return schemaHash;
+    }
+
+    /**
+     * Compile-time generated binder for the params class, or null if none was generated.
+     */
+    public GeneratedParams getGenerated()
+    {
+        return generated;
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * The descriptor named by the characters start (inclusive) to end (exclusive), or null. Does not allocate.
+     */
+    ParamDescriptor getDescriptor( CharSequence chars, int start, int end )
+    {
+        return index.get( chars, start, end );
+    }
+
+    /**
+     * Required parameters without a default value that are not hidden, which must be given.
+     */
+    List<ParamDescriptor> getRequiredDescriptors()
+    {
+        return requiredDescriptors;
+    }
+
+    /**
+     * Parameters with a {@link ParamField#defaultValue()}.
+     */
+    List<ParamDescriptor> getDefaultedDescriptors()
+    {
+        return defaultedDescriptors;
+    }
+
+    /**
+     * ParamFields declared directly by the params class hierarchy, not within groups.
+     */
+    Map<ParamField, Field> getFieldsByAnnotation()
+    {
+        return fields;
+    }
+
+    /**
+     * Usage layout for the given runlet, script name and terminal width, built on first use.
+     */
+    UsageLayout getUsageLayout( Class<?> runletClass, String scriptName, List<CommandIndex.Command> commands, int width )
+    {
+        String key = runletClass.getName() + '\n' + scriptName + '\n' + width;
+        return usageLayouts.computeIfAbsent( key, k -> new UsageLayout( scriptName, this, commands, width ) );
+    }
+
+    /**
+     * Instantiate the class generated by the annotation processor for the given class, if there is one.
+     */
+    static <T> T findGenerated( Class<?> cls, String suffix, Class<T> type )
+    {
+        try
+        {
+            Class<?> generatedClass = Class.forName( cls.getName() + suffix, true, cls.getClassLoader() );
+            return type.cast( generatedClass.getDeclaredConstructor().newInstance() );
+        }
+        catch ( ReflectiveOperationException | ClassCastException | LinkageError ex )
+        {
+            return null;
+        }
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    /**
+     * Add the parameters of the class hierarchy to the list, walking into {@link ParamGroup}s.
+     *
+     * @param groups fields leading from the params object to an instance of cls.
+     * @param visiting group types being collected, to reject groups that contain themselves.
+     */
+    private void collect( Class<?> cls, String prefix, Field[] groups, List<ParamDescriptor> list, Set<String> names,
+        Map<ParamField, Field> anns, Set<Class<?>> visiting )
+    {
+        if ( !visiting.add( cls ) )
+        {
+            throw new IllegalArgumentException( String.format( "ParamGroup type '%s' contains itself", cls.getName() ) );
+        }
+
+        // walk up params class hierarchy looking for ParamFields to process
+        for ( Class<?> type = cls; type != null && type != Object.class; type = type.getSuperclass() )
+        {
+            for ( Field field : type.getDeclaredFields() )
+            {
+                ParamGroup group = field.getAnnotation( ParamGroup.class );
+                if ( group != null )
+                {
+                    Field[] path = Arrays.copyOf( groups, groups.length + 1 );
+                    path[groups.length] = field;
+                    String groupName = group.value().isEmpty() ? field.getName() : group.value();
+                    collect( field.getType(), prefix + groupName + group.separator(), path, list, names, anns, visiting );
+                    continue;
+                }
+
+                ParamField ann = field.getAnnotation( ParamField.class );
+                if ( ann == null )
+                {
+                    continue;
+                }
+
+                // Ensure unique param field names
+                String fieldName = prefix + ann.value();
+                if ( !names.add( fieldName ) )
+                {
+                    throw new IllegalArgumentException( String
+                        .format( "Duplicate ParamField fieldName '%s' found on '%s' class hierarchy", fieldName,
+                            paramsClass.getName() ) );
+                }
+
+                if ( groups.length == 0 )
+                {
+                    list.add( new ParamDescriptor( list.size(), field, ann ) );
+                    anns.put( ann, field );
+                }
+                else
+                {
+                    list.add( new ParamDescriptor( list.size(), fieldName, field, ann, FieldBinder.nested( groups, FieldBinder.of( field ) ) ) );
+                }
+            }
+        }
+
+        visiting.remove( cls );
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+/**
+ * <p>
+ * A source of parameter values other than the command-line, e.g. environment variables or a config file. Sources are
+ * added to a {@link RunletFactory} with {@link RunletFactory#addSource(ParamSource)} and consulted in the order added,
+ * after the command-line and before {@link ParamField#defaultValue()}. The first source with a value wins.
+ * </p>
+ * <p>
+ * Implementations for the common cases are available from {@link ParamSources}.
+ * </p>
+ */
+public interface ParamSource
+{
+    /**
+     * Value for the parameter, or null if this source has none. Only called for parameters of the schema being
+     * processed that have no value yet.
+     */
+    CharSequence getValue( ParamDescriptor descriptor );
+}
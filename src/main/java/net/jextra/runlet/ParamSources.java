@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Built-in {@link ParamSource}s.
+ * </p>
+ */
+public final class ParamSources
+{
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private ParamSources()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Environment variables of the {@link RunletContext}, named by the prefix followed by the parameter name in upper
+     * case with every other character than a letter or digit replaced by '_'. e.g. with prefix "APP_" the parameter
+     * "input-file" is read from APP_INPUT_FILE.
+     */
+    public static ParamSource environment( String prefix )
+    {
+        return descriptor -> RunletContext.current().getEnv().get( toEnvironmentName( prefix, descriptor.getName() ) );
+    }
+
+    /**
+     * System properties (-D) named by the prefix followed by the parameter name, e.g. -Dapp.name=value with prefix
+     * "app.".
+     */
+    public static ParamSource systemProperties( String prefix )
+    {
+        return descriptor -> System.getProperty( prefix + descriptor.getName() );
+    }
+
+    /**
+     * Values of a config file, read once when the source is created. Files ending in .yml or .yaml are read as simple
+     * YAML (nested keys become dotted names, lists become comma-separated values), anything else as a UTF-8
+     * .properties file, see {@link Properties#load(Reader)}.
+     */
+    public static ParamSource file( Path path )
+        throws IOException
+    {
+        String fileName = path.getFileName().toString().toLowerCase( Locale.ROOT );
+        if ( fileName.endsWith( ".yml" ) || fileName.endsWith( ".yaml" ) )
+        {
+            return map( parseYaml( new String( Files.readAllBytes( path ), StandardCharsets.UTF_8 ) ) );
+        }
+
+        Properties properties = new Properties();
+        try ( Reader reader = Files.newBufferedReader( path, StandardCharsets.UTF_8 ) )
+        {
+            properties.load( reader );
+        }
+        Map<String, String> values = new HashMap<>();
+        for ( String name : properties.stringPropertyNames() )
+        {
+            values.put( name, properties.getProperty( name ) );
+        }
+        return map( values );
+    }
+
+    /**
+     * Values looked up by parameter name in the given map.
+     */
+    public static ParamSource map( Map<String, String> values )
+    {
+        return descriptor -> values.get( descriptor.getName() );
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    static String toEnvironmentName( String prefix, String name )
+    {
+        StringBuilder builder = new StringBuilder( prefix.length() + name.length() ).append( prefix );
+        for ( int i = 0; i < name.length(); i++ )
+        {
+            char c = name.charAt( i );
+            builder.append( Character.isLetterOrDigit( c ) ? Character.toUpperCase( c ) : '_' );
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The subset of YAML used for config: <code>key: value</code> mappings nested by indentation, block lists of
+     * scalars, quoted scalars and # comments.
+     */
+    static Map<String, String> parseYaml( String content )
+    {
+        Map<String, String> values = new HashMap<>();
+        Deque<Integer> indents = new ArrayDeque<>();
+        Deque<String> prefixes = new ArrayDeque<>();
+        String listKey = null;
+        int lineNumber = 0;
+
+        for ( String line : content.split( "\r?\n" ) )
+        {
+            lineNumber++;
+            line = stripComment( line );
+            String trimmed = line.trim();
+            if ( trimmed.isEmpty() || trimmed.equals( "---" ) )
+            {
+                continue;
+            }
+
+            int indent = 0;
+            while ( line.charAt( indent ) == ' ' )
+            {
+                indent++;
+            }
+
+            if ( trimmed.startsWith( "- " ) || trimmed.equals( "-" ) )
+            {
+                if ( listKey == null )
+                {
+                    throw new IllegalArgumentException( "Unexpected list item on line " + lineNumber );
+                }
+                String item = unquote( trimmed.substring( 1 ).trim() );
+                String existing = values.get( listKey );
+                values.put( listKey, existing == null ? item : existing + "," + item );
+                continue;
+            }
+
+            while ( !indents.isEmpty() && indents.peek() >= indent )
+            {
+                indents.pop();
+                prefixes.pop();
+            }
+
+            int separator = trimmed.indexOf( ':' );
+            if ( separator < 0 )
+            {
+                throw new IllegalArgumentException( "Expected 'key: value' on line " + lineNumber );
+            }
+
+            String key = ( prefixes.isEmpty() ? "" : prefixes.peek() ) + unquote( trimmed.substring( 0, separator ).trim() );
+            String value = trimmed.substring( separator + 1 ).trim();
+            listKey = null;
+            if ( value.isEmpty() )
+            {
+                // either a nested mapping or a list follows
+                indents.push( indent );
+                prefixes.push( key + "." );
+                listKey = key;
+            }
+            else
+            {
+                values.put( key, unquote( value ) );
+            }
+        }
+        return values;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static String stripComment( String line )
+    {
+        char quote = 0;
+        for ( int i = 0; i < line.length(); i++ )
+        {
+            char c = line.charAt( i );
+            if ( quote != 0 )
+            {
+                if ( c == quote )
+                {
+                    quote = 0;
+                }
+            }
+            else if ( c == '"' || c == '\'' )
+            {
+                quote = c;
+            }
+            else if ( c == '#' && ( i == 0 || line.charAt( i - 1 ) <= ' ' ) )
+            {
+                return line.substring( 0, i );
+            }
+        }
+        return line;
+    }
+
+    private static String unquote( String value )
+    {
+        if ( value.length() >= 2 )
+        {
+            char first = value.charAt( 0 );
+            if ( ( first == '"' || first == '\'' ) && value.charAt( value.length() - 1 ) == first )
+            {
+                return value.substring( 1, value.length() - 1 );
+            }
+        }
+        return value;
+    }
+}
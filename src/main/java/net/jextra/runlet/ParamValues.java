@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Parameter values by name as collected from the command-line. Unlike a plain Map, a name can have several values
+ * (e.g. <code>--id=1 --id=2</code>), which array and collection {@link ParamField}s bind to. Scalar fields use the last
+ * value.
+ * </p>
+ * <p>
+ * Values are CharSequences so they can be views into the original arguments rather than copies.
+ * </p>
+ */
+public final class ParamValues
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    // CharSequence for a single value, List<CharSequence> once repeated
+    private final Map<String, Object> values;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    public ParamValues()
+    {
+        values = new LinkedHashMap<>();
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    public static ParamValues of( Map<String, String> map )
+    {
+        ParamValues paramValues = new ParamValues();
+        for ( Map.Entry<String, String> entry : map.entrySet() )
+        {
+            paramValues.put( entry.getKey(), entry.getValue() );
+        }
+        return paramValues;
+    }
+
+    /**
+     * Add a value, keeping any earlier values of the same name.
+     */
+    @SuppressWarnings( "unchecked" )
+    public void add( String name, CharSequence value )
+    {
+        Object existing = values.get( name );
+        if ( existing == null && !values.containsKey( name ) )
+        {
+            values.put( name, value );
+        }
+        else if ( existing instanceof List )
+        {
+            ( (List<CharSequence>) existing ).add( value );
+        }
+        else
+        {
+            List<CharSequence> list = new ArrayList<>( 2 );
+            list.add( (CharSequence) existing );
+            list.add( value );
+            values.put( name, list );
+        }
+    }
+
+    /**
+     * Set the only value of the name, replacing any earlier values.
+     */
+    public void put( String name, CharSequence value )
+    {
+        values.put( name, value );
+    }
+
+    public boolean contains( String name )
+    {
+        return values.containsKey( name );
+    }
+
+    /**
+     * The last value given for the name, or null.
+     */
+    @SuppressWarnings( "unchecked" )
+    public CharSequence get( String name )
+    {
+        Object value = values.get( name );
+        if ( value instanceof List )
+        {
+            List<CharSequence> list = (List<CharSequence>) value;
+            return list.get( list.size() - 1 );
+        }
+        return (CharSequence) value;
+    }
+
+    /**
+     * The last value given for the name as a String, or null.
+     */
+    public String getString( String name )
+    {
+        CharSequence value = get( name );
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * All values given for the name in order, empty if none.
+     */
+    @SuppressWarnings( "unchecked" )
+    public List<CharSequence> getAll( String name )
+    {
+        Object value = values.get( name );
+        if ( value instanceof List )
+        {
+            return Collections.unmodifiableList( (List<CharSequence>) value );
+        }
+        else if ( value == null && !values.containsKey( name ) )
+        {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList( (CharSequence) value );
+    }
+
+    public Set<String> getNames()
+    {
+        return Collections.unmodifiableSet( values.keySet() );
+    }
+
+    public int size()
+    {
+        return values.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return values.toString();
+    }
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Binary encoding of a params object, for handing parameters to a child runlet through a file or its stdin with the
+ * hidden <code>--runlet-params-file=&lt;path&gt;</code> and <code>--runlet-params-fd=&lt;n&gt;</code> options, see
+ * {@link RunletFactory#processArgs}. Values given on the command-line as well override the decoded ones.
+ * </p>
+ * <p>
+ * The encoding starts with a header of magic, version, {@link ParamSchema#getSchemaHash() schema hash}, field count
+ * and body length, followed by one record per non-null field: descriptor index, type tag, payload length and payload.
+ * Primitives, their boxes, Strings and int[]/long[]/double[] are stored raw (big-endian, UTF-8) and set without any
+ * text parsing; other arrays and collections are a count of length-prefixed elements. Any other type is stored as the
+ * text {@link ParamDescriptor#formatValue} gives it, honouring the field's format, and converted like a command-line
+ * value.
+ * </p>
+ */
+public final class ParamsCodec
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    static final String FILE_OPTION = "runlet-params-file";
+    static final String FD_OPTION = "runlet-params-fd";
+
+    private static final int MAGIC = 0x524e4c50;
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 4 + 1 + 8 + 4 + 4;
+    private static final int RECORD_HEADER_LENGTH = 4 + 1 + 4;
+
+    private static final byte TAG_INT = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_DOUBLE = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_STRING = 5;
+    private static final byte TAG_INT_ARRAY = 6;
+    private static final byte TAG_LONG_ARRAY = 7;
+    private static final byte TAG_DOUBLE_ARRAY = 8;
+    private static final byte TAG_ELEMENTS = 9;
+    private static final byte TAG_TEXT = 10;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private ParamsCodec()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    public static byte[] encode( Object params )
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write( params, out );
+        return out.toByteArray();
+    }
+
+    /**
+     * Write the encoded params to the stream. The stream is not closed.
+     */
+    public static void write( Object params, OutputStream out )
+        throws IOException
+    {
+        ParamSchema schema = ParamSchema.forParams( params );
+
+        // encode the payloads first, the header holds the body length so a reader never reads past the end
+        List<ParamDescriptor> descriptors = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        List<Byte> tags = new ArrayList<>();
+        long bodyLength = 0;
+        for ( ParamDescriptor descriptor : schema.getDescriptors() )
+        {
+            Object value = descriptor.getBinder().get( params );
+            if ( value == null )
+            {
+                continue;
+            }
+
+            byte tag = getTag( descriptor, value );
+            byte[] payload = encodeValue( descriptor, tag, value );
+            descriptors.add( descriptor );
+            tags.add( tag );
+            payloads.add( payload );
+            bodyLength += RECORD_HEADER_LENGTH + payload.length;
+        }
+        if ( bodyLength > Integer.MAX_VALUE )
+        {
+            throw new IOException( "Encoded params are larger than 2GB" );
+        }
+
+        DataOutputStream data = new DataOutputStream( new BufferedOutputStream( out ) );
+        data.writeInt( MAGIC );
+        data.writeByte( VERSION );
+        data.writeLong( schema.getSchemaHash() );
+        data.writeInt( payloads.size() );
+        data.writeInt( (int) bodyLength );
+        for ( int i = 0; i < payloads.size(); i++ )
+        {
+            data.writeInt( descriptors.get( i ).getIndex() );
+            data.writeByte( tags.get( i ) );
+            data.writeInt( payloads.get( i ).length );
+            data.write( payloads.get( i ) );
+        }
+        data.flush();
+    }
+
+    public static void write( Object params, Path file )
+        throws IOException
+    {
+        try ( OutputStream out = Files.newOutputStream( file ) )
+        {
+            write( params, out );
+        }
+    }
+
+    /**
+     * Set the fields of the params from the encoded stream, reading exactly the encoded bytes.
+     */
+    public static void read( InputStream in, Object params )
+        throws IOException
+    {
+        decode( load( in ), params );
+    }
+
+    /**
+     * Set the fields of the params from the encoded file.
+     */
+    public static void read( Path file, Object params )
+        throws IOException
+    {
+        decode( load( file ), params );
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * Memory-map the file.
+     */
+    static ByteBuffer load( Path file )
+        throws IOException
+    {
+        try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) )
+        {
+            if ( channel.size() > Integer.MAX_VALUE )
+            {
+                throw new IOException( "Encoded params file is larger than 2GB: " + file );
+            }
+            // the mapping stays valid after the channel is closed
+            return channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+    }
+
+    /**
+     * Read the header and body from the stream into a buffer.
+     */
+    static ByteBuffer load( InputStream in )
+        throws IOException
+    {
+        DataInputStream data = new DataInputStream( in );
+        byte[] header = new byte[HEADER_LENGTH];
+        data.readFully( header );
+        int bodyLength = ByteBuffer.wrap( header ).getInt( HEADER_LENGTH - 4 );
+        if ( bodyLength < 0 )
+        {
+            throw new IOException( "Invalid encoded params length: " + bodyLength );
+        }
+
+        byte[] bytes = Arrays.copyOf( header, HEADER_LENGTH + bodyLength );
+        data.readFully( bytes, HEADER_LENGTH, bodyLength );
+        return ByteBuffer.wrap( bytes );
+    }
+
+    /**
+     * The buffer holding the encoded params of the value of a {@link #FILE_OPTION} or {@link #FD_OPTION} option.
+     * File descriptor 0 is stdin; others are opened through /dev/fd.
+     */
+    static ByteBuffer load( String option, String value )
+        throws IOException
+    {
+        if ( option.equals( FILE_OPTION ) )
+        {
+            return load( RunletContext.current().resolveFile( value ).toPath() );
+        }
+
+        int fd = Integer.parseInt( value.trim() );
+        if ( fd == 0 )
+        {
+            return load( RunletContext.current().getIn() );
+        }
+        try ( InputStream in = Files.newInputStream( Paths.get( "/dev/fd", Integer.toString( fd ) ) ) )
+        {
+            return load( in );
+        }
+    }
+
+    /**
+     * Set the fields of the params from the buffer.
+     *
+     * @return indexes of the descriptors that were set.
+     */
+    static BitSet decode( ByteBuffer buffer, Object params )
+        throws IOException
+    {
+        ParamSchema schema = ParamSchema.forParams( params );
+        ByteBuffer in = buffer.duplicate().order( ByteOrder.BIG_ENDIAN );
+        if ( in.remaining() < HEADER_LENGTH || in.getInt() != MAGIC )
+        {
+            throw new IOException( "Not encoded params" );
+        }
+        byte version = in.get();
+        if ( version != VERSION )
+        {
+            throw new IOException( "Unsupported encoded params version " + version );
+        }
+        long schemaHash = in.getLong();
+        if ( schemaHash != schema.getSchemaHash() )
+        {
+            throw new IOException( "Params were encoded for different parameters than those of " + schema.getParamsClass().getName() );
+        }
+
+        int count = in.getInt();
+        int bodyLength = in.getInt();
+        if ( bodyLength > in.remaining() )
+        {
+            throw new IOException( "Encoded params are truncated" );
+        }
+
+        ParamFields fields = new ParamFields( params );
+        List<ParamDescriptor> descriptors = schema.getDescriptors();
+        BitSet decoded = new BitSet( descriptors.size() );
+        for ( int i = 0; i < count; i++ )
+        {
+            int index = in.getInt();
+            byte tag = in.get();
+            int length = in.getInt();
+            if ( index < 0 || index >= descriptors.size() || length < 0 || length > in.remaining() )
+            {
+                throw new IOException( "Corrupt encoded params record " + i );
+            }
+
+            ByteBuffer payload = in.slice();
+            payload.limit( length );
+            in.position( in.position() + length );
+
+            ParamDescriptor descriptor = descriptors.get( index );
+            try
+            {
+                decodeValue( fields, descriptor, tag, payload, params );
+            }
+            catch ( Exception ex )
+            {
+                throw new IllegalArgumentException( String.format( "For ParamField \"%s\", cannot decode value", descriptor.getName() ), ex );
+            }
+            decoded.set( index );
+        }
+        return decoded;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static byte getTag( ParamDescriptor descriptor, Object value )
+    {
+        Class<?> type = descriptor.getType();
+        if ( descriptor.isLazy() )
+        {
+            return TAG_TEXT;
+        }
+        else if ( type == Integer.TYPE || type == Integer.class )
+        {
+            return TAG_INT;
+        }
+        else if ( type == Long.TYPE || type == Long.class )
+        {
+            return TAG_LONG;
+        }
+        else if ( type == Double.TYPE || type == Double.class )
+        {
+            return TAG_DOUBLE;
+        }
+        else if ( type == Boolean.TYPE || type == Boolean.class )
+        {
+            return TAG_BOOLEAN;
+        }
+        else if ( type == String.class )
+        {
+            return TAG_STRING;
+        }
+        else if ( type == int[].class )
+        {
+            return TAG_INT_ARRAY;
+        }
+        else if ( type == long[].class )
+        {
+            return TAG_LONG_ARRAY;
+        }
+        else if ( type == double[].class )
+        {
+            return TAG_DOUBLE_ARRAY;
+        }
+        else if ( descriptor.isMultiValued() && ( value.getClass().isArray() || value instanceof Collection ) )
+        {
+            return TAG_ELEMENTS;
+        }
+        return TAG_TEXT;
+    }
+
+    private static byte[] encodeValue( ParamDescriptor descriptor, byte tag, Object value )
+        throws IOException
+    {
+        switch ( tag )
+        {
+            case TAG_INT:
+                return ByteBuffer.allocate( 4 ).putInt( (Integer) value ).array();
+
+            case TAG_LONG:
+                return ByteBuffer.allocate( 8 ).putLong( (Long) value ).array();
+
+            case TAG_DOUBLE:
+                return ByteBuffer.allocate( 8 ).putDouble( (Double) value ).array();
+
+            case TAG_BOOLEAN:
+                return new byte[] { (byte) ( (Boolean) value ? 1 : 0 ) };
+
+            case TAG_STRING:
+                return ( (String) value ).getBytes( StandardCharsets.UTF_8 );
+
+            case TAG_INT_ARRAY:
+                int[] ints = (int[]) value;
+                ByteBuffer intBytes = ByteBuffer.allocate( ints.length * 4 );
+                intBytes.asIntBuffer().put( ints );
+                return intBytes.array();
+
+            case TAG_LONG_ARRAY:
+                long[] longs = (long[]) value;
+                ByteBuffer longBytes = ByteBuffer.allocate( longs.length * 8 );
+                longBytes.asLongBuffer().put( longs );
+                return longBytes.array();
+
+            case TAG_DOUBLE_ARRAY:
+                double[] doubles = (double[]) value;
+                ByteBuffer doubleBytes = ByteBuffer.allocate( doubles.length * 8 );
+                doubleBytes.asDoubleBuffer().put( doubles );
+                return doubleBytes.array();
+
+            case TAG_ELEMENTS:
+                Collection<?> elements = value instanceof Collection ? (Collection<?>) value : asList( value );
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream data = new DataOutputStream( bytes );
+                data.writeInt( elements.size() );
+                for ( Object element : elements )
+                {
+                    byte[] text = descriptor.formatValue( element ).getBytes( StandardCharsets.UTF_8 );
+                    data.writeInt( text.length );
+                    data.write( text );
+                }
+                return bytes.toByteArray();
+
+            default:
+                return descriptor.formatValue( value ).getBytes( StandardCharsets.UTF_8 );
+        }
+    }
+
+    private static void decodeValue( ParamFields fields, ParamDescriptor descriptor, byte tag, ByteBuffer payload, Object params )
+        throws Exception
+    {
+        Class<?> type = descriptor.getType();
+        FieldBinder binder = descriptor.getBinder();
+        switch ( tag )
+        {
+            case TAG_INT:
+                if ( type == Integer.TYPE )
+                {
+                    binder.setInt( params, payload.getInt() );
+                }
+                else
+                {
+                    binder.set( params, payload.getInt() );
+                }
+                break;
+
+            case TAG_LONG:
+                if ( type == Long.TYPE )
+                {
+                    binder.setLong( params, payload.getLong() );
+                }
+                else
+                {
+                    binder.set( params, payload.getLong() );
+                }
+                break;
+
+            case TAG_DOUBLE:
+                if ( type == Double.TYPE )
+                {
+                    binder.setDouble( params, payload.getDouble() );
+                }
+                else
+                {
+                    binder.set( params, payload.getDouble() );
+                }
+                break;
+
+            case TAG_BOOLEAN:
+                if ( type == Boolean.TYPE )
+                {
+                    binder.setBoolean( params, payload.get() != 0 );
+                }
+                else
+                {
+                    binder.set( params, payload.get() != 0 );
+                }
+                break;
+
+            case TAG_STRING:
+                binder.set( params, readString( payload, payload.remaining() ) );
+                break;
+
+            case TAG_INT_ARRAY:
+                int[] ints = new int[payload.remaining() / 4];
+                payload.asIntBuffer().get( ints );
+                binder.set( params, ints );
+                break;
+
+            case TAG_LONG_ARRAY:
+                long[] longs = new long[payload.remaining() / 8];
+                payload.asLongBuffer().get( longs );
+                binder.set( params, longs );
+                break;
+
+            case TAG_DOUBLE_ARRAY:
+                double[] doubles = new double[payload.remaining() / 8];
+                payload.asDoubleBuffer().get( doubles );
+                binder.set( params, doubles );
+                break;
+
+            case TAG_ELEMENTS:
+                Class<?> elementType = descriptor.getElementType();
+                Converter<?> converter = elementType == String.class ? null : descriptor.getElementConverter();
+                if ( elementType != String.class && converter == null )
+                {
+                    throw new IOException( "No converter registered for " + elementType.getCanonicalName() + "." );
+                }
+                int count = payload.getInt();
+                List<Object> elements = new ArrayList<>( count );
+                for ( int i = 0; i < count; i++ )
+                {
+                    String text = readString( payload, payload.getInt() );
+                    elements.add( converter == null ? text : converter.convert( text ) );
+                }
+                binder.set( params, MultiValues.toValue( type, elementType, elements ) );
+                break;
+
+            case TAG_TEXT:
+                fields.setFieldValue( descriptor, readString( payload, payload.remaining() ) );
+                break;
+
+            default:
+                throw new IOException( "Unknown encoded params type tag " + tag );
+        }
+    }
+
+    private static String readString( ByteBuffer buffer, int length )
+    {
+        if ( buffer.hasArray() )
+        {
+            String string = new String( buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8 );
+            buffer.position( buffer.position() + length );
+            return string;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    private static List<Object> asList( Object array )
+    {
+        int length = Array.getLength( array );
+        List<Object> list = new ArrayList<>( length );
+        for ( int i = 0; i < length; i++ )
+        {
+            list.add( Array.get( array, i ) );
+        }
+        return list;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * <p>
+ * Runs many argument vectors through fresh instances of one runlet inside a single JVM with bounded parallelism.
+ * </p>
+ * <p>
+ * Invocations run on virtual threads when the JVM has them (JDK 21+) and on a fixed pool of platform threads
+ * otherwise; in both cases at most {@link #setParallelism parallelism} run at once. With
+ * {@link #setOrderedOutput ordered output} each invocation's stdout/stderr is captured and written out in input order
+ * as soon as all earlier invocations have finished.
+ * </p>
+ */
+public class RunletBatch
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final Supplier<Object> runletFactory;
+    private final Supplier<Object> paramsFactory;
+    private int parallelism;
+    private boolean orderedOutput;
+    private boolean virtualThreads;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    /**
+     * @param runletFactory called once per argument vector; the params object is located by
+     * {@link RunletFactory#findParams}.
+     */
+    public RunletBatch( Supplier<Object> runletFactory )
+    {
+        this( runletFactory, null );
+    }
+
+    /**
+     * @param runletFactory called once per argument vector.
+     * @param paramsFactory called once per argument vector for the params object to fill, or null to locate it with
+     * {@link RunletFactory#findParams}.
+     */
+    public RunletBatch( Supplier<Object> runletFactory, Supplier<Object> paramsFactory )
+    {
+        this.runletFactory = runletFactory;
+        this.paramsFactory = paramsFactory;
+        parallelism = Runtime.getRuntime().availableProcessors();
+        virtualThreads = true;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    public RunletBatch setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1" );
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public RunletBatch setOrderedOutput( boolean orderedOutput )
+    {
+        this.orderedOutput = orderedOutput;
+        return this;
+    }
+
+    /**
+     * Use virtual threads when the JVM supports them (the default).
+     */
+    public RunletBatch setVirtualThreads( boolean virtualThreads )
+    {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    /**
+     * Run every argument vector and wait for all of them to finish.
+     *
+     * @return one result per argument vector, in input order.
+     */
+    public List<BatchResult> run( Stream<String[]> argSets )
+        throws InterruptedException
+    {
+        ExecutorService executor = createExecutor();
+        Semaphore permits = new Semaphore( parallelism );
+        OrderedOutput output = orderedOutput ? new OrderedOutput() : null;
+        List<Future<BatchResult>> futures = new ArrayList<>();
+
+        try
+        {
+            int index = 0;
+            for ( Iterator<String[]> it = argSets.iterator(); it.hasNext(); index++ )
+            {
+                String[] args = it.next();
+                int jobIndex = index;
+
+                // bounds in-flight work, also when running on unbounded virtual threads
+                permits.acquire();
+                futures.add( executor.submit( () -> {
+                    try
+                    {
+                        return runOne( jobIndex, args, output );
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                } ) );
+            }
+
+            List<BatchResult> results = new ArrayList<>( futures.size() );
+            for ( Future<BatchResult> future : futures )
+            {
+                try
+                {
+                    results.add( future.get() );
+                }
+                catch ( ExecutionException ex )
+                {
+                    throw new IllegalStateException( ex.getCause() );
+                }
+            }
+            return results;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private BatchResult runOne( int index, String[] args, OrderedOutput output )
+    {
+        ByteArrayOutputStream out = null;
+        ByteArrayOutputStream err = null;
+        OutputStream[] previousOutput = null;
+        if ( output != null )
+        {
+            out = new ByteArrayOutputStream();
+            err = new ByteArrayOutputStream();
+            previousOutput = ThreadOutput.redirect( out, err );
+        }
+
+        long start = System.nanoTime();
+        int exitCode;
+        try
+        {
+            Object runlet = runletFactory.get();
+            Object params = paramsFactory == null ? RunletFactory.findParams( runlet ) : paramsFactory.get();
+            exitCode = RunletFactory.run( runlet, params, args );
+        }
+        catch ( RuntimeException ex )
+        {
+            ex.printStackTrace();
+            exitCode = 1;
+        }
+        finally
+        {
+            if ( output != null )
+            {
+                System.out.flush();
+                System.err.flush();
+                ThreadOutput.restore( previousOutput );
+                // even on an Error, or the output of every later job would be held back
+                output.complete( index, out.toByteArray(), err.toByteArray() );
+            }
+        }
+
+        return new BatchResult( index, args, exitCode, System.nanoTime() - start );
+    }
+
+    private ExecutorService createExecutor()
+    {
+        return RunletExecutors.newExecutor( virtualThreads, parallelism, "runlet-batch" );
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    /**
+     * Writes captured output of finished invocations in input order.
+     */
+    private static class OrderedOutput
+    {
+        private final Map<Integer, byte[][]> pending = new HashMap<>();
+        private int next;
+
+        synchronized void complete( int index, byte[] out, byte[] err )
+        {
+            pending.put( index, new byte[][] { out, err } );
+            for ( byte[][] output = pending.remove( next ); output != null; output = pending.remove( next ) )
+            {
+                System.out.write( output[0], 0, output[0].length );
+                System.out.flush();
+                System.err.write( output[1], 0, output[1].length );
+                System.err.flush();
+                next++;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+/**
+ * <p>
+ * Thin client for a {@link RunletServer}. Sends the arguments, working directory and environment, copies the runlet's
+ * stdout/stderr as it arrives and exits with the runlet's exit code.
+ * </p>
+ * <pre>
+ *     java -cp runlet.jar net.jextra.runlet.RunletClient /tmp/tools.sock monkey --name=value ...
+ * </pre>
+ */
+public final class RunletClient
+{
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private RunletClient()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    public static void main( String[] args )
+    {
+        if ( args.length < 2 )
+        {
+            System.err.println( "Usage: RunletClient <socket path> <runlet name> [args...]" );
+            System.exit( 1 );
+        }
+
+        String[] runletArgs = new String[args.length - 2];
+        System.arraycopy( args, 2, runletArgs, 0, runletArgs.length );
+        try
+        {
+            System.exit( run( Paths.get( args[0] ), args[1], runletArgs, System.out, System.err ) );
+        }
+        catch ( IOException ex )
+        {
+            System.err.println( "Unable to reach runlet daemon at " + args[0] + ": " + ex.getMessage() );
+            System.exit( 1 );
+        }
+    }
+
+    /**
+     * Run the named runlet on the server listening at the socket path.
+     *
+     * @return the exit code of the runlet.
+     */
+    public static int run( Path socketPath, String runletName, String[] args, OutputStream stdout, OutputStream stderr )
+        throws IOException
+    {
+        InputStream rawIn;
+        OutputStream rawOut;
+        byte[] token = null;
+        if ( Files.isRegularFile( socketPath ) )
+        {
+            // loopback TCP fallback, the file holds the port and the token file next to it the token
+            int port = Integer.parseInt( new String( Files.readAllBytes( socketPath ), StandardCharsets.US_ASCII ).trim() );
+            token = DaemonProtocol.readToken( socketPath );
+            Socket socket = new Socket( InetAddress.getLoopbackAddress(), port );
+            rawIn = socket.getInputStream();
+            rawOut = socket.getOutputStream();
+        }
+        else
+        {
+            SocketChannel channel = DaemonProtocol.openUnixClient( socketPath );
+            rawIn = Channels.newInputStream( channel );
+            rawOut = Channels.newOutputStream( channel );
+        }
+
+        // closing the streams closes the connection
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( rawIn ) );
+            DataOutputStream out = new DataOutputStream( new BufferedOutputStream( rawOut ) ) )
+        {
+            if ( token != null )
+            {
+                out.write( token );
+            }
+            DaemonProtocol.writeRequest( out, runletName, args, new File( "" ).getAbsolutePath(), System.getenv() );
+
+            byte[] buffer = new byte[8192];
+            while ( true )
+            {
+                int type = in.readByte();
+                if ( type == DaemonProtocol.FRAME_EXIT )
+                {
+                    return in.readInt();
+                }
+
+                OutputStream target = type == DaemonProtocol.FRAME_STDERR ? stderr : stdout;
+                int length = in.readInt();
+                while ( length > 0 )
+                {
+                    int read = in.read( buffer, 0, Math.min( length, buffer.length ) );
+                    if ( read < 0 )
+                    {
+                        throw new EOFException();
+                    }
+                    target.write( buffer, 0, read );
+                    length -= read;
+                }
+                target.flush();
+            }
+        }
+    }
+}
@@ -23,8 +23,30 @@ package net.jextra.runlet;
 
 import java.lang.annotation.*;
 
+/**
+ * <p>
+ * Marks the method run by {@link RunletFactory#execute()}.
+ * </p>
+ * <p>
+ * A runlet may have several named commands, selected by the first command-line argument, e.g.
+ * <code>tool import --file=x</code>. A named command method may take one argument, a params object of its own type
+ * that is created and filled from the remaining arguments. Without an argument the runlet's params are used.
+ * </p>
+ * <p>
+ * A command may also declare {@link CancellationToken} and ExecutorService (or Executor) arguments, supplied by the
+ * framework, and may return a CompletableFuture (any Future or CompletionStage). Such a command runs on virtual
+ * threads where available and is awaited; it is cancelled on JVM shutdown, and work still on the executor gets a
+ * deadline to drain, see {@link RunletFactory#setDrainTimeout}.
+ * </p>
+ */
 @Retention( RetentionPolicy.RUNTIME )
 @Target( ElementType.METHOD )
 public @interface RunletCommand
 {
+    /**
+     * Name of the command on the command-line. Empty for the command run when no command name is given.
+     */
+    String value() default "";
+
+    String description() default "";
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * <p>
+ * The environment a runlet invocation runs in: working directory, environment variables and standard input.
+ * </p>
+ * <p>
+ * For a normal command-line launch this is simply the process environment. When a runlet is run by a
+ * {@link RunletServer} on behalf of a client, the context carries the client's working directory and environment so
+ * that, e.g., relative {@link File} parameters resolve the same way they would in a fresh JVM.
+ * </p>
+ */
+public final class RunletContext
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final RunletContext PROCESS = new RunletContext( null, System.getenv(), null );
+
+    private static final InheritableThreadLocal<RunletContext> CURRENT = new InheritableThreadLocal<>();
+
+    private final File workingDirectory;
+    private final Map<String, String> env;
+    private final InputStream in;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    /**
+     * @param workingDirectory null for the process working directory.
+     * @param in null for {@link System#in}.
+     */
+    public RunletContext( File workingDirectory, Map<String, String> env, InputStream in )
+    {
+        this.workingDirectory = workingDirectory;
+        this.env = Collections.unmodifiableMap( new HashMap<>( env ) );
+        this.in = in;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * The context of the current thread, or the process context if none was attached.
+     */
+    public static RunletContext current()
+    {
+        RunletContext context = CURRENT.get();
+        return context == null ? PROCESS : context;
+    }
+
+    /**
+     * Working directory of the invocation, or null for the process working directory.
+     */
+    public File getWorkingDirectory()
+    {
+        return workingDirectory;
+    }
+
+    public Map<String, String> getEnv()
+    {
+        return env;
+    }
+
+    public InputStream getIn()
+    {
+        return in == null ? System.in : in;
+    }
+
+    /**
+     * Resolve a path relative to the working directory of the invocation.
+     */
+    public File resolveFile( String path )
+    {
+        File file = new File( path );
+        if ( workingDirectory == null || file.isAbsolute() )
+        {
+            return file;
+        }
+
+        return new File( workingDirectory, path );
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * Attach the context to the current thread (and threads it creates).
+     *
+     * @return the previously attached context, to be given to {@link #restore}.
+     */
+    static RunletContext attach( RunletContext context )
+    {
+        RunletContext previous = CURRENT.get();
+        CURRENT.set( context );
+        return previous;
+    }
+
+    static void restore( RunletContext previous )
+    {
+        if ( previous == null )
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set( previous );
+        }
+    }
+}
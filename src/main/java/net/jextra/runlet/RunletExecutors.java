@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Executors used by the framework: virtual threads when the JVM has them (JDK 21+), otherwise a fixed pool of daemon
+ * platform threads.
+ * </p>
+ */
+final class RunletExecutors
+{
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private RunletExecutors()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    static ExecutorService newExecutor( boolean virtualThreads, int poolSize, String threadName )
+    {
+        if ( virtualThreads )
+        {
+            try
+            {
+                return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+            }
+            catch ( ReflectiveOperationException ex )
+            {
+                // before JDK 21
+            }
+        }
+
+        return Executors.newFixedThreadPool( poolSize, runnable -> {
+            Thread thread = new Thread( runnable, threadName );
+            thread.setDaemon( true );
+            return thread;
+        } );
+    }
+}
@@ -23,8 +23,12 @@ package net.jextra.runlet;
 
 import java.io.*;
 import java.lang.reflect.*;
+import java.nio.*;
+import java.nio.file.*;
 import java.util.*;
-import java.util.regex.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
 
 /**
  * <p>
@@ -38,8 +42,94 @@ public class RunletFactory
     // Fields
     // ============================================================
 
+    private static final ClassValue<GeneratedCommand> GENERATED_COMMANDS = new ClassValue<GeneratedCommand>()
+    {
+        @Override
+        protected GeneratedCommand computeValue( Class<?> type )
+        {
+            return ParamSchema.findGenerated( type, GeneratedCommand.SUFFIX, GeneratedCommand.class );
+        }
+    };
+
+    /**
+     * True for factory subclasses that override {@link #findCommand()}.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_FIND_COMMAND = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue( Class<?> type )
+        {
+            for ( Class<?> cls = type; cls != RunletFactory.class; cls = cls.getSuperclass() )
+            {
+                try
+                {
+                    cls.getDeclaredMethod( "findCommand" );
+                    return true;
+                }
+                catch ( NoSuchMethodException ex )
+                {
+                    // keep looking
+                }
+            }
+            return false;
+        }
+    };
+
+    private static final ClassValue<Function<Object, Object>> PARAMS_ACCESSORS = new ClassValue<Function<Object, Object>>()
+    {
+        @Override
+        protected Function<Object, Object> computeValue( Class<?> type )
+        {
+            return createParamsAccessor( type );
+        }
+    };
+
+    private static final ClassValue<FieldBinder[]> INJECTED_FIELDS = new ClassValue<FieldBinder[]>()
+    {
+        @Override
+        protected FieldBinder[] computeValue( Class<?> type )
+        {
+            List<FieldBinder> binders = new ArrayList<>();
+            for ( Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+            {
+                for ( Field field : cls.getDeclaredFields() )
+                {
+                    Class<?> fieldType = field.getType();
+                    // parameter fields belong to processArgs, even when their type is injectable
+                    if ( ( fieldType == RunletMetrics.class || fieldType == ShardSpec.class ) && !Modifier.isStatic( field.getModifiers() )
+                        && !field.isAnnotationPresent( ParamField.class ) && !field.isAnnotationPresent( ParamGroup.class ) )
+                    {
+                        binders.add( FieldBinder.of( field ) );
+                    }
+                }
+            }
+            return binders.toArray( new FieldBinder[0] );
+        }
+    };
+
+    private static final String DAEMON_OPTION = "--runlet-daemon=";
+    private static final String BATCH_OPTION = "--batch=";
+    private static final String BATCH_PARALLELISM_OPTION = "--batch-parallelism=";
+    private static final String BATCH_ORDERED_OPTION = "--batch-ordered";
+    private static final String METRICS_OPTION = "runlet-metrics";
+    private static final String REPORT_OPTION = "runlet-report";
+    private static final String REPORT_INTERVAL_OPTION = "runlet-report-interval";
+    private static final long DEFAULT_REPORT_INTERVAL_SECONDS = 10;
+    private static final String SHARD_OPTION = "shard";
+    private static final String SHARD_LOCAL_OPTION = "--shard-local=";
+    private static final String SHARD_PROCESSES_OPTION = "--shard-processes";
+    private static final long DEFAULT_DRAIN_TIMEOUT_MILLIS = 10000;
+
     private Object runlet;
     private Object params;
+    private List<RunletListener> listeners;
+    private List<ParamSource> sources;
+    private CommandIndex.Command command;
+    private long drainTimeoutMillis;
+    private RunletMetrics metrics;
+    private String reportTarget;
+    private long reportIntervalSeconds;
+    private ShardSpec shard;
 
     // ============================================================
     // Constructors
@@ -49,6 +139,19 @@ public class RunletFactory
     {
         this.runlet = runlet;
         this.params = params;
+        listeners = new ArrayList<>();
+        sources = new ArrayList<>();
+        drainTimeoutMillis = DEFAULT_DRAIN_TIMEOUT_MILLIS;
+        reportIntervalSeconds = DEFAULT_REPORT_INTERVAL_SECONDS;
+        shard = ShardSpec.ALL;
+    }
+
+    /**
+     * Use the params object found by {@link #findParams(Object)}.
+     */
+    public RunletFactory( Object runlet )
+    {
+        this( runlet, findParams( runlet ) );
     }
 
     // ============================================================
@@ -61,14 +164,36 @@ public class RunletFactory
 
     /**
      * Call this in your main. It takes care of processing args and executing the app.
+     * <p>
+     * With the hidden <code>--runlet-daemon=&lt;socket path&gt;</code> option, the runlet is instead served by a
+     * {@link RunletServer} under its script name until the JVM is stopped.
+     * <p>
+     * With <code>--batch=&lt;file&gt;</code>, every non-blank line of the file (lines starting with # are skipped) is
+     * split into arguments and run through a fresh runlet instance, see {@link RunletBatch}. Unless p is the runlet's
+     * own params (see {@link #findParams}), each line also gets a new instance of p's class, as do the runs of
+     * <code>--shard-local</code> and <code>--runlet-daemon</code>. Any other arguments are
+     * prepended to every line. <code>--batch-parallelism=N</code> limits concurrency (default: number of cores) and
+     * <code>--batch-ordered</code> writes the output of each line in order.
+     * <p>
+     * The hidden <code>--runlet-metrics=stdout|jsonl:&lt;path&gt;|jmx</code> option reports the time spent in each
+     * {@link RunletPhase}, see {@link RunletListeners}.
+     * <p>
+     * The hidden <code>--runlet-report=stderr|jsonl:&lt;path&gt;</code> option periodically reports the runlet's own
+     * {@link RunletMetrics}, every <code>--runlet-report-interval=&lt;seconds&gt;</code> (default 10).
+     * <p>
+     * <code>--shard=i/n</code> runs shard i of n, see {@link ShardSpec}, unless the params have a parameter named
+     * "shard". <code>--shard-local=n</code> runs all n shards in parallel in this JVM, or as child JVMs (see
+     * {@link RunletLauncher}) with <code>--shard-processes</code>.
+     * <p>
+     * <code>--runlet-train[=&lt;directory&gt;]</code> writes a class data sharing archive from a training run with the
+     * other arguments, and a launcher script using it, see {@link RunletTrainer}.
      */
     public static void main( Object r, Object p, String[] args )
     {
-        Date start = new Date();
-        boolean success = subMain( r, p, args );
-        Date end = new Date();
-        long msec = end.getTime() - start.getTime();
-        System.out.printf( "(Total time: %d seconds)\n", msec / 1000 );
+        long start = System.nanoTime();
+        boolean success = runMode( r, p, args ) == 0;
+        long elapsed = System.nanoTime() - start;
+        System.out.printf( "(Total time: %d seconds)\n", TimeUnit.NANOSECONDS.toSeconds( elapsed ) );
         System.exit( success ? 0 : 1 );
     }
 
@@ -79,16 +204,27 @@ public class RunletFactory
      */
     public static void main( Object r, Object p, String[] args, Boolean noPrint )
     {
-        boolean success = subMain( r, p, args );
+        boolean success = runMode( r, p, args ) == 0;
         System.exit( success ? 0 : 1 );
     }
 
-    private static boolean subMain( Object r, Object p, String[] args )
+    /**
+     * Process args and execute the runlet without exiting the JVM.
+     *
+     * @return the exit code, 0 on success.
+     */
+    public static int run( Object r, Object p, String[] args, RunletListener... listeners )
     {
+        long start = System.nanoTime();
         boolean success = false;
+        RunletFactory factory = new RunletFactory( r, p );
+        for ( RunletListener listener : listeners )
+        {
+            factory.addListener( listener );
+        }
+
         try
         {
-            RunletFactory factory = new RunletFactory( r, p );
             if ( factory.processArgs( args ) )
             {
                 factory.execute();
@@ -100,74 +236,242 @@ public class RunletFactory
             success = false;
             ex.printStackTrace();
         }
-        return success;
+
+        long elapsed = System.nanoTime() - start;
+        for ( RunletListener listener : factory.listeners )
+        {
+            listener.runCompleted( r, success, elapsed );
+        }
+        return success ? 0 : 1;
+    }
+
+    /**
+     * Run every argument vector through a fresh runlet from the factory, at most parallelism at a time.
+     *
+     * @return one result per argument vector, in input order.
+     * @see RunletBatch
+     */
+    public static List<BatchResult> runBatch( Supplier<Object> runletFactory, Stream<String[]> argSets, int parallelism )
+        throws InterruptedException
+    {
+        return new RunletBatch( runletFactory ).setParallelism( parallelism ).run( argSets );
+    }
+
+    /**
+     * The params object of a runlet: the result of a no-arg getParams() method if there is one, otherwise the first
+     * field whose type has {@link ParamField}s (not counting {@link ParamGroup} fields), otherwise the runlet itself if
+     * it has {@link ParamField}s.
+     */
+    public static Object findParams( Object runlet )
+    {
+        return runlet == null ? null : PARAMS_ACCESSORS.get( runlet.getClass() ).apply( runlet );
     }
 
     public static List<String> buildArgs( Class<?> runletClass, Object params )
         throws Exception
     {
-        ArrayList<String> args = new ArrayList<>();
+        return new ParamFields( params ).appendArgs( getScriptName( runletClass ) );
+    }
 
-        args.add( getScriptName( runletClass ) );
+    public void addListener( RunletListener listener )
+    {
+        listeners.add( listener );
+    }
 
-        ParamFields fields = new ParamFields( params );
-        for ( ParamField ann : fields.getParamFields() )
+    /**
+     * How long an asynchronous command may keep running after it completed or was cancelled, for tasks still on its
+     * executor to finish. Default 10 seconds.
+     */
+    public void setDrainTimeout( long timeout, TimeUnit unit )
+    {
+        drainTimeoutMillis = unit.toMillis( timeout );
+    }
+
+    /**
+     * The metrics injected into the runlet, created on first use.
+     */
+    public RunletMetrics getMetrics()
+    {
+        if ( metrics == null )
         {
-            Field field = fields.getField( ann );
-            field.setAccessible( true );
-            if ( field.get( params ) != null )
-            {
-                String string = String.format( "--%s=%s", ann.value(), field.get( params ) );
-                args.add( string );
-            }
+            metrics = new RunletMetrics();
         }
+        return metrics;
+    }
+
+    /**
+     * The shard given by <code>--shard=i/n</code>, {@link ShardSpec#ALL} if none was given.
+     */
+    public ShardSpec getShard()
+    {
+        return shard;
+    }
 
-        return args;
+    /**
+     * Add a source of values for parameters not given on the command-line. Sources are consulted in the order added,
+     * then {@link ParamField#defaultValue()}.
+     */
+    public void addSource( ParamSource source )
+    {
+        sources.add( source );
     }
 
+    /**
+     * Parse the arguments into the params. An <code>@path</code> argument is replaced by the arguments in that file,
+     * see {@link ArgFile}. The hidden <code>--runlet-params-file=&lt;path&gt;</code> and
+     * <code>--runlet-params-fd=&lt;n&gt;</code> options decode params encoded by {@link ParamsCodec} before the other
+     * arguments are applied.
+     */
     public boolean processArgs( String[] args )
         throws Exception
     {
-        Pattern promptPattern = Pattern.compile( "--prompt" );
-        Pattern helpPattern = Pattern.compile( "(--help|-h|-\\?)" );
-        Pattern paramPattern = Pattern.compile( "--([^=]*)=(.*)" );
+        long time = System.nanoTime();
 
-        Map<String, String> paramsMap = new HashMap<>();
+        //
+        // A runlet with named commands takes the command name as the first argument. A command with its own params
+        // type gets a fresh params object.
+        //
+        CommandIndex commands = CommandIndex.of( runlet.getClass() );
+        command = null;
+        if ( commands.hasNamedCommands() )
+        {
+            command = args.length == 0 ? null : commands.getCommand( args[0] );
+            if ( command != null )
+            {
+                args = Arrays.copyOfRange( args, 1, args.length );
+                if ( command.getParamsType() != null )
+                {
+                    params = newRunlet( command.getParamsType() );
+                }
+            }
+            else if ( !commands.hasDefaultCommand() )
+            {
+                if ( args.length == 0 || !ArgTokenizer.isOption( args[0] ) )
+                {
+                    System.out.println( args.length == 0 ? "\nMissing command." : "\nUnknown command: " + args[0] );
+                }
+                printUsage( new ParamValues() );
+                return false;
+            }
+        }
+
+        ParamSchema schema = ParamSchema.forParams( params );
+        long schemaNanos = System.nanoTime() - time;
+        time += schemaNanos;
+
+        ArgTokenizer tokenizer = new ArgTokenizer();
+        ParamValues paramsMap = new ParamValues();
+        ByteBuffer encodedParams = null;
         boolean help = false;
         boolean prompt = false;
 
-        for ( String arg : args )
+        List<CharSequence> argList = ArgFile.expand( args );
+        for ( int i = 0; i < argList.size(); i++ )
         {
-            if ( arg == null || arg.trim().isEmpty() )
+            CharSequence arg = argList.get( i );
+            switch ( tokenizer.scan( arg ) )
             {
-                continue;
+                case EMPTY:
+                    continue;
+
+                case PROMPT:
+                    prompt = true;
+                    continue;
+
+                case HELP:
+                    help = true;
+                    continue;
+
+                case PARAM:
+                    if ( tokenizer.nameMatches( METRICS_OPTION ) )
+                    {
+                        listeners.addAll( RunletListeners.parse( tokenizer.getValue() ) );
+                        continue;
+                    }
+                    else if ( tokenizer.nameMatches( ParamsCodec.FILE_OPTION ) || tokenizer.nameMatches( ParamsCodec.FD_OPTION ) )
+                    {
+                        encodedParams = ParamsCodec.load( tokenizer.getName(), tokenizer.getValue() );
+                        continue;
+                    }
+                    else if ( tokenizer.nameMatches( SHARD_OPTION ) && schema.getDescriptor( SHARD_OPTION ) == null )
+                    {
+                        shard = ShardSpec.parse( tokenizer.getValue() );
+                        continue;
+                    }
+                    else if ( tokenizer.nameMatches( REPORT_OPTION ) )
+                    {
+                        reportTarget = tokenizer.getValue();
+                        continue;
+                    }
+                    else if ( tokenizer.nameMatches( REPORT_INTERVAL_OPTION ) )
+                    {
+                        reportIntervalSeconds = Math.max( 1, Long.parseLong( tokenizer.getValue() ) );
+                        continue;
+                    }
+                    ParamDescriptor known = schema.getDescriptor( arg, tokenizer.getNameStart(), tokenizer.getNameEnd() );
+                    paramsMap.add( known != null ? known.getName() : tokenizer.getName(), tokenizer.getValueSequence() );
+                    continue;
+
+                case FLAG:
+                    //
+                    // --flag for booleans, otherwise --name value.
+                    //
+                    ParamDescriptor descriptor = schema.getDescriptor( arg, tokenizer.getNameStart(), tokenizer.getNameEnd() );
+                    if ( descriptor != null )
+                    {
+                        if ( descriptor.getType() == Boolean.TYPE || descriptor.getType() == Boolean.class )
+                        {
+                            paramsMap.add( descriptor.getName(), "true" );
+                            continue;
+                        }
+                        else if ( i + 1 < argList.size() && !ArgTokenizer.isOption( argList.get( i + 1 ) ) )
+                        {
+                            paramsMap.add( descriptor.getName(), argList.get( ++i ) );
+                            continue;
+                        }
+                    }
+                    break;
+
+                default:
+                    break;
             }
 
-            Matcher m = promptPattern.matcher( arg );
-            if ( m.matches() )
+            System.out.println( "\nUnknown argument: " + arg );
+            help = true;
+        }
+
+        BitSet decoded = encodedParams == null ? new BitSet() : ParamsCodec.decode( encodedParams, params );
+
+        //
+        // Fill in parameters not on the command-line from the other sources. Only the schema's names are looked up,
+        // and without sources only those with a default value.
+        //
+        for ( ParamDescriptor descriptor : sources.isEmpty() ? schema.getDefaultedDescriptors() : schema.getDescriptors() )
+        {
+            if ( paramsMap.contains( descriptor.getName() ) || decoded.get( descriptor.getIndex() ) )
             {
-                prompt = true;
                 continue;
             }
 
-            m = helpPattern.matcher( arg );
-            if ( m.matches() )
+            CharSequence value = null;
+            for ( int s = 0; value == null && s < sources.size(); s++ )
             {
-                help = true;
-                continue;
+                value = sources.get( s ).getValue( descriptor );
             }
-
-            m = paramPattern.matcher( arg );
-            if ( m.matches() )
+            if ( value == null )
             {
-                paramsMap.put( m.group( 1 ), m.group( 2 ) );
-                continue;
+                value = descriptor.getDefaultValue();
+            }
+            if ( value != null )
+            {
+                paramsMap.put( descriptor.getName(), value );
             }
-
-            System.out.println( "\nUnknown argument: " + arg );
-            help = true;
         }
 
+        // listeners may have been added by a hidden option while tokenizing
+        firePhase( RunletPhase.SCHEMA_SCAN, schemaNanos );
+        time = phase( RunletPhase.TOKENIZE, time );
+
         //
         // Print usage and exit if asked for help.
         //
@@ -178,204 +482,602 @@ public class RunletFactory
         }
 
         //
-        // Check for required parameters.
+        // Check for required parameters. Missing parameters, values that cannot be converted and constraint violations
+        // are all reported together.
         //
+        List<String> violations = new ArrayList<>();
+        long validationNanos = 0;
         ParamFields fields = new ParamFields( params );
         if ( !prompt )
         {
-            for ( ParamField ann : fields.getParamFields() )
+            for ( ParamDescriptor descriptor : schema.getRequiredDescriptors() )
             {
-                if ( !ann.hidden() && ann.required() && !paramsMap.containsKey( ann.value() ) )
+                if ( !paramsMap.contains( descriptor.getName() ) && !decoded.get( descriptor.getIndex() ) )
                 {
-                    System.err.printf( "\nMissing required parameter [%s].\n", ann.value() );
-                    printUsage( paramsMap );
-                    return false;
+                    violations.add( String.format( "Missing required parameter [%s].", descriptor.getName() ) );
                 }
             }
+            long now = System.nanoTime();
+            validationNanos = now - time;
+            time = now;
         }
         else
         {
             prompt( paramsMap );
+            time = phase( RunletPhase.PROMPT, time );
         }
 
         //
         // Set field values in params.
         //
-        fields.setValues( paramsMap );
+        fields.setValues( paramsMap, violations );
+        time = phase( RunletPhase.COERCION, time );
+
+        //
+        // Only the parameters given or defaulted are checked against the constraints.
+        //
+        BitSet given = (BitSet) decoded.clone();
+        for ( String name : paramsMap.getNames() )
+        {
+            ParamDescriptor descriptor = schema.getDescriptor( name );
+            if ( descriptor != null )
+            {
+                given.set( descriptor.getIndex() );
+            }
+        }
+        violations.addAll( fields.validate( given ) );
+        firePhase( RunletPhase.VALIDATION, validationNanos + System.nanoTime() - time );
+        if ( !violations.isEmpty() )
+        {
+            System.err.println();
+            for ( String violation : violations )
+            {
+                System.err.println( violation );
+            }
+            printUsage( paramsMap );
+            return false;
+        }
         return true;
     }
 
+    /**
+     * The method run when no command name is given. Subclasses may override this to choose another method.
+     */
     protected Method findCommand()
         throws Exception
     {
-        Set<Method> commandMethods = new HashSet<>();
+        return CommandIndex.of( runlet.getClass() ).getDefaultCommand().getMethod();
+    }
 
-        //
-        // Search for methods with RunletCommand annotations continuing up the object hierarchy.
-        //
-        for ( Class<?> cls = runlet.getClass(); cls != null && cls != Object.class; cls = cls.getSuperclass() )
+    public void execute()
+        throws Exception
+    {
+        long time = System.nanoTime();
+
+        boolean injectShard = ParamSchema.forParams( params ).getDescriptor( SHARD_OPTION ) == null;
+        for ( FieldBinder binder : INJECTED_FIELDS.get( runlet.getClass() ) )
         {
-            for ( Method method : cls.getDeclaredMethods() )
+            if ( binder.getField().getType() != ShardSpec.class )
             {
-                if ( method.isAnnotationPresent( RunletCommand.class ) )
-                {
-                    commandMethods.add( method );
-                }
+                binder.set( runlet, getMetrics() );
+            }
+            else if ( injectShard )
+            {
+                binder.set( runlet, shard );
             }
         }
+        MetricsReporter reporter = reportTarget == null ? null
+            : new MetricsReporter( getMetrics(), reportTarget, TimeUnit.SECONDS.toMillis( reportIntervalSeconds ) );
+        try
+        {
+            execute( time );
+        }
+        finally
+        {
+            if ( reporter != null )
+            {
+                reporter.close();
+            }
+        }
+    }
 
-        //
-        // Next search for the default "execute" methods up the object hierarchy.
-        //
-        for ( Class<?> cls = runlet.getClass(); cls != null && cls != Object.class; cls = cls.getSuperclass() )
+    // ----------
+    // package
+    // ----------
+
+    void execute( long time )
+        throws Exception
+    {
+        CommandIndex.Command commandToRun = command;
+        if ( commandToRun == null && OVERRIDES_FIND_COMMAND.get( getClass() ) )
+        {
+            // a method chosen by a subclass other than the default command gets a command of its own
+            Method method = findCommand();
+            CommandIndex index = CommandIndex.of( runlet.getClass() );
+            if ( !index.hasDefaultCommand() || !index.getDefaultCommand().getMethod().equals( method ) )
+            {
+                commandToRun = new CommandIndex.Command( "", "", method );
+            }
+        }
+
+        // prefer the command invoker generated by the annotation processor, which is only generated for a single
+        // unnamed command
+        GeneratedCommand generated = commandToRun == null ? GENERATED_COMMANDS.get( runlet.getClass() ) : null;
+        if ( generated != null )
         {
+            time = phase( RunletPhase.COMMAND_LOOKUP, time );
             try
             {
-                commandMethods.add( cls.getDeclaredMethod( "execute", new Class<?>[0] ) );
+                generated.execute( runlet );
             }
-            catch ( NoSuchMethodException ex )
+            finally
             {
-                continue;
+                phase( RunletPhase.EXECUTION, time );
             }
-
-            break;
+            return;
         }
 
-        // ensure we found at least one command method
-        if ( commandMethods.isEmpty() )
+        if ( commandToRun == null )
         {
-            throw new RuntimeException(
-                String.format( "No method in class [%s] has a @RunletCommand annotation.", runlet.getClass().getSimpleName() ) );
+            commandToRun = CommandIndex.of( runlet.getClass() ).getDefaultCommand();
         }
-
-        // if multiple command methods were found, report error
-        if ( commandMethods.size() > 1 )
+        time = phase( RunletPhase.COMMAND_LOOKUP, time );
+        try
         {
-            StringBuilder message = new StringBuilder( "The following command methods were found on runlet " + runlet.getClass().getSimpleName() );
-            for ( Method commandMethod : commandMethods )
+            if ( commandToRun.isAsync() )
             {
-                message.append( "\n  " ).append( commandMethod );
+                executeAsync( commandToRun );
             }
-            message.append( "\nOnly a single command method is allowed" );
-            throw new Exception( message.toString() );
+            else
+            {
+                commandToRun.invoke( runlet, params, null, null, getMetrics(), shard );
+            }
+        }
+        finally
+        {
+            phase( RunletPhase.EXECUTION, time );
+        }
+    }
+
+    void printUsage( ParamValues paramsMap )
+        throws Exception
+    {
+        String scriptName = getScriptName( runlet.getClass() );
+        List<CommandIndex.Command> commands = Collections.emptyList();
+        if ( command != null )
+        {
+            scriptName += " " + command.getName();
+        }
+        else
+        {
+            commands = CommandIndex.of( runlet.getClass() ).getNamedCommands();
         }
 
-        return commandMethods.iterator().next();
+        UsageLayout layout = ParamSchema.forParams( params )
+            .getUsageLayout( runlet.getClass(), scriptName, commands, UsageLayout.getTerminalWidth() );
+        Writer out = new OutputStreamWriter( System.out );
+        layout.write( out, paramsMap );
+        out.flush();
     }
 
-    public void execute()
+    /**
+     * The name of the script for the command-line call. e.g. monkey.sh.
+     */
+    static String getScriptName( Class<?> runletClass )
         throws Exception
     {
-        Method commandMethod = findCommand();
-        commandMethod.setAccessible( true );
-        commandMethod.invoke( runlet );
+        String runletName = System.getProperty( "runletName", runletClass.getSimpleName() ).replace( "\\", "/" );
+        int slash = runletName.lastIndexOf( "/" );
+        return runletName.substring( slash + 1 );
+    }
+
+    /**
+     * New instance of a runlet class through its no-arg constructor.
+     */
+    static Object newRunlet( Class<?> runletClass )
+    {
+        try
+        {
+            Constructor<?> constructor = runletClass.getDeclaredConstructor();
+            constructor.setAccessible( true );
+            return constructor.newInstance();
+        }
+        catch ( InvocationTargetException ex )
+        {
+            throw new IllegalStateException( "Unable to create runlet " + runletClass.getName(), ex.getCause() );
+        }
+        catch ( ReflectiveOperationException ex )
+        {
+            throw new IllegalStateException( "Runlet " + runletClass.getName() + " needs a no-arg constructor", ex );
+        }
     }
 
     // ----------
     // private
     // ----------
 
-    private void prompt( Map<String, String> paramsMap )
-        throws Exception
+    /**
+     * Report the time since start as the given phase.
+     *
+     * @return the current time, i.e. the start of the next phase.
+     */
+    private long phase( RunletPhase phase, long start )
     {
-        BufferedReader in = new BufferedReader( new InputStreamReader( System.in ) );
+        long now = System.nanoTime();
+        firePhase( phase, now - start );
+        return now;
+    }
 
-        ParamFields fields = new ParamFields( params );
-        for ( ParamField param : fields.getParamFields() )
+    private void firePhase( RunletPhase phase, long nanos )
+    {
+        for ( int i = 0; i < listeners.size(); i++ )
         {
-            if ( !paramsMap.containsKey( param.value() ) )
-            {
-                System.out.print( param.value() + ": " );
-                String string = in.readLine();
-                paramsMap.put( param.value(), string );
-            }
+            listeners.get( i ).phaseCompleted( runlet, phase, nanos );
         }
     }
 
-    private void printUsage( Map<String, String> paramsMap )
-        throws Exception
+    /**
+     * Run in the mode selected by hidden options, by default process args and execute once.
+     */
+    private static int runMode( Object r, Object p, String[] args )
     {
+        String socket = findOption( args, DAEMON_OPTION );
+        if ( socket != null )
+        {
+            return serve( r, p, socket );
+        }
 
-        String scriptName = getScriptName( runlet.getClass() );
+        String trainDirectory = RunletTrainer.findDirectory( args );
+        if ( trainDirectory != null )
+        {
+            return RunletTrainer.train( r.getClass(), trainDirectory, args );
+        }
 
-        StringBuilder message = new StringBuilder();
-        message.append( "\nUsage:\n" );
-        message.append( String.format( "    %s [--prompt]", scriptName ) );
-        int maxArgLength = 12;
+        String shardCount = findOption( args, SHARD_LOCAL_OPTION );
+        if ( shardCount != null )
+        {
+            return runShardsLocally( r, p, Integer.parseInt( shardCount.trim() ), args );
+        }
 
-        ParamFields fields = new ParamFields( params );
-        for ( ParamField param : fields.getParamFields() )
+        String batchFile = findOption( args, BATCH_OPTION );
+        if ( batchFile != null )
         {
-            if ( param.hidden() )
+            return runBatchFile( r, p, batchFile, args );
+        }
+
+        return run( r, p, args );
+    }
+
+    /**
+     * Value of the last "--option=value" argument with the given prefix, or null.
+     */
+    private static String findOption( String[] args, String prefix )
+    {
+        String value = null;
+        for ( String arg : args )
+        {
+            if ( arg != null && arg.startsWith( prefix ) )
             {
-                continue;
+                value = arg.substring( prefix.length() );
             }
+        }
+        return value;
+    }
 
-            message.append( " " );
-            if ( !param.required() )
+    private static int runBatchFile( Object r, Object p, String batchFile, String[] args )
+    {
+        String parallelism = findOption( args, BATCH_PARALLELISM_OPTION );
+        List<String> commonArgs = new ArrayList<>();
+        boolean ordered = false;
+        for ( String arg : args )
+        {
+            if ( BATCH_ORDERED_OPTION.equals( arg ) )
             {
-                message.append( "[" );
+                ordered = true;
             }
-            message.append( String.format( "%s=%s", "--" + param.value(), param.value() ) );
-            if ( !param.required() )
+            else if ( arg != null && !arg.startsWith( BATCH_OPTION ) && !arg.startsWith( BATCH_PARALLELISM_OPTION ) )
             {
-                message.append( "]" );
+                commonArgs.add( arg );
             }
+        }
 
-            String value = param.value();
-            if ( param.required() )
+        try ( Stream<String> lines = Files.lines( Paths.get( batchFile ) ) )
+        {
+            Class<?> runletClass = r.getClass();
+            RunletBatch batch = new RunletBatch( () -> newRunlet( runletClass ), paramsFactory( r, p ) ).setOrderedOutput( ordered );
+            if ( parallelism != null )
             {
-                value = value + " *";
+                batch.setParallelism( Integer.parseInt( parallelism ) );
             }
-            maxArgLength = Math.max( maxArgLength, value.length() );
+
+            Stream<String[]> argSets = lines.map( String::trim ).filter( line -> !line.isEmpty() && !line.startsWith( "#" ) ).map( line -> {
+                List<String> lineArgs = new ArrayList<>( commonArgs );
+                lineArgs.addAll( Arrays.asList( ArgTokenizer.splitLine( line ) ) );
+                return lineArgs.toArray( new String[0] );
+            } );
+
+            int failed = 0;
+            List<BatchResult> results = batch.run( argSets );
+            for ( BatchResult result : results )
+            {
+                if ( !result.isSuccess() )
+                {
+                    failed++;
+                    System.err.printf( "Failed: %s\n", result );
+                }
+            }
+            System.out.printf( "(Batch: %d run, %d failed)\n", results.size(), failed );
+            return failed == 0 ? 0 : 1;
         }
-        maxArgLength += 2;
-        message.append( String.format( "\n    %s --help|-h|-? \n", scriptName ) );
+        catch ( Exception ex )
+        {
+            ex.printStackTrace();
+            return 1;
+        }
+    }
 
-        for ( ParamField param : fields.getParamFields() )
+    /**
+     * Run shards 0/n to n-1/n of the runlet with the other arguments, all at once.
+     */
+    private static int runShardsLocally( Object r, Object p, int count, String[] args )
+    {
+        List<String> commonArgs = new ArrayList<>();
+        boolean processes = false;
+        for ( String arg : args )
         {
-            if ( param.hidden() )
+            if ( SHARD_PROCESSES_OPTION.equals( arg ) )
             {
-                continue;
+                processes = true;
+            }
+            else if ( arg != null && !arg.startsWith( SHARD_LOCAL_OPTION ) && !arg.startsWith( "--" + SHARD_OPTION + "=" ) )
+            {
+                commonArgs.add( arg );
             }
+        }
+
+        Stream<String[]> argSets = IntStream.range( 0, count ).mapToObj( index -> {
+            List<String> shardArgs = new ArrayList<>( commonArgs );
+            shardArgs.add( "--" + SHARD_OPTION + "=" + new ShardSpec( index, count ) );
+            return shardArgs.toArray( new String[0] );
+        } );
+
+        try
+        {
+            Class<?> runletClass = r.getClass();
+            List<BatchResult> results = processes ? new RunletLauncher( runletClass ).setParallelism( count ).runArgs( argSets )
+                : new RunletBatch( () -> newRunlet( runletClass ), paramsFactory( r, p ) ).setParallelism( count ).run( argSets );
 
-            String desc = param.description();
-            if ( desc == null || desc.isEmpty() )
+            int failed = 0;
+            for ( BatchResult result : results )
             {
-                desc = param.value();
+                if ( !result.isSuccess() )
+                {
+                    failed++;
+                    System.err.printf( "Failed shard %d/%d: %s\n", result.getIndex(), count, result );
+                }
             }
+            System.out.printf( "(Shards: %d run, %d failed)\n", results.size(), failed );
+            return failed == 0 ? 0 : 1;
+        }
+        catch ( Exception ex )
+        {
+            ex.printStackTrace();
+            return 1;
+        }
+    }
 
-            String value = param.value();
-            if ( !param.required() )
+    private static int serve( Object r, Object p, String socket )
+    {
+        try
+        {
+            Class<?> runletClass = r.getClass();
+            Supplier<Object> paramsFactory = paramsFactory( r, p );
+            RunletServer server = new RunletServer();
+            if ( paramsFactory == null )
             {
-                value = "[" + value + "]";
+                server.register( getScriptName( runletClass ), () -> newRunlet( runletClass ) );
             }
+            else
+            {
+                server.register( getScriptName( runletClass ), () -> newRunlet( runletClass ), paramsFactory );
+            }
+            server.start( Paths.get( socket ) );
+            System.out.printf( "Serving [%s] on %s\n", getScriptName( runletClass ), socket );
+            server.awaitTermination();
+            return 0;
+        }
+        catch ( Exception ex )
+        {
+            ex.printStackTrace();
+            return 1;
+        }
+    }
 
-            message.append( String.format( "\n    %-" + maxArgLength + "s    %s", "--" + value, desc ) );
+    /**
+     * Params for each fresh runlet of the batch, shard and daemon modes: null when p is the params the runlet finds
+     * itself (see {@link #findParams}), otherwise a new instance of p's class each time.
+     */
+    private static Supplier<Object> paramsFactory( Object r, Object p )
+    {
+        if ( p == null || p == r || p == findParams( r ) )
+        {
+            return null;
+        }
+
+        Class<?> paramsClass = p.getClass();
+        try
+        {
+            paramsClass.getDeclaredConstructor();
+        }
+        catch ( NoSuchMethodException ex )
+        {
+            throw new IllegalArgumentException( "Params " + paramsClass.getName() + " of runlet " + r.getClass().getName()
+                + " need a no-arg constructor to run more than once" );
+        }
+        return () -> newRunlet( paramsClass );
+    }
+
+    private static Function<Object, Object> createParamsAccessor( Class<?> runletClass )
+    {
+        for ( Class<?> cls = runletClass; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+        {
+            try
+            {
+                Method method = cls.getDeclaredMethod( "getParams" );
+                method.setAccessible( true );
+                return runlet -> {
+                    try
+                    {
+                        return method.invoke( runlet );
+                    }
+                    catch ( ReflectiveOperationException ex )
+                    {
+                        throw new IllegalStateException( "Unable to get params of " + runletClass.getName(), ex );
+                    }
+                };
+            }
+            catch ( NoSuchMethodException ex )
+            {
+                continue;
+            }
+        }
 
-            // include given values if any were provided
-            String paramValue = paramsMap.get( value );
-            if ( paramValue != null )
+        for ( Class<?> cls = runletClass; cls != null && cls != Object.class; cls = cls.getSuperclass() )
+        {
+            for ( Field field : cls.getDeclaredFields() )
             {
-                message.append( String.format( "    [value='%s']", paramValue ) );
+                Class<?> type = field.getType();
+                // a group or parameter field is part of the runlet's own params, not the params object
+                if ( Modifier.isStatic( field.getModifiers() ) || type.isPrimitive() || type.isArray() || type.getName().startsWith( "java." )
+                    || field.isAnnotationPresent( ParamGroup.class ) || field.isAnnotationPresent( ParamField.class ) )
+                {
+                    continue;
+                }
+
+                if ( ParamSchema.of( type ).size() > 0 )
+                {
+                    return FieldBinder.of( field )::get;
+                }
             }
         }
 
-        message
-            .append( String.format( "\n\n    %-" + maxArgLength + "s    %s", "--prompt", "Prompt user for unspecified parameters on command line" ) );
-        message.append( String.format( "\n    %-" + maxArgLength + "s    %s\n", "--help, -h, -?", "Display this help" ) );
+        if ( ParamSchema.of( runletClass ).size() > 0 )
+        {
+            return runlet -> runlet;
+        }
 
-        System.out.println( message.toString() );
+        return runlet -> null;
     }
 
     /**
-     * The name of the script for the command-line call. e.g. monkey.sh.
+     * Run a command that returns a future or takes a CancellationToken/executor on an executor of virtual threads
+     * (bounded platform threads before JDK 21) and wait for its result. A shutdown of the JVM (e.g. Ctrl-C) cancels
+     * the token and waits for the command to drain, at most the drain timeout, so that work in flight can finish.
      */
-    private static String getScriptName( Class<?> runletClass )
+    private void executeAsync( CommandIndex.Command commandToRun )
         throws Exception
     {
-        String runletName = System.getProperty( "runletName", runletClass.getSimpleName() ).replace( "\\", "/" );
-        int slash = runletName.lastIndexOf( "/" );
-        return runletName.substring( slash + 1 );
+        CancellationToken token = new CancellationToken();
+        ExecutorService executor = RunletExecutors
+            .newExecutor( true, Runtime.getRuntime().availableProcessors(), "runlet-" + getScriptName( runlet.getClass() ) );
+        CountDownLatch drained = new CountDownLatch( 1 );
+        Thread hook = new Thread( () -> {
+            token.cancel();
+            try
+            {
+                drained.await( drainTimeoutMillis, TimeUnit.MILLISECONDS );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }, "runlet-shutdown" );
+        Runtime.getRuntime().addShutdownHook( hook );
+
+        try
+        {
+            // the command runs on a thread of its own: before JDK 21 the executor is a fixed pool, and a command waiting on
+            // tasks it submitted would otherwise hold one of the threads those tasks need
+            FutureTask<Object> task = new FutureTask<>( () -> commandToRun.invoke( runlet, params, token, executor, getMetrics(), shard ) );
+            Thread thread = new Thread( task, "runlet-" + getScriptName( runlet.getClass() ) + "-command" );
+            thread.setDaemon( true );
+            thread.start();
+            Object result = await( task, token );
+            if ( result instanceof CompletionStage )
+            {
+                result = ( (CompletionStage<?>) result ).toCompletableFuture();
+            }
+            if ( result instanceof Future )
+            {
+                Future<?> future = (Future<?>) result;
+                token.onCancel( () -> future.cancel( true ) );
+                await( future, token );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            if ( !executor.awaitTermination( drainTimeoutMillis, TimeUnit.MILLISECONDS ) )
+            {
+                executor.shutdownNow();
+            }
+            drained.countDown();
+
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook( hook );
+            }
+            catch ( IllegalStateException ex )
+            {
+                // already shutting down
+            }
+        }
+    }
+
+    /**
+     * Result of the future, rethrowing the exception it completed with. Interrupting the waiting thread cancels.
+     */
+    private static <T> T await( Future<T> future, CancellationToken token )
+        throws Exception
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException ex )
+        {
+            token.cancel();
+            future.cancel( true );
+            throw ex;
+        }
+        catch ( ExecutionException ex )
+        {
+            Throwable cause = ex.getCause();
+            if ( cause instanceof Exception )
+            {
+                throw (Exception) cause;
+            }
+            else if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void prompt( ParamValues paramsMap )
+        throws Exception
+    {
+        BufferedReader in = new BufferedReader( new InputStreamReader( RunletContext.current().getIn() ) );
+
+        for ( ParamDescriptor param : ParamSchema.forParams( params ).getDescriptors() )
+        {
+            if ( !paramsMap.contains( param.getName() ) )
+            {
+                System.out.print( param.getName() + ": " );
+                String string = in.readLine();
+                paramsMap.put( param.getName(), string );
+            }
+        }
     }
 }
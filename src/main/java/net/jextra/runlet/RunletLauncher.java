@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * <p>
+ * Runs a runlet once per params object, each in its own child JVM, with bounded parallelism. Use this instead of
+ * {@link RunletBatch} for runlets that load native libraries or keep global state that cannot be shared within one
+ * process.
+ * </p>
+ * <p>
+ * Each params object is turned back into arguments by {@link RunletFactory#buildArgs}. Children are started with the
+ * java executable, class path and JVM options of the current JVM (without debugging agents). Their stdout and stderr
+ * are pumped line by line to this JVM's stdout and stderr, each line prefixed with <code>[index] </code>.
+ * </p>
+ * <p>
+ * With {@link #setBinaryParams binary params} the params object is instead encoded by {@link ParamsCodec} and written
+ * to the child's stdin, which suits large or list-valued parameters.
+ * </p>
+ */
+public class RunletLauncher
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final Class<?> runletClass;
+    private int parallelism;
+    private String classPath;
+    private List<String> jvmArguments;
+    private boolean prefixOutput;
+    private boolean binaryParams;
+    private PrintStream out;
+    private PrintStream err;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    public RunletLauncher( Class<?> runletClass )
+    {
+        this.runletClass = runletClass;
+        parallelism = Runtime.getRuntime().availableProcessors();
+        classPath = System.getProperty( "java.class.path" );
+        jvmArguments = new ArrayList<>();
+        prefixOutput = true;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Entry point of the child JVM: the runlet class name followed by its arguments.
+     */
+    public static void main( String[] args )
+        throws Exception
+    {
+        Class<?> runletClass = Class.forName( args[0], true, Thread.currentThread().getContextClassLoader() );
+        Object runlet = RunletFactory.newRunlet( runletClass );
+        int exitCode = RunletFactory.run( runlet, RunletFactory.findParams( runlet ), Arrays.copyOfRange( args, 1, args.length ) );
+        System.exit( exitCode );
+    }
+
+    /**
+     * Maximum number of child JVMs running at once. Default: number of cores.
+     */
+    public RunletLauncher setParallelism( int parallelism )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "parallelism must be at least 1" );
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Class path of the child JVMs. Default: the class path of the current JVM.
+     */
+    public RunletLauncher setClassPath( String classPath )
+    {
+        this.classPath = classPath;
+        return this;
+    }
+
+    /**
+     * JVM options added after the ones inherited from the current JVM, e.g. <code>-Xmx512m</code>.
+     */
+    public RunletLauncher addJvmArguments( String... arguments )
+    {
+        jvmArguments.addAll( Arrays.asList( arguments ) );
+        return this;
+    }
+
+    /**
+     * Prefix every line of child output with <code>[index] </code> (the default).
+     */
+    public RunletLauncher setPrefixOutput( boolean prefixOutput )
+    {
+        this.prefixOutput = prefixOutput;
+        return this;
+    }
+
+    /**
+     * Hand each params object to its child encoded on stdin rather than as arguments.
+     */
+    public RunletLauncher setBinaryParams( boolean binaryParams )
+    {
+        this.binaryParams = binaryParams;
+        return this;
+    }
+
+    /**
+     * Where child output goes. Default: System.out and System.err at the time of {@link #run}.
+     */
+    public RunletLauncher setOutput( PrintStream out, PrintStream err )
+    {
+        this.out = out;
+        this.err = err;
+        return this;
+    }
+
+    /**
+     * The command line that starts the child JVM for the given runlet arguments.
+     */
+    public List<String> getCommand( List<String> runletArgs )
+    {
+        List<String> command = new ArrayList<>();
+        command.add( RunletTrainer.getJavaExecutable() );
+        command.addAll( RunletTrainer.getJvmArguments() );
+        command.addAll( jvmArguments );
+        command.add( "-cp" );
+        command.add( classPath );
+        command.add( RunletLauncher.class.getName() );
+        command.add( runletClass.getName() );
+        command.addAll( runletArgs );
+        return command;
+    }
+
+    /**
+     * Run a child JVM per params object and wait for all of them to finish. Interrupting the calling thread destroys
+     * the children still running.
+     *
+     * @return one result per params object, in input order.
+     */
+    public List<BatchResult> run( Stream<?> paramsStream )
+        throws Exception
+    {
+        return runAll( paramsStream.iterator(), false );
+    }
+
+    /**
+     * Like {@link #run} for argument vectors rather than params objects.
+     */
+    public List<BatchResult> runArgs( Stream<String[]> argSets )
+        throws Exception
+    {
+        return runAll( argSets.iterator(), true );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private List<BatchResult> runAll( Iterator<?> items, boolean argSets )
+        throws Exception
+    {
+        PrintStream toOut = out != null ? out : System.out;
+        PrintStream toErr = err != null ? err : System.err;
+
+        // one waiting thread plus two pumps per child, all blocked on I/O most of the time
+        ExecutorService executor = RunletExecutors.newExecutor( true, parallelism * 3, "runlet-launcher" );
+        Semaphore permits = new Semaphore( parallelism );
+        List<Future<BatchResult>> futures = new ArrayList<>();
+
+        try
+        {
+            int index = 0;
+            for ( ; items.hasNext(); index++ )
+            {
+                Object item = items.next();
+                List<String> runletArgs;
+                byte[] input;
+                if ( argSets )
+                {
+                    runletArgs = Arrays.asList( (String[]) item );
+                    input = null;
+                }
+                else if ( binaryParams )
+                {
+                    runletArgs = Collections.singletonList( "--" + ParamsCodec.FD_OPTION + "=0" );
+                    input = ParamsCodec.encode( item );
+                }
+                else
+                {
+                    List<String> args = RunletFactory.buildArgs( runletClass, item );
+                    runletArgs = args.subList( 1, args.size() );
+                    input = null;
+                }
+                int childIndex = index;
+
+                permits.acquire();
+                futures.add( executor.submit( () -> {
+                    try
+                    {
+                        return runOne( childIndex, runletArgs, input, executor, toOut, toErr );
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                } ) );
+            }
+
+            List<BatchResult> results = new ArrayList<>( futures.size() );
+            for ( Future<BatchResult> future : futures )
+            {
+                try
+                {
+                    results.add( future.get() );
+                }
+                catch ( ExecutionException ex )
+                {
+                    throw new IllegalStateException( ex.getCause() );
+                }
+            }
+            return results;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private BatchResult runOne( int index, List<String> runletArgs, byte[] input, ExecutorService executor, PrintStream toOut,
+        PrintStream toErr )
+        throws Exception
+    {
+        String prefix = prefixOutput ? "[" + index + "] " : "";
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder( getCommand( runletArgs ) ).start();
+        try
+        {
+            Future<?> outPump = executor.submit( () -> pump( process.getInputStream(), prefix, toOut ) );
+            Future<?> errPump = executor.submit( () -> pump( process.getErrorStream(), prefix, toErr ) );
+            try ( OutputStream stdin = process.getOutputStream() )
+            {
+                if ( input != null )
+                {
+                    stdin.write( input );
+                }
+            }
+            catch ( IOException ex )
+            {
+                // the child exited without reading its params, its exit code tells why
+            }
+            int exitCode = process.waitFor();
+            long elapsed = System.nanoTime() - start;
+
+            // the child has exited, so the pumps are only draining what is left in the pipes
+            outPump.get();
+            errPump.get();
+            return new BatchResult( index, runletArgs.toArray( new String[0] ), exitCode, elapsed );
+        }
+        finally
+        {
+            if ( process.isAlive() )
+            {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Void pump( InputStream in, String prefix, PrintStream to )
+        throws IOException
+    {
+        try ( BufferedReader reader = new BufferedReader( new InputStreamReader( in ) ) )
+        {
+            for ( String line = reader.readLine(); line != null; line = reader.readLine() )
+            {
+                // println is synchronized on the stream, so lines of different children never interleave
+                to.println( prefix + line );
+            }
+        }
+        return null;
+    }
+}
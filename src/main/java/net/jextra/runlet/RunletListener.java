@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+/**
+ * <p>
+ * Receives phase timings from a {@link RunletFactory}. Built-in listeners are available from {@link RunletListeners}
+ * and can be selected on the command-line with the hidden <code>--runlet-metrics=</code> option.
+ * </p>
+ */
+public interface RunletListener
+{
+    /**
+     * Called when a phase has finished.
+     *
+     * @param nanos elapsed time of the phase as measured by {@link System#nanoTime()}.
+     */
+    void phaseCompleted( Object runlet, RunletPhase phase, long nanos );
+
+    /**
+     * Called once all phases of a run through {@link RunletFactory#run} have finished.
+     */
+    default void runCompleted( Object runlet, boolean success, long totalNanos )
+    {
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import javax.management.*;
+
+/**
+ * <p>
+ * Built-in {@link RunletListener}s.
+ * </p>
+ * <ul>
+ * <li><code>stdout</code>: one summary line with every phase after each run.</li>
+ * <li><code>jsonl:&lt;path&gt;</code>: one JSON object per run appended to a file.</li>
+ * <li><code>jmx</code>: accumulated statistics per runlet class as a {@link RunletStatsMXBean}.</li>
+ * </ul>
+ */
+public final class RunletListeners
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final ConcurrentMap<String, JmxStats> JMX_STATS = new ConcurrentHashMap<>();
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private RunletListeners()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Listeners for a comma-separated spec such as "stdout,jsonl:/tmp/runlet.jsonl,jmx".
+     */
+    public static List<RunletListener> parse( String spec )
+    {
+        List<RunletListener> listeners = new ArrayList<>();
+        for ( String sink : spec.split( "," ) )
+        {
+            sink = sink.trim();
+            if ( sink.isEmpty() )
+            {
+                continue;
+            }
+            else if ( sink.equals( "stdout" ) )
+            {
+                listeners.add( stdout() );
+            }
+            else if ( sink.equals( "jmx" ) )
+            {
+                listeners.add( jmx() );
+            }
+            else if ( sink.startsWith( "jsonl:" ) )
+            {
+                listeners.add( jsonLines( Paths.get( sink.substring( "jsonl:".length() ) ) ) );
+            }
+            else
+            {
+                throw new IllegalArgumentException( "Unknown runlet metrics sink: " + sink );
+            }
+        }
+        return listeners;
+    }
+
+    public static RunletListener stdout()
+    {
+        return new PhaseCollector()
+        {
+            @Override
+            protected void report( Object runlet, boolean success, long totalNanos, long[] phases )
+            {
+                StringBuilder line = new StringBuilder( "(Runlet timings:" );
+                for ( RunletPhase phase : RunletPhase.values() )
+                {
+                    if ( phases[phase.ordinal()] >= 0 )
+                    {
+                        line.append( ' ' ).append( phase.getLabel() ).append( '=' ).append( formatMillis( phases[phase.ordinal()] ) );
+                    }
+                }
+                line.append( " total=" ).append( formatMillis( totalNanos ) ).append( ')' );
+                System.out.println( line );
+            }
+        };
+    }
+
+    public static RunletListener jsonLines( Path file )
+    {
+        return new PhaseCollector()
+        {
+            @Override
+            protected void report( Object runlet, boolean success, long totalNanos, long[] phases )
+            {
+                StringBuilder line = new StringBuilder( "{\"time\":\"" ).append( Instant.now() ).append( "\"" );
+                line.append( ",\"runlet\":\"" ).append( runlet.getClass().getName() ).append( "\"" );
+                line.append( ",\"success\":" ).append( success );
+                line.append( ",\"totalNanos\":" ).append( totalNanos );
+                line.append( ",\"phases\":{" );
+                boolean first = true;
+                for ( RunletPhase phase : RunletPhase.values() )
+                {
+                    if ( phases[phase.ordinal()] >= 0 )
+                    {
+                        line.append( first ? "" : "," ).append( '"' ).append( phase.getLabel() ).append( "\":" ).append( phases[phase.ordinal()] );
+                        first = false;
+                    }
+                }
+                line.append( "}}\n" );
+
+                // runs in batch or daemon mode may share the file
+                synchronized ( RunletListeners.class )
+                {
+                    try
+                    {
+                        Files.write( file, line.toString().getBytes( StandardCharsets.UTF_8 ), StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+                    }
+                    catch ( IOException ex )
+                    {
+                        System.err.println( "Unable to write runlet metrics to " + file + ": " + ex );
+                    }
+                }
+            }
+        };
+    }
+
+    public static RunletListener jmx()
+    {
+        return new RunletListener()
+        {
+            @Override
+            public void phaseCompleted( Object runlet, RunletPhase phase, long nanos )
+            {
+                getJmxStats( runlet.getClass() ).phaseNanos[phase.ordinal()].add( nanos );
+            }
+
+            @Override
+            public void runCompleted( Object runlet, boolean success, long totalNanos )
+            {
+                JmxStats stats = getJmxStats( runlet.getClass() );
+                stats.runs.increment();
+                if ( !success )
+                {
+                    stats.failures.increment();
+                }
+                stats.totalNanos.add( totalNanos );
+                stats.lastTotalNanos = totalNanos;
+            }
+        };
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static String formatMillis( long nanos )
+    {
+        return String.format( "%.3fms", nanos / 1e6 );
+    }
+
+    private static JmxStats getJmxStats( Class<?> runletClass )
+    {
+        return JMX_STATS.computeIfAbsent( runletClass.getName(), name -> {
+            JmxStats stats = new JmxStats();
+            try
+            {
+                ObjectName objectName = new ObjectName( "net.jextra.runlet:type=RunletStats,name=" + ObjectName.quote( name ) );
+                ManagementFactory.getPlatformMBeanServer().registerMBean( new StandardMBean( stats, RunletStatsMXBean.class, true ), objectName );
+            }
+            catch ( JMException ex )
+            {
+                System.err.println( "Unable to register runlet stats MBean for " + name + ": " + ex );
+            }
+            return stats;
+        } );
+    }
+
+    // ============================================================
+    // Inner Classes
+    // ============================================================
+
+    /**
+     * Collects the phases of one run and reports them together when the run completes.
+     */
+    private abstract static class PhaseCollector implements RunletListener
+    {
+        private final long[] phases;
+
+        PhaseCollector()
+        {
+            phases = new long[RunletPhase.values().length];
+            Arrays.fill( phases, -1 );
+        }
+
+        @Override
+        public void phaseCompleted( Object runlet, RunletPhase phase, long nanos )
+        {
+            phases[phase.ordinal()] = nanos;
+        }
+
+        @Override
+        public void runCompleted( Object runlet, boolean success, long totalNanos )
+        {
+            report( runlet, success, totalNanos, phases.clone() );
+            Arrays.fill( phases, -1 );
+        }
+
+        protected abstract void report( Object runlet, boolean success, long totalNanos, long[] phases );
+    }
+
+    private static class JmxStats implements RunletStatsMXBean
+    {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] phaseNanos;
+        private volatile long lastTotalNanos;
+
+        JmxStats()
+        {
+            phaseNanos = new LongAdder[RunletPhase.values().length];
+            for ( int i = 0; i < phaseNanos.length; i++ )
+            {
+                phaseNanos[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public long getRunCount()
+        {
+            return runs.sum();
+        }
+
+        @Override
+        public long getFailureCount()
+        {
+            return failures.sum();
+        }
+
+        @Override
+        public long getLastTotalNanos()
+        {
+            return lastTotalNanos;
+        }
+
+        @Override
+        public long getTotalNanos()
+        {
+            return totalNanos.sum();
+        }
+
+        @Override
+        public Map<String, Long> getPhaseNanos()
+        {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for ( RunletPhase phase : RunletPhase.values() )
+            {
+                map.put( phase.getLabel(), phaseNanos[phase.ordinal()].sum() );
+            }
+            return map;
+        }
+    }
+}
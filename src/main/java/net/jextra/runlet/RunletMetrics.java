@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+
+/**
+ * <p>
+ * Registry of named counters, gauges and latency histograms for a runlet. {@link RunletFactory} injects its instance
+ * into RunletMetrics fields of the runlet and RunletMetrics arguments of {@link RunletCommand} methods.
+ * </p>
+ * <p>
+ * Counters are {@link LongAdder}s and histograms are {@link LatencyHistogram}s, so recording from many threads does
+ * not contend. Look up each metric once and keep the reference; the lookups themselves are concurrent map reads.
+ * </p>
+ * <p>
+ * With the hidden <code>--runlet-report=stderr|jsonl:&lt;path&gt;</code> option the metrics are reported every
+ * <code>--runlet-report-interval=&lt;seconds&gt;</code> (default 10) while the command runs, followed by a final
+ * summary.
+ * </p>
+ */
+public final class RunletMetrics
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final ConcurrentMap<String, LongAdder> counters;
+    private final ConcurrentMap<String, DoubleSupplier> gauges;
+    private final ConcurrentMap<String, LatencyHistogram> histograms;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    public RunletMetrics()
+    {
+        counters = new ConcurrentSkipListMap<>();
+        gauges = new ConcurrentSkipListMap<>();
+        histograms = new ConcurrentSkipListMap<>();
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * The counter of the given name, created on first use.
+     */
+    public LongAdder counter( String name )
+    {
+        LongAdder counter = counters.get( name );
+        return counter != null ? counter : counters.computeIfAbsent( name, k -> new LongAdder() );
+    }
+
+    /**
+     * Report the value of the supplier under the given name, replacing any earlier gauge of that name.
+     */
+    public void gauge( String name, DoubleSupplier value )
+    {
+        gauges.put( name, value );
+    }
+
+    /**
+     * The histogram of the given name, created on first use.
+     */
+    public LatencyHistogram histogram( String name )
+    {
+        LatencyHistogram histogram = histograms.get( name );
+        return histogram != null ? histogram : histograms.computeIfAbsent( name, k -> new LatencyHistogram() );
+    }
+
+    /**
+     * Counters by name, sorted.
+     */
+    public Map<String, LongAdder> getCounters()
+    {
+        return Collections.unmodifiableMap( counters );
+    }
+
+    /**
+     * Gauges by name, sorted.
+     */
+    public Map<String, DoubleSupplier> getGauges()
+    {
+        return Collections.unmodifiableMap( gauges );
+    }
+
+    /**
+     * Histograms by name, sorted.
+     */
+    public Map<String, LatencyHistogram> getHistograms()
+    {
+        return Collections.unmodifiableMap( histograms );
+    }
+}
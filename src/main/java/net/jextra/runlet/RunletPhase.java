@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+/**
+ * <p>
+ * Phases of processing args and executing a runlet, timed by {@link RunletFactory} and reported to
+ * {@link RunletListener}s.
+ * </p>
+ */
+public enum RunletPhase
+{
+    SCHEMA_SCAN( "schema-scan" ),
+    TOKENIZE( "tokenize" ),
+    VALIDATION( "validation" ),
+    PROMPT( "prompt" ),
+    COERCION( "coercion" ),
+    COMMAND_LOOKUP( "command-lookup" ),
+    EXECUTION( "execution" );
+
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final String label;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    RunletPhase( String label )
+    {
+        this.label = label;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Short lower-case name used in reports, e.g. "schema-scan".
+     */
+    public String getLabel()
+    {
+        return label;
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * <p>
+ * Long-lived JVM that keeps runlet classes loaded and warm, and runs them on behalf of {@link RunletClient}s over a
+ * local socket. Each request gets a fresh runlet instance, its own stdout/stderr (streamed back to the client) and a
+ * {@link RunletContext} with the client's working directory and environment.
+ * </p>
+ * <p>
+ * Start one from a runlet's main with the hidden <code>--runlet-daemon=&lt;socket path&gt;</code> option of
+ * {@link RunletFactory#main}, or directly:
+ * </p>
+ * <pre>
+ *     java net.jextra.runlet.RunletServer --socket=/tmp/tools.sock monkey=com.acme.MonkeyRunlet ...
+ * </pre>
+ * <p>
+ * Runlets must not call {@link System#exit} themselves as that would stop the server. Since stdin is not forwarded,
+ * <code>--prompt</code> is rejected.
+ * </p>
+ */
+public class RunletServer implements Closeable
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private final Map<String, Supplier<Object>> runlets;
+    private final Map<String, Supplier<Object>> params;
+    private final ExecutorService executor;
+    private final CountDownLatch stopped;
+
+    private volatile boolean running;
+    private Path socketPath;
+    private ServerSocketChannel unixServer;
+    private ServerSocket tcpServer;
+    private byte[] tcpToken;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    public RunletServer()
+    {
+        runlets = new ConcurrentHashMap<>();
+        params = new ConcurrentHashMap<>();
+        executor = Executors.newCachedThreadPool( runnable -> {
+            Thread thread = new Thread( runnable, "runlet-daemon" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        stopped = new CountDownLatch( 1 );
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Usage: RunletServer --socket=&lt;path&gt; &lt;name&gt;=&lt;runlet class&gt; ...
+     */
+    public static void main( String[] args )
+        throws Exception
+    {
+        RunletServer server = new RunletServer();
+        Path socket = null;
+        for ( String arg : args )
+        {
+            if ( arg.startsWith( "--socket=" ) )
+            {
+                socket = Paths.get( arg.substring( "--socket=".length() ) );
+                continue;
+            }
+
+            int equals = arg.indexOf( '=' );
+            if ( equals < 1 )
+            {
+                System.err.println( "Usage: RunletServer --socket=<path> <name>=<runlet class> ..." );
+                System.exit( 1 );
+            }
+            Class<?> runletClass = Class.forName( arg.substring( equals + 1 ) );
+            server.register( arg.substring( 0, equals ), () -> RunletFactory.newRunlet( runletClass ) );
+        }
+
+        if ( socket == null )
+        {
+            System.err.println( "Usage: RunletServer --socket=<path> <name>=<runlet class> ..." );
+            System.exit( 1 );
+        }
+
+        server.start( socket );
+        server.awaitTermination();
+    }
+
+    /**
+     * Make a runlet available under the given name. The supplier is called once per request.
+     */
+    public RunletServer register( String name, Supplier<Object> runletSupplier )
+    {
+        params.remove( name );
+        runlets.put( name, runletSupplier );
+        return this;
+    }
+
+    /**
+     * Make a runlet available under the given name, with its params object from a separate supplier instead of
+     * {@link RunletFactory#findParams}. Both suppliers are called once per request.
+     */
+    public RunletServer register( String name, Supplier<Object> runletSupplier, Supplier<Object> paramsSupplier )
+    {
+        params.put( name, paramsSupplier );
+        runlets.put( name, runletSupplier );
+        return this;
+    }
+
+    /**
+     * Start accepting clients on the given socket path in the background.
+     */
+    public void start( Path socketPath )
+        throws IOException
+    {
+        start( socketPath, DaemonProtocol.supportsUnixSockets() );
+    }
+
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * Block until the server is closed.
+     */
+    public void awaitTermination()
+        throws InterruptedException
+    {
+        stopped.await();
+    }
+
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        if ( !running )
+        {
+            return;
+        }
+
+        running = false;
+        try
+        {
+            if ( unixServer != null )
+            {
+                unixServer.close();
+            }
+            if ( tcpServer != null )
+            {
+                tcpServer.close();
+                Files.deleteIfExists( DaemonProtocol.getTokenPath( socketPath ) );
+            }
+            Files.deleteIfExists( socketPath );
+        }
+        finally
+        {
+            executor.shutdown();
+            stopped.countDown();
+        }
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * Start on a Unix domain socket, or else on the loopback TCP fallback.
+     */
+    synchronized void start( Path socketPath, boolean unixSocket )
+        throws IOException
+    {
+        if ( running )
+        {
+            throw new IllegalStateException( "Server is already running" );
+        }
+
+        this.socketPath = socketPath;
+        Files.deleteIfExists( socketPath );
+        if ( unixSocket )
+        {
+            unixServer = DaemonProtocol.openUnixServer( socketPath );
+        }
+        else
+        {
+            tcpServer = new ServerSocket( 0, 50, InetAddress.getLoopbackAddress() );
+            // the token is in place before the port is published
+            tcpToken = DaemonProtocol.createToken( socketPath );
+            Files.write( socketPath, Integer.toString( tcpServer.getLocalPort() ).getBytes( StandardCharsets.US_ASCII ) );
+        }
+
+        running = true;
+        Thread acceptor = new Thread( this::acceptLoop, "runlet-daemon-accept" );
+        acceptor.setDaemon( true );
+        acceptor.start();
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private void acceptLoop()
+    {
+        while ( running )
+        {
+            try
+            {
+                if ( unixServer != null )
+                {
+                    SocketChannel channel = unixServer.accept();
+                    executor.execute( () -> handle( Channels.newInputStream( channel ), Channels.newOutputStream( channel ), null ) );
+                }
+                else
+                {
+                    Socket socket = tcpServer.accept();
+                    executor.execute( () -> handle( socket ) );
+                }
+            }
+            catch ( IOException ex )
+            {
+                if ( running )
+                {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void handle( Socket socket )
+    {
+        try
+        {
+            handle( socket.getInputStream(), socket.getOutputStream(), tcpToken );
+        }
+        catch ( IOException ex )
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Serve one request. With a token, the client must send it first. Closing the streams closes the connection.
+     */
+    private void handle( InputStream rawIn, OutputStream rawOut, byte[] token )
+    {
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( rawIn ) );
+            DataOutputStream out = new DataOutputStream( new BufferedOutputStream( rawOut ) ) )
+        {
+
+            if ( token != null )
+            {
+                DaemonProtocol.checkToken( in, token );
+            }
+
+            //
+            // Read request.
+            //
+            int version = in.readInt();
+            if ( version != DaemonProtocol.VERSION )
+            {
+                throw new IOException( "Unsupported runlet daemon protocol version " + version );
+            }
+            String runletName = DaemonProtocol.readString( in );
+            String[] args = new String[in.readInt()];
+            for ( int i = 0; i < args.length; i++ )
+            {
+                args[i] = DaemonProtocol.readString( in );
+            }
+            String cwd = DaemonProtocol.readString( in );
+            int envSize = in.readInt();
+            Map<String, String> env = new HashMap<>();
+            for ( int i = 0; i < envSize; i++ )
+            {
+                env.put( DaemonProtocol.readString( in ), DaemonProtocol.readString( in ) );
+            }
+
+            //
+            // Run with output streamed back to the client.
+            //
+            DaemonProtocol.FrameOutputStream stdout = new DaemonProtocol.FrameOutputStream( out, DaemonProtocol.FRAME_STDOUT );
+            DaemonProtocol.FrameOutputStream stderr = new DaemonProtocol.FrameOutputStream( out, DaemonProtocol.FRAME_STDERR );
+            int exitCode = run( runletName, args, new RunletContext( new File( cwd ), env, new ByteArrayInputStream( new byte[0] ) ),
+                stdout, stderr );
+            stdout.close();
+            stderr.close();
+
+            synchronized ( out )
+            {
+                out.writeByte( DaemonProtocol.FRAME_EXIT );
+                out.writeInt( exitCode );
+                out.flush();
+            }
+        }
+        catch ( IOException ex )
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private int run( String runletName, String[] args, RunletContext context, OutputStream stdout, OutputStream stderr )
+    {
+        Supplier<Object> supplier = runlets.get( runletName );
+        if ( supplier == null )
+        {
+            PrintStream err = new PrintStream( stderr, true );
+            err.printf( "Unknown runlet [%s]. Available: %s\n", runletName, new TreeSet<>( runlets.keySet() ) );
+            err.flush();
+            return 1;
+        }
+
+        RunletContext previous = RunletContext.attach( context );
+        OutputStream[] previousOutput = ThreadOutput.redirect( stdout, stderr );
+        try
+        {
+            if ( hasPrompt( args ) )
+            {
+                System.err.println( "--prompt is not supported by the runlet daemon, stdin is not forwarded." );
+                return 1;
+            }
+
+            Object runlet = supplier.get();
+            Supplier<Object> paramsSupplier = params.get( runletName );
+            return RunletFactory.run( runlet, paramsSupplier == null ? RunletFactory.findParams( runlet ) : paramsSupplier.get(), args );
+        }
+        finally
+        {
+            System.out.flush();
+            System.err.flush();
+            ThreadOutput.restore( previousOutput );
+            RunletContext.restore( previous );
+        }
+    }
+
+    private static boolean hasPrompt( String[] args )
+    {
+        List<CharSequence> expanded;
+        try
+        {
+            expanded = ArgFile.expand( args );
+        }
+        catch ( RuntimeException ex )
+        {
+            // reported when the arguments are processed
+            return false;
+        }
+
+        ArgTokenizer tokenizer = new ArgTokenizer();
+        for ( CharSequence arg : expanded )
+        {
+            if ( tokenizer.scan( arg ) == ArgTokenizer.Kind.PROMPT )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Training run for class data sharing. <code>--runlet-train[=&lt;directory&gt;]</code> starts a child JVM with
+ * <code>-XX:ArchiveClassesAtExit</code> that parses the remaining arguments and renders usage (and with
+ * <code>--runlet-train-execute</code> also runs the command), so the classes a normal run loads end up in a dynamic
+ * AppCDS archive. A launcher script that starts the runlet with <code>-XX:SharedArchiveFile</code> is written next to
+ * the archive, named after the script name of the runlet.
+ * </p>
+ * <p>
+ * Requires JDK 13 or later and a class path of jar files. The archive is only used by a JVM of the same version with
+ * the same class path.
+ * </p>
+ */
+final class RunletTrainer
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    static final String TRAIN_OPTION = "--runlet-train";
+    static final String EXECUTE_OPTION = "--runlet-train-execute";
+
+    private static final int MIN_JAVA_VERSION = 13;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private RunletTrainer()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Entry point of the training child JVM: the runlet class name followed by the arguments to train with.
+     */
+    public static void main( String[] args )
+        throws Exception
+    {
+        Class<?> runletClass = Class.forName( args[0], true, Thread.currentThread().getContextClassLoader() );
+        boolean execute = false;
+        List<String> runletArgs = new ArrayList<>();
+        for ( int i = 1; i < args.length; i++ )
+        {
+            if ( EXECUTE_OPTION.equals( args[i] ) )
+            {
+                execute = true;
+            }
+            else
+            {
+                runletArgs.add( args[i] );
+            }
+        }
+
+        RunletFactory factory = new RunletFactory( RunletFactory.newRunlet( runletClass ) );
+        factory.printUsage( new ParamValues() );
+        if ( factory.processArgs( runletArgs.toArray( new String[0] ) ) && execute )
+        {
+            factory.execute();
+        }
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * The directory of a <code>--runlet-train[=&lt;directory&gt;]</code> argument, "." if none was given, or null if
+     * there is no such argument.
+     */
+    static String findDirectory( String[] args )
+    {
+        String directory = null;
+        for ( String arg : args )
+        {
+            if ( TRAIN_OPTION.equals( arg ) )
+            {
+                directory = ".";
+            }
+            else if ( arg != null && arg.startsWith( TRAIN_OPTION + "=" ) )
+            {
+                directory = arg.substring( TRAIN_OPTION.length() + 1 );
+            }
+        }
+        return directory;
+    }
+
+    static int train( Class<?> runletClass, String directory, String[] args )
+    {
+        return train( runletClass, directory, args, System.getProperty( "java.class.path" ) );
+    }
+
+    static int train( Class<?> runletClass, String directory, String[] args, String classPath )
+    {
+        int javaVersion = getJavaVersion();
+        if ( javaVersion < MIN_JAVA_VERSION )
+        {
+            System.err.printf( "Training requires Java %d or later, running on %d.\n", MIN_JAVA_VERSION, javaVersion );
+            return 1;
+        }
+
+        // class data sharing only archives classes loaded from jar files
+        for ( String entry : classPath.split( File.pathSeparator ) )
+        {
+            if ( new File( entry ).isDirectory() )
+            {
+                System.err.printf( "Training requires a class path of jar files, but %s is a directory.\n", entry );
+                return 1;
+            }
+        }
+
+        try
+        {
+            String scriptName = RunletFactory.getScriptName( runletClass );
+            Path dir = RunletContext.current().resolveFile( directory ).toPath().toAbsolutePath().normalize();
+            Files.createDirectories( dir );
+            Path archive = dir.resolve( getBaseName( scriptName ) + ".jsa" );
+            Path script = dir.resolve( isWindows() && getBaseName( scriptName ).equals( scriptName ) ? scriptName + ".cmd" : scriptName );
+            Files.deleteIfExists( archive );
+
+            List<String> command = new ArrayList<>();
+            command.add( getJavaExecutable() );
+            command.addAll( getJvmArguments() );
+            command.add( "-XX:ArchiveClassesAtExit=" + archive );
+            command.add( "-cp" );
+            command.add( classPath );
+            command.add( RunletTrainer.class.getName() );
+            command.add( runletClass.getName() );
+            for ( String arg : args )
+            {
+                if ( arg != null && !arg.equals( TRAIN_OPTION ) && !arg.startsWith( TRAIN_OPTION + "=" ) )
+                {
+                    command.add( arg );
+                }
+            }
+
+            // the usage text etc. printed by the training run is noise, only show errors
+            Process process = new ProcessBuilder( command ).redirectOutput( new File( isWindows() ? "NUL" : "/dev/null" ) )
+                .redirectError( ProcessBuilder.Redirect.INHERIT ).start();
+            int exitCode = process.waitFor();
+            if ( exitCode != 0 || !Files.exists( archive ) )
+            {
+                System.err.printf( "Training run failed (exit code %d), no archive was written.\n", exitCode );
+                return 1;
+            }
+
+            writeLauncher( script, archive, getLaunchArguments( runletClass, classPath ) );
+            System.out.printf( "Wrote %s and %s\n", archive, script );
+            return 0;
+        }
+        catch ( Exception ex )
+        {
+            ex.printStackTrace();
+            return 1;
+        }
+    }
+
+    /**
+     * JVM options of the current JVM that should carry over, without debugging agents and class data sharing
+     * options.
+     */
+    static List<String> getJvmArguments()
+    {
+        List<String> arguments = new ArrayList<>();
+        for ( String arg : ManagementFactory.getRuntimeMXBean().getInputArguments() )
+        {
+            if ( !arg.startsWith( "-XX:ArchiveClassesAtExit" ) && !arg.startsWith( "-XX:SharedArchiveFile" )
+                && !arg.startsWith( "-Xshare" ) && !arg.startsWith( "-agentlib" ) && !arg.startsWith( "-javaagent" )
+                && !arg.startsWith( "-Xrunjdwp" ) && !arg.equals( "-Xdebug" ) )
+            {
+                arguments.add( arg );
+            }
+        }
+        return arguments;
+    }
+
+    static String getJavaExecutable()
+    {
+        return Paths.get( System.getProperty( "java.home" ), "bin", isWindows() ? "java.exe" : "java" ).toString();
+    }
+
+    /**
+     * Write a script that runs the launch arguments with the archive, passing on the script's arguments.
+     */
+    static void writeLauncher( Path script, Path archive, List<String> launchArguments )
+        throws IOException
+    {
+        List<String> command = new ArrayList<>();
+        command.add( getJavaExecutable() );
+        command.add( "-XX:SharedArchiveFile=" + archive );
+        command.addAll( getJvmArguments() );
+        command.addAll( launchArguments );
+
+        StringBuilder text = new StringBuilder();
+        String fileName = script.getFileName().toString().toLowerCase( Locale.ROOT );
+        if ( fileName.endsWith( ".cmd" ) || fileName.endsWith( ".bat" ) )
+        {
+            text.append( "@echo off\r\n" );
+            for ( String arg : command )
+            {
+                text.append( '"' ).append( arg.replace( "\"", "\"\"" ) ).append( "\" " );
+            }
+            text.append( "%*\r\n" );
+        }
+        else
+        {
+            text.append( "#!/bin/sh\n" );
+            text.append( "exec" );
+            for ( String arg : command )
+            {
+                text.append( " '" ).append( arg.replace( "'", "'\\''" ) ).append( '\'' );
+            }
+            text.append( " \"$@\"\n" );
+        }
+
+        Files.write( script, text.toString().getBytes( StandardCharsets.UTF_8 ) );
+        script.toFile().setExecutable( true );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    /**
+     * Class path and main class (or -jar) of the current JVM, falling back to the runlet class as main class.
+     */
+    private static List<String> getLaunchArguments( Class<?> runletClass, String classPath )
+    {
+        String javaCommand = System.getProperty( "sun.java.command", "" ).trim();
+        String main = javaCommand.isEmpty() ? runletClass.getName() : javaCommand.split( " " )[0];
+
+        if ( main.endsWith( ".jar" ) )
+        {
+            return Arrays.asList( "-jar", new File( main ).getAbsolutePath() );
+        }
+        return Arrays.asList( "-cp", classPath, main );
+    }
+
+    private static int getJavaVersion()
+    {
+        String version = System.getProperty( "java.specification.version" );
+        return Integer.parseInt( version.startsWith( "1." ) ? version.substring( 2 ) : version );
+    }
+
+    private static String getBaseName( String scriptName )
+    {
+        String lower = scriptName.toLowerCase( Locale.ROOT );
+        for ( String extension : new String[] { ".sh", ".cmd", ".bat" } )
+        {
+            if ( lower.endsWith( extension ) )
+            {
+                return scriptName.substring( 0, scriptName.length() - extension.length() );
+            }
+        }
+        return scriptName;
+    }
+
+    private static boolean isWindows()
+    {
+        return System.getProperty( "os.name", "" ).startsWith( "Windows" );
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * <p>
+ * Shard <code>index</code> of <code>count</code>, written <code>index/count</code> with index starting at 0. Given by
+ * the built-in <code>--shard=i/n</code> option and injected by {@link RunletFactory} into ShardSpec fields of the
+ * runlet and ShardSpec arguments of {@link RunletCommand} methods; without the option a runlet is the single shard
+ * <code>0/1</code>.
+ * </p>
+ * <p>
+ * The helpers split work the same way in every JVM and on every run: ranges into contiguous, balanced sub-ranges,
+ * and keys (and file names) by a fixed 64-bit FNV-1a hash (of the UTF-16LE bytes of text keys, of the little-endian
+ * bytes of long keys), so the same input always lands on the same shard and a failed shard can be re-run on its own.
+ * </p>
+ * <p>
+ * <code>--shard-local=n</code> runs all n shards in parallel in one JVM, or as child JVMs with
+ * <code>--shard-processes</code>.
+ * </p>
+ */
+public final class ShardSpec
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    public static final ShardSpec ALL = new ShardSpec( 0, 1 );
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int index;
+    private final int count;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    public ShardSpec( int index, int count )
+    {
+        if ( count < 1 || index < 0 || index >= count )
+        {
+            throw new IllegalArgumentException( String.format( "Invalid shard %d/%d, expected 0 <= index < count", index, count ) );
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    /**
+     * Parse <code>index/count</code>, e.g. <code>2/8</code>.
+     */
+    public static ShardSpec parse( String value )
+    {
+        int slash = value.indexOf( '/' );
+        if ( slash < 0 )
+        {
+            throw new IllegalArgumentException( "Invalid shard '" + value + "', expected index/count" );
+        }
+        return new ShardSpec( Integer.parseInt( value.substring( 0, slash ).trim() ), Integer.parseInt( value.substring( slash + 1 ).trim() ) );
+    }
+
+    /**
+     * Shard of the key among count shards.
+     */
+    public static int shardOf( CharSequence key, int count )
+    {
+        long hash = FNV_OFFSET_BASIS;
+        for ( int i = 0; i < key.length(); i++ )
+        {
+            char c = key.charAt( i );
+            hash = ( hash ^ ( c & 0xff ) ) * FNV_PRIME;
+            hash = ( hash ^ ( c >>> 8 ) ) * FNV_PRIME;
+        }
+        return (int) Long.remainderUnsigned( hash, count );
+    }
+
+    /**
+     * Shard of the key among count shards.
+     */
+    public static int shardOf( long key, int count )
+    {
+        long hash = FNV_OFFSET_BASIS;
+        for ( int shift = 0; shift < 64; shift += 8 )
+        {
+            hash = ( hash ^ ( ( key >>> shift ) & 0xff ) ) * FNV_PRIME;
+        }
+        return (int) Long.remainderUnsigned( hash, count );
+    }
+
+    public int getIndex()
+    {
+        return index;
+    }
+
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * True if the key belongs to this shard.
+     */
+    public boolean owns( CharSequence key )
+    {
+        return count == 1 || shardOf( key, count ) == index;
+    }
+
+    /**
+     * True if the key belongs to this shard.
+     */
+    public boolean owns( long key )
+    {
+        return count == 1 || shardOf( key, count ) == index;
+    }
+
+    /**
+     * The items whose key belongs to this shard.
+     */
+    public <T> Stream<T> filter( Stream<T> items, Function<? super T, ? extends CharSequence> key )
+    {
+        return count == 1 ? items : items.filter( item -> owns( key.apply( item ) ) );
+    }
+
+    /**
+     * First value of this shard's part of the range start (inclusive) to end (exclusive). The parts are contiguous
+     * and differ in size by at most one.
+     */
+    public long rangeStart( long start, long end )
+    {
+        return boundary( start, end, index );
+    }
+
+    /**
+     * End (exclusive) of this shard's part of the range start (inclusive) to end (exclusive).
+     */
+    public long rangeEnd( long start, long end )
+    {
+        return boundary( start, end, index + 1 );
+    }
+
+    /**
+     * This shard's part of the range start (inclusive) to end (exclusive).
+     */
+    public LongStream range( long start, long end )
+    {
+        return LongStream.range( rangeStart( start, end ), rangeEnd( start, end ) );
+    }
+
+    /**
+     * The regular files directly in the directory that belong to this shard by file name, sorted by name. A file keeps
+     * its shard when other files are added or removed.
+     */
+    public List<Path> files( Path directory )
+        throws IOException
+    {
+        try ( Stream<Path> files = Files.list( directory ) )
+        {
+            return filter( files.filter( Files::isRegularFile ), file -> file.getFileName().toString() ).sorted()
+                .collect( Collectors.toList() );
+        }
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+        if ( !( obj instanceof ShardSpec ) )
+        {
+            return false;
+        }
+        ShardSpec other = (ShardSpec) obj;
+        return index == other.index && count == other.count;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return index * 31 + count;
+    }
+
+    @Override
+    public String toString()
+    {
+        return index + "/" + count;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private long boundary( long start, long end, int shard )
+    {
+        if ( end <= start )
+        {
+            return start;
+        }
+        long length = end - start;
+        return start + ( length / count ) * shard + Math.min( shard, length % count );
+    }
+}
@@ -21,12 +21,29 @@
 
 package net.jextra.runlet;
 
-import java.io.*;
+import java.lang.reflect.*;
 import java.text.*;
 import java.util.*;
 
 public class StringCoercer
 {
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final int MAX_EXACT_POWER = 22;
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_POWER + 1];
+
+    static
+    {
+        POWERS_OF_TEN[0] = 1;
+        for ( int i = 1; i < POWERS_OF_TEN.length; i++ )
+        {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
     // ============================================================
     // Methods
     // ============================================================
@@ -45,6 +62,24 @@ public class StringCoercer
         {
             return (String) obj;
         }
+        else if ( obj.getClass().isArray() && obj.getClass() != char[].class )
+        {
+            StringBuilder builder = new StringBuilder();
+            for ( int i = 0, length = Array.getLength( obj ); i < length; i++ )
+            {
+                builder.append( i == 0 ? "" : "," ).append( toString( Array.get( obj, i ) ) );
+            }
+            return builder.toString();
+        }
+        else if ( obj instanceof Collection )
+        {
+            StringBuilder builder = new StringBuilder();
+            for ( Object element : (Collection<?>) obj )
+            {
+                builder.append( builder.length() == 0 ? "" : "," ).append( toString( element ) );
+            }
+            return builder.toString();
+        }
         else
         {
             return obj.toString();
@@ -58,52 +93,243 @@ public class StringCoercer
         {
             return null;
         }
-        else if ( destClass.equals( String.class ) )
+
+        Converter<?> converter = ConverterRegistry.getDefault().lookup( destClass );
+        if ( converter == null )
+        {
+            throw new RuntimeException( "Unable to convert string '" + string + "' to " + destClass.getCanonicalName() + "." );
+        }
+
+        try
+        {
+            return converter.convert( string );
+        }
+        catch ( ParseException | RuntimeException ex )
+        {
+            throw ex;
+        }
+        catch ( Exception ex )
+        {
+            throw new IllegalArgumentException( ex );
+        }
+    }
+
+    /**
+     * Like {@link #fromString(String, Class)} for the characters start (inclusive) to end (exclusive). int, long,
+     * double and boolean values (and their boxes) are parsed without creating a String.
+     */
+    public static Object fromString( CharSequence chars, int start, int end, Class<?> destClass )
+        throws ParseException
+    {
+        if ( chars == null )
+        {
+            return null;
+        }
+        else if ( destClass == Integer.TYPE || destClass == Integer.class )
+        {
+            return parseIntRange( chars, start, end );
+        }
+        else if ( destClass == Long.TYPE || destClass == Long.class )
+        {
+            return parseLongRange( chars, start, end );
+        }
+        else if ( destClass == Double.TYPE || destClass == Double.class )
         {
-            return string;
+            return parseDoubleRange( chars, start, end );
         }
-        else if ( destClass.equals( Boolean.TYPE ) || destClass.equals( Boolean.class ) )
+        else if ( destClass == Boolean.TYPE || destClass == Boolean.class )
         {
-            return Boolean.parseBoolean( string );
+            return parseBooleanRange( chars, start, end );
         }
-        else if ( destClass.equals( Byte.TYPE ) || destClass.equals( Byte.class ) )
+
+        return fromString( chars.subSequence( start, end ).toString(), destClass );
+    }
+
+    /**
+     * Parse an int from characters start (inclusive) to end (exclusive) without creating a String. Accepts the same
+     * input as {@link Integer#parseInt(String)} for radix 10.
+     */
+    public static int parseIntRange( CharSequence chars, int start, int end )
+    {
+        long value = parseLongRange( chars, start, end );
+        if ( value < Integer.MIN_VALUE || value > Integer.MAX_VALUE )
         {
-            return Byte.parseByte( string );
+            throw numberFormatException( chars, start, end );
         }
-        else if ( destClass.equals( Short.TYPE ) || destClass.equals( Short.class ) )
+        return (int) value;
+    }
+
+    /**
+     * Parse a long from characters start (inclusive) to end (exclusive) without creating a String. Accepts the same
+     * input as {@link Long#parseLong(String)} for radix 10.
+     */
+    public static long parseLongRange( CharSequence chars, int start, int end )
+    {
+        if ( start >= end )
         {
-            return Short.parseShort( string );
+            throw numberFormatException( chars, start, end );
         }
-        else if ( destClass.equals( Integer.TYPE ) || destClass.equals( Integer.class ) )
+
+        // Accumulate negatively so Long.MIN_VALUE does not overflow, as Long.parseLong does.
+        int i = start;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        char first = chars.charAt( i );
+        if ( first == '-' || first == '+' )
+        {
+            if ( first == '-' )
+            {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            }
+            if ( ++i == end )
+            {
+                throw numberFormatException( chars, start, end );
+            }
+        }
+
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for ( ; i < end; i++ )
+        {
+            int digit = chars.charAt( i ) - '0';
+            if ( digit < 0 || digit > 9 || result < multiplyMin )
+            {
+                throw numberFormatException( chars, start, end );
+            }
+            result *= 10;
+            if ( result < limit + digit )
+            {
+                throw numberFormatException( chars, start, end );
+            }
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parse a double from characters start (inclusive) to end (exclusive). Plain decimals such as 12.5, -3 or 1e-3
+     * with up to 15 significant digits are parsed without creating a String and are exact (correctly rounded).
+     * Anything else (more digits, NaN, Infinity, hex) falls back to {@link Double#parseDouble(String)}.
+     */
+    public static double parseDoubleRange( CharSequence chars, int start, int end )
+    {
+        int i = start;
+        boolean negative = false;
+        if ( i < end && ( chars.charAt( i ) == '-' || chars.charAt( i ) == '+' ) )
         {
-            return Integer.parseInt( string );
+            negative = chars.charAt( i ) == '-';
+            i++;
         }
-        else if ( destClass.equals( Long.TYPE ) || destClass.equals( Long.class ) )
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for ( ; i < end; i++ )
         {
-            return Long.parseLong( string );
+            char c = chars.charAt( i );
+            if ( c >= '0' && c <= '9' )
+            {
+                seenDigit = true;
+                if ( mantissa == 0 && c == '0' )
+                {
+                    // leading zeros are not significant
+                    exponent -= seenPoint ? 1 : 0;
+                    continue;
+                }
+                if ( ++digits > MAX_FAST_DIGITS )
+                {
+                    return parseDoubleSlow( chars, start, end );
+                }
+                mantissa = mantissa * 10 + ( c - '0' );
+                exponent -= seenPoint ? 1 : 0;
+            }
+            else if ( c == '.' && !seenPoint )
+            {
+                seenPoint = true;
+            }
+            else
+            {
+                break;
+            }
         }
-        else if ( destClass.equals( Float.TYPE ) || destClass.equals( Float.class ) )
+
+        if ( !seenDigit )
         {
-            return Float.parseFloat( string );
+            return parseDoubleSlow( chars, start, end );
         }
-        else if ( destClass.equals( Double.TYPE ) || destClass.equals( Double.class ) )
+
+        if ( i < end && ( chars.charAt( i ) == 'e' || chars.charAt( i ) == 'E' ) )
         {
-            return Double.parseDouble( string );
+            boolean expNegative = false;
+            if ( ++i < end && ( chars.charAt( i ) == '-' || chars.charAt( i ) == '+' ) )
+            {
+                expNegative = chars.charAt( i ) == '-';
+                i++;
+            }
+            int expStart = i;
+            int exp = 0;
+            for ( ; i < end && exp < 1000; i++ )
+            {
+                int digit = chars.charAt( i ) - '0';
+                if ( digit < 0 || digit > 9 )
+                {
+                    break;
+                }
+                exp = exp * 10 + digit;
+            }
+            if ( i == expStart )
+            {
+                return parseDoubleSlow( chars, start, end );
+            }
+            exponent += expNegative ? -exp : exp;
         }
-        else if ( destClass.equals( Date.class ) )
+
+        if ( i != end || exponent < -MAX_EXACT_POWER || exponent > MAX_EXACT_POWER )
         {
-            DateFormat df = DateFormat.getDateInstance();
-            return df.parse( string );
+            return parseDoubleSlow( chars, start, end );
         }
-        else if ( destClass.equals( File.class ) )
+
+        // both mantissa (< 2^53) and 10^|exponent| (<= 10^22) are exact doubles, so one operation rounds correctly
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a boolean from characters start (inclusive) to end (exclusive) without creating a String. Like
+     * {@link Boolean#parseBoolean(String)}, true only for "true" ignoring case.
+     */
+    public static boolean parseBooleanRange( CharSequence chars, int start, int end )
+    {
+        if ( end - start != 4 )
         {
-            return new File( string );
+            return false;
         }
-        else if ( destClass.equals( UUID.class ) )
+
+        for ( int i = 0; i < 4; i++ )
         {
-            return UUID.fromString( string );
+            if ( Character.toLowerCase( chars.charAt( start + i ) ) != "true".charAt( i ) )
+            {
+                return false;
+            }
         }
+        return true;
+    }
+
+    // ----------
+    // private
+    // ----------
 
-        throw new RuntimeException( "Unable to convert string '" + string + "' to " + destClass.getCanonicalName() + "." );
+    private static double parseDoubleSlow( CharSequence chars, int start, int end )
+    {
+        return Double.parseDouble( chars.subSequence( start, end ).toString() );
+    }
+
+    private static NumberFormatException numberFormatException( CharSequence chars, int start, int end )
+    {
+        return new NumberFormatException( "For input string: \"" + chars.subSequence( start, end ) + "\"" );
     }
 }
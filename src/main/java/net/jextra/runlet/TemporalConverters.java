@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.text.*;
+import java.time.*;
+import java.time.format.*;
+import java.time.temporal.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * <p>
+ * Thread-safe {@link Converter}s for {@link Date} and java.time types.
+ * </p>
+ * <p>
+ * Without a format, the common ISO-8601 shapes (<code>2020-01-31</code>, <code>2020-01-31T10:15:30.5</code>,
+ * <code>2020-01-31T10:15:30Z</code>, <code>2020-01-31T10:15:30+01:00</code>) are parsed by hand without going through a
+ * DateTimeFormatter. Anything else falls back to the ISO formatters, and for {@link Date} to the locale date format
+ * used historically. With a {@link ParamField#format()} an immutable DateTimeFormatter is built once per field.
+ * </p>
+ */
+final class TemporalConverters
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final ThreadLocal<DateFormat> LEGACY_DATE_FORMAT = ThreadLocal.withInitial( DateFormat::getDateInstance );
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private TemporalConverters()
+    {
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    static void register( ConverterRegistry registry )
+    {
+        registry.register( LocalDate.class, TemporalConverters::parseLocalDate );
+        registry.register( LocalDateTime.class, TemporalConverters::parseLocalDateTime );
+        registry.register( Instant.class, TemporalConverters::parseInstant );
+        registry.register( OffsetDateTime.class, TemporalConverters::parseOffsetDateTime );
+        registry.register( Duration.class, Duration::parse );
+        registry.register( Period.class, Period::parse );
+        registry.register( Date.class, TemporalConverters::parseDate );
+    }
+
+    /**
+     * Converter for a field with an explicit {@link ParamField#format()}.
+     *
+     * @throws IllegalArgumentException if the type does not support a format or the pattern is invalid.
+     */
+    static Converter<?> forFormat( Class<?> type, String format )
+    {
+        if ( type == LocalDate.class )
+        {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format );
+            return value -> formatter.parse( value, LocalDate::from );
+        }
+        else if ( type == LocalDateTime.class )
+        {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format );
+            return value -> formatter.parse( value, LocalDateTime::from );
+        }
+        else if ( type == OffsetDateTime.class )
+        {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format );
+            return value -> formatter.parse( value, OffsetDateTime::from );
+        }
+        else if ( type == Instant.class )
+        {
+            // patterns without a zone are taken as UTC
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format ).withZone( ZoneOffset.UTC );
+            return value -> toInstant( formatter.parseBest( value, ZonedDateTime::from, LocalDate::from ), ZoneOffset.UTC );
+        }
+        else if ( type == Date.class )
+        {
+            // patterns without a zone are taken as local time, like DateFormat
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format );
+            return value -> Date.from(
+                toInstant( formatter.parseBest( value, ZonedDateTime::from, LocalDateTime::from, LocalDate::from ), ZoneId.systemDefault() ) );
+        }
+
+        throw new IllegalArgumentException( "A format is not supported for type " + type.getCanonicalName() );
+    }
+
+    /**
+     * Printer writing values of the type with an explicit {@link ParamField#format()} so that {@link #forFormat} reads
+     * them back, or null if the type does not support a format.
+     */
+    static Function<Object, String> printerForFormat( Class<?> type, String format )
+    {
+        if ( type == LocalDate.class || type == LocalDateTime.class || type == OffsetDateTime.class )
+        {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format );
+            return value -> formatter.format( (TemporalAccessor) value );
+        }
+        else if ( type == Instant.class )
+        {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format ).withZone( ZoneOffset.UTC );
+            return value -> formatter.format( (Instant) value );
+        }
+        else if ( type == Date.class )
+        {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern( format ).withZone( ZoneId.systemDefault() );
+            return value -> formatter.format( ( (Date) value ).toInstant() );
+        }
+
+        return null;
+    }
+
+    /**
+     * ISO date-time with the local offset, which {@link #parseDate} reads back exactly (unlike Date.toString()).
+     */
+    static String printDate( Date value )
+    {
+        return OffsetDateTime.ofInstant( value.toInstant(), ZoneId.systemDefault() ).toString();
+    }
+
+    static LocalDate parseLocalDate( String value )
+    {
+        LocalDate date = fastLocalDate( value, value.length() );
+        return date != null ? date : LocalDate.parse( value );
+    }
+
+    static LocalDateTime parseLocalDateTime( String value )
+    {
+        LocalDateTime dateTime = fastLocalDateTime( value, value.length() );
+        return dateTime != null ? dateTime : LocalDateTime.parse( value );
+    }
+
+    static Instant parseInstant( String value )
+    {
+        int length = value.length();
+        if ( length > 0 && value.charAt( length - 1 ) == 'Z' )
+        {
+            LocalDateTime dateTime = fastLocalDateTime( value, length - 1 );
+            if ( dateTime != null )
+            {
+                return dateTime.toInstant( ZoneOffset.UTC );
+            }
+        }
+
+        return Instant.parse( value );
+    }
+
+    static OffsetDateTime parseOffsetDateTime( String value )
+    {
+        int length = value.length();
+        if ( length > 0 && value.charAt( length - 1 ) == 'Z' )
+        {
+            LocalDateTime dateTime = fastLocalDateTime( value, length - 1 );
+            if ( dateTime != null )
+            {
+                return OffsetDateTime.of( dateTime, ZoneOffset.UTC );
+            }
+        }
+        else if ( length > 6 && value.charAt( length - 3 ) == ':' && ( value.charAt( length - 6 ) == '+' || value.charAt( length - 6 ) == '-' ) )
+        {
+            LocalDateTime dateTime = fastLocalDateTime( value, length - 6 );
+            int hours = digits( value, length - 5, length - 3 );
+            int minutes = digits( value, length - 2, length );
+            if ( dateTime != null && hours >= 0 && minutes >= 0 )
+            {
+                int sign = value.charAt( length - 6 ) == '-' ? -1 : 1;
+                return OffsetDateTime.of( dateTime, ZoneOffset.ofHoursMinutes( sign * hours, sign * minutes ) );
+            }
+        }
+
+        return OffsetDateTime.parse( value );
+    }
+
+    /**
+     * ISO dates are local midnight, ISO date-times with an offset are exact, anything else goes through the locale date
+     * format (one instance per thread since DateFormat is not thread-safe).
+     */
+    static Date parseDate( String value )
+        throws ParseException
+    {
+        int length = value.length();
+        LocalDate date = fastLocalDate( value, length );
+        if ( date != null )
+        {
+            return Date.from( date.atStartOfDay( ZoneId.systemDefault() ).toInstant() );
+        }
+
+        LocalDateTime dateTime = fastLocalDateTime( value, length );
+        if ( dateTime != null )
+        {
+            return Date.from( dateTime.atZone( ZoneId.systemDefault() ).toInstant() );
+        }
+
+        if ( length > 10 && value.charAt( 4 ) == '-' && value.charAt( 10 ) == 'T' )
+        {
+            try
+            {
+                return Date.from( parseOffsetDateTime( value ).toInstant() );
+            }
+            catch ( DateTimeParseException ex )
+            {
+                // fall through to the locale format
+            }
+        }
+
+        return LEGACY_DATE_FORMAT.get().parse( value );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static Instant toInstant( TemporalAccessor temporal, ZoneId defaultZone )
+    {
+        if ( temporal instanceof ZonedDateTime )
+        {
+            return ( (ZonedDateTime) temporal ).toInstant();
+        }
+        else if ( temporal instanceof LocalDateTime )
+        {
+            return ( (LocalDateTime) temporal ).atZone( defaultZone ).toInstant();
+        }
+
+        return ( (LocalDate) temporal ).atStartOfDay( defaultZone ).toInstant();
+    }
+
+    /**
+     * yyyy-MM-dd, or null if the value does not have that shape.
+     */
+    private static LocalDate fastLocalDate( String value, int end )
+    {
+        if ( end != 10 || value.charAt( 4 ) != '-' || value.charAt( 7 ) != '-' )
+        {
+            return null;
+        }
+
+        int year = digits( value, 0, 4 );
+        int month = digits( value, 5, 7 );
+        int day = digits( value, 8, 10 );
+        if ( year < 0 || month < 0 || day < 0 )
+        {
+            return null;
+        }
+
+        return LocalDate.of( year, month, day );
+    }
+
+    /**
+     * yyyy-MM-ddTHH:mm[:ss[.fffffffff]] up to end, or null if the value does not have that shape.
+     */
+    private static LocalDateTime fastLocalDateTime( String value, int end )
+    {
+        if ( end < 16 || value.charAt( 10 ) != 'T' || value.charAt( 13 ) != ':' )
+        {
+            return null;
+        }
+
+        LocalDate date = fastLocalDate( value, 10 );
+        int hour = digits( value, 11, 13 );
+        int minute = digits( value, 14, 16 );
+        int second = 0;
+        int nanos = 0;
+        if ( date == null || hour < 0 || minute < 0 )
+        {
+            return null;
+        }
+
+        if ( end > 16 )
+        {
+            if ( end < 19 || value.charAt( 16 ) != ':' || ( second = digits( value, 17, 19 ) ) < 0 )
+            {
+                return null;
+            }
+
+            if ( end > 19 )
+            {
+                int fractionDigits = end - 20;
+                if ( value.charAt( 19 ) != '.' || fractionDigits < 1 || fractionDigits > 9 || ( nanos = digits( value, 20, end ) ) < 0 )
+                {
+                    return null;
+                }
+                for ( int i = fractionDigits; i < 9; i++ )
+                {
+                    nanos *= 10;
+                }
+            }
+        }
+
+        return LocalDateTime.of( date, LocalTime.of( hour, minute, second, nanos ) );
+    }
+
+    /**
+     * Non-negative int value of the decimal digits in the range, or -1 if there is a non-digit.
+     */
+    private static int digits( String value, int start, int end )
+    {
+        int result = 0;
+        for ( int i = start; i < end; i++ )
+        {
+            int digit = value.charAt( i ) - '0';
+            if ( digit < 0 || digit > 9 )
+            {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+
+/**
+ * <p>
+ * Routes {@link System#out} and {@link System#err} per thread, so several runlet invocations can share one JVM and
+ * each still get its own output. Threads without a redirect write to the original streams.
+ * </p>
+ */
+final class ThreadOutput extends OutputStream
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static volatile ThreadOutput out;
+    private static volatile ThreadOutput err;
+
+    private final PrintStream original;
+    private final InheritableThreadLocal<OutputStream> target;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    private ThreadOutput( PrintStream original )
+    {
+        this.original = original;
+        target = new InheritableThreadLocal<>();
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    @Override
+    public void write( int b )
+        throws IOException
+    {
+        stream().write( b );
+    }
+
+    @Override
+    public void write( byte[] b, int off, int len )
+        throws IOException
+    {
+        stream().write( b, off, len );
+    }
+
+    @Override
+    public void flush()
+        throws IOException
+    {
+        stream().flush();
+    }
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * Send System.out and System.err of the current thread (and threads it creates) to the given streams.
+     *
+     * @return the previous redirect of the thread, to be given to {@link #restore}.
+     */
+    static OutputStream[] redirect( OutputStream stdout, OutputStream stderr )
+    {
+        install();
+        OutputStream[] previous = { out.target.get(), err.target.get() };
+        out.target.set( stdout );
+        err.target.set( stderr );
+        return previous;
+    }
+
+    static void restore( OutputStream[] previous )
+    {
+        restore( out, previous[0] );
+        restore( err, previous[1] );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private static synchronized void install()
+    {
+        if ( out != null )
+        {
+            return;
+        }
+
+        out = new ThreadOutput( System.out );
+        err = new ThreadOutput( System.err );
+        System.setOut( new PrintStream( out, true ) );
+        System.setErr( new PrintStream( err, true ) );
+    }
+
+    private static void restore( ThreadOutput output, OutputStream previous )
+    {
+        if ( previous == null )
+        {
+            output.target.remove();
+        }
+        else
+        {
+            output.target.set( previous );
+        }
+    }
+
+    private OutputStream stream()
+    {
+        OutputStream stream = target.get();
+        return stream == null ? original : stream;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * <p>
+ * Usage text of a params class, laid out once and cached in its {@link ParamSchema}. Only the echo of values given
+ * on the command-line is rendered per call.
+ * </p>
+ * <p>
+ * Lines are wrapped to the terminal width taken from the COLUMNS environment variable, 80 if it is not set.
+ * </p>
+ */
+final class UsageLayout
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final int DEFAULT_WIDTH = 80;
+    private static final int MIN_WRAP = 20;
+    private static final String INDENT = "    ";
+
+    private final String header;
+    private final String[] names;
+    private final String[] lines;
+    private final String footer;
+
+    // ============================================================
+    // Constructors
+    // ============================================================
+
+    UsageLayout( String scriptName, ParamSchema schema, List<CommandIndex.Command> commands, int width )
+    {
+        List<ParamDescriptor> visible = new ArrayList<>();
+        for ( ParamDescriptor param : schema.getDescriptors() )
+        {
+            if ( !param.isHidden() )
+            {
+                visible.add( param );
+            }
+        }
+
+        //
+        // Synopsis.
+        //
+        int maxArgLength = 12;
+        StringBuilder text = new StringBuilder( "\nUsage:\n" );
+        int lineStart = text.length();
+        text.append( INDENT ).append( scriptName ).append( " [--prompt]" );
+        int synopsisIndent = INDENT.length() + scriptName.length() + 1;
+        for ( ParamDescriptor param : visible )
+        {
+            String token = param.isRequired() ? "--" + param.getName() + "=" + param.getName()
+                : "[--" + param.getName() + "=" + param.getName() + "]";
+            if ( text.length() - lineStart + 1 + token.length() > width )
+            {
+                text.append( '\n' );
+                lineStart = text.length();
+                pad( text, synopsisIndent );
+            }
+            else
+            {
+                text.append( ' ' );
+            }
+            text.append( token );
+
+            maxArgLength = Math.max( maxArgLength, param.getName().length() + ( param.isRequired() ? 2 : 0 ) );
+        }
+        maxArgLength += 2;
+        text.append( '\n' ).append( INDENT ).append( scriptName ).append( " --help|-h|-? \n" );
+
+        //
+        // Named commands.
+        //
+        if ( !commands.isEmpty() )
+        {
+            text.append( INDENT ).append( scriptName ).append( " <command> --help\n" );
+            text.append( "\nCommands:" );
+            int maxNameLength = 12;
+            for ( CommandIndex.Command command : commands )
+            {
+                maxNameLength = Math.max( maxNameLength, command.getName().length() );
+            }
+            for ( CommandIndex.Command command : commands )
+            {
+                appendRow( text, command.getName(), maxNameLength + 2, command.getDescription(), width );
+            }
+        }
+        header = text.toString();
+
+        //
+        // One line per parameter.
+        //
+        names = new String[visible.size()];
+        lines = new String[visible.size()];
+        for ( int i = 0; i < visible.size(); i++ )
+        {
+            ParamDescriptor param = visible.get( i );
+            String value = param.isRequired() ? param.getName() : "[" + param.getName() + "]";
+            text.setLength( 0 );
+            appendRow( text, "--" + value, maxArgLength, param.getDescription(), width );
+            names[i] = param.getName();
+            lines[i] = text.toString();
+        }
+
+        text.setLength( 0 );
+        text.append( '\n' );
+        appendRow( text, "--prompt", maxArgLength, "Prompt user for unspecified parameters on command line", width );
+        appendRow( text, "--help, -h, -?", maxArgLength, "Display this help", width );
+        text.append( "\n\n" );
+        footer = text.toString();
+    }
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // package
+    // ----------
+
+    /**
+     * Terminal width of the current {@link RunletContext}.
+     */
+    static int getTerminalWidth()
+    {
+        String columns = RunletContext.current().getEnv().get( "COLUMNS" );
+        if ( columns != null )
+        {
+            try
+            {
+                return Math.max( Integer.parseInt( columns.trim() ), MIN_WRAP * 2 );
+            }
+            catch ( NumberFormatException ex )
+            {
+                // fall back to default
+            }
+        }
+        return DEFAULT_WIDTH;
+    }
+
+    void write( Writer out, ParamValues values )
+        throws IOException
+    {
+        out.write( header );
+        for ( int i = 0; i < lines.length; i++ )
+        {
+            out.write( lines[i] );
+
+            // include given values if any were provided
+            CharSequence value = values.get( names[i] );
+            if ( value != null )
+            {
+                out.write( "    [value='" );
+                out.append( value );
+                out.write( "']" );
+            }
+        }
+        out.write( footer );
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    /**
+     * A new line with the label padded to the column width, followed by the text wrapped to the width.
+     */
+    private static void appendRow( StringBuilder text, String label, int labelWidth, String description, int width )
+    {
+        text.append( '\n' ).append( INDENT ).append( label );
+        pad( text, labelWidth - label.length() );
+        text.append( INDENT );
+
+        int column = INDENT.length() + Math.max( labelWidth, label.length() ) + INDENT.length();
+        int wrap = Math.max( MIN_WRAP, width - column );
+        int lineLength = 0;
+        for ( String word : description.split( " " ) )
+        {
+            if ( lineLength > 0 && lineLength + 1 + word.length() > wrap )
+            {
+                text.append( '\n' );
+                pad( text, column );
+                lineLength = 0;
+            }
+            else if ( lineLength > 0 )
+            {
+                text.append( ' ' );
+                lineLength++;
+            }
+            text.append( word );
+            lineLength += word.length();
+        }
+    }
+
+    private static void pad( StringBuilder text, int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            text.append( ' ' );
+        }
+    }
+}
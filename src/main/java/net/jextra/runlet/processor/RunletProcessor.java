@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet.processor;
+
+import java.io.*;
+import java.util.*;
+import javax.annotation.processing.*;
+import javax.lang.model.*;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.*;
+import javax.tools.*;
+import net.jextra.runlet.*;
+
+/**
+ * <p>
+ * Annotation processor that generates reflection-free binders for {@link ParamField} classes and command invokers for
+ * runlets with a {@link RunletCommand} method.
+ * </p>
+ * <p>
+ * For each params class a {@link GeneratedParams} is generated that sets fields by direct access with a switch on the
+ * parameter name. For each runlet a {@link GeneratedCommand} is generated that calls the command method directly. Any
+ * field or method that cannot be reached from generated code (e.g. private members) is left to the reflective path at
+ * runtime.
+ * </p>
+ * <p>
+ * The processor is not registered in META-INF/services, so putting the runlet jar on the compile classpath does not run
+ * it on every compile of every consumer. Enable it where wanted, e.g. with Maven:
+ * </p>
+ * <pre>
+ * &lt;annotationProcessorPaths&gt;
+ *     &lt;path&gt;
+ *         &lt;groupId&gt;net.jextra&lt;/groupId&gt;
+ *         &lt;artifactId&gt;runlet&lt;/artifactId&gt;
+ *         &lt;version&gt;${runlet.version}&lt;/version&gt;
+ *     &lt;/path&gt;
+ * &lt;/annotationProcessorPaths&gt;
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;net.jextra.runlet.processor.RunletProcessor&lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ * </pre>
+ * <p>
+ * or with plain javac, <code>-processor net.jextra.runlet.processor.RunletProcessor</code>. Without it everything
+ * works through the reflective path.
+ * </p>
+ */
+@SupportedAnnotationTypes( { "net.jextra.runlet.ParamField", "net.jextra.runlet.RunletCommand" } )
+public class RunletProcessor extends AbstractProcessor
+{
+    // ============================================================
+    // Fields
+    // ============================================================
+
+    private static final String INDENT = "    ";
+
+    private final Set<String> generated = new HashSet<>();
+
+    // ============================================================
+    // Methods
+    // ============================================================
+
+    // ----------
+    // public
+    // ----------
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process( Set<? extends TypeElement> annotations, RoundEnvironment roundEnv )
+    {
+        Set<TypeElement> paramsClasses = new LinkedHashSet<>();
+        for ( Element element : roundEnv.getElementsAnnotatedWith( ParamField.class ) )
+        {
+            if ( element.getKind() == ElementKind.FIELD )
+            {
+                paramsClasses.add( (TypeElement) element.getEnclosingElement() );
+            }
+        }
+
+        Set<TypeElement> runletClasses = new LinkedHashSet<>();
+        for ( Element element : roundEnv.getElementsAnnotatedWith( RunletCommand.class ) )
+        {
+            if ( element.getKind() == ElementKind.METHOD )
+            {
+                runletClasses.add( (TypeElement) element.getEnclosingElement() );
+            }
+        }
+
+        try
+        {
+            for ( TypeElement type : paramsClasses )
+            {
+                generateParams( type );
+            }
+
+            for ( TypeElement type : runletClasses )
+            {
+                generateCommand( type );
+            }
+        }
+        catch ( IOException ex )
+        {
+            processingEnv.getMessager().printMessage( Diagnostic.Kind.ERROR, "Unable to generate runlet sources: " + ex.getMessage() );
+        }
+
+        // never claim the annotations, they are also used at runtime
+        return false;
+    }
+
+    // ----------
+    // private
+    // ----------
+
+    private void generateParams( TypeElement type )
+        throws IOException
+    {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf( type );
+        if ( !isAccessible( type, pkg ) )
+        {
+            return;
+        }
+
+        Set<String> names = new HashSet<>();
+        StringBuilder cases = new StringBuilder();
+        for ( TypeElement cls = type; cls != null; cls = getSuperclass( cls ) )
+        {
+            for ( VariableElement field : ElementFilter.fieldsIn( cls.getEnclosedElements() ) )
+            {
+                ParamField ann = field.getAnnotation( ParamField.class );
+                if ( ann == null )
+                {
+                    continue;
+                }
+
+                if ( !names.add( ann.value() ) )
+                {
+                    // the runtime reports the duplicate when the schema is built
+                    processingEnv.getMessager()
+                        .printMessage( Diagnostic.Kind.WARNING, "Duplicate ParamField fieldName '" + ann.value() + "'", field );
+                    return;
+                }
+
+                String coercion = getCoercion( field.asType() );
+                if ( coercion == null || !isAccessible( field, cls, pkg ) )
+                {
+                    continue;
+                }
+
+                cases.append( INDENT ).append( INDENT ).append( INDENT ).append( "case " )
+                    .append( processingEnv.getElementUtils().getConstantExpression( ann.value() ) ).append( ":\n" );
+                cases.append( INDENT ).append( INDENT ).append( INDENT ).append( INDENT ).append( "( (" ).append( cls.getQualifiedName() )
+                    .append( ") params )." ).append( field.getSimpleName() ).append( " = " ).append( coercion ).append( ";\n" );
+                cases.append( INDENT ).append( INDENT ).append( INDENT ).append( INDENT ).append( "return true;\n" );
+            }
+        }
+
+        if ( cases.length() == 0 )
+        {
+            return;
+        }
+
+        String className = getGeneratedName( type, GeneratedParams.SUFFIX );
+        if ( !generated.add( pkg.getQualifiedName() + "." + className ) )
+        {
+            return;
+        }
+
+        StringBuilder source = new StringBuilder();
+        appendHeader( source, pkg, className, GeneratedParams.class );
+        source.append( INDENT ).append( "@Override\n" );
+        source.append( INDENT ).append( "public boolean setValue( Object params, String name, CharSequence value )\n" );
+        source.append( INDENT ).append( INDENT ).append( "throws Exception\n" );
+        source.append( INDENT ).append( "{\n" );
+        source.append( INDENT ).append( INDENT ).append( "if ( value == null )\n" );
+        source.append( INDENT ).append( INDENT ).append( "{\n" );
+        source.append( INDENT ).append( INDENT ).append( INDENT ).append( "return false;\n" );
+        source.append( INDENT ).append( INDENT ).append( "}\n\n" );
+        source.append( INDENT ).append( INDENT ).append( "switch ( name )\n" );
+        source.append( INDENT ).append( INDENT ).append( "{\n" );
+        source.append( cases );
+        source.append( INDENT ).append( INDENT ).append( INDENT ).append( "default:\n" );
+        source.append( INDENT ).append( INDENT ).append( INDENT ).append( INDENT ).append( "return false;\n" );
+        source.append( INDENT ).append( INDENT ).append( "}\n" );
+        source.append( INDENT ).append( "}\n" );
+        source.append( "}\n" );
+
+        write( pkg, className, source, type );
+    }
+
+    private void generateCommand( TypeElement type )
+        throws IOException
+    {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf( type );
+        if ( !isAccessible( type, pkg ) )
+        {
+            return;
+        }
+
+        //
+        // Mirror RunletFactory.findCommand: all annotated methods plus the first no-arg "execute" method.
+        //
+        Map<ExecutableElement, TypeElement> commands = new LinkedHashMap<>();
+        for ( TypeElement cls = type; cls != null; cls = getSuperclass( cls ) )
+        {
+            for ( ExecutableElement method : ElementFilter.methodsIn( cls.getEnclosedElements() ) )
+            {
+                if ( method.getAnnotation( RunletCommand.class ) != null )
+                {
+                    commands.put( method, cls );
+                }
+            }
+        }
+        for ( TypeElement cls = type; cls != null; cls = getSuperclass( cls ) )
+        {
+            ExecutableElement execute = findExecute( cls );
+            if ( execute != null )
+            {
+                commands.put( execute, cls );
+                break;
+            }
+        }
+
+        // ambiguous commands are reported by the runtime
+        if ( commands.size() != 1 )
+        {
+            return;
+        }
+
+        // named commands, and commands with injected arguments or a result to await, are dispatched by RunletFactory
+        ExecutableElement method = commands.keySet().iterator().next();
+        TypeElement cls = commands.get( method );
+        RunletCommand command = method.getAnnotation( RunletCommand.class );
+        if ( ( command != null && !command.value().isEmpty() ) || !method.getParameters().isEmpty()
+            || method.getReturnType().getKind() != TypeKind.VOID || !isAccessible( method, cls, pkg ) || !throwsOnlyExceptions( method ) )
+        {
+            return;
+        }
+
+        String className = getGeneratedName( type, GeneratedCommand.SUFFIX );
+        if ( !generated.add( pkg.getQualifiedName() + "." + className ) )
+        {
+            return;
+        }
+
+        StringBuilder source = new StringBuilder();
+        appendHeader( source, pkg, className, GeneratedCommand.class );
+        source.append( INDENT ).append( "@Override\n" );
+        source.append( INDENT ).append( "public void execute( Object runlet )\n" );
+        source.append( INDENT ).append( INDENT ).append( "throws Exception\n" );
+        source.append( INDENT ).append( "{\n" );
+        source.append( INDENT ).append( INDENT );
+        if ( method.getModifiers().contains( Modifier.STATIC ) )
+        {
+            source.append( cls.getQualifiedName() );
+        }
+        else
+        {
+            source.append( "( (" ).append( cls.getQualifiedName() ).append( ") runlet )" );
+        }
+        source.append( "." ).append( method.getSimpleName() ).append( "();\n" );
+        source.append( INDENT ).append( "}\n" );
+        source.append( "}\n" );
+
+        write( pkg, className, source, type );
+    }
+
+    private void appendHeader( StringBuilder source, PackageElement pkg, String className, Class<?> iface )
+    {
+        source.append( "// Generated by " ).append( RunletProcessor.class.getName() ).append( ". Do not edit.\n" );
+        if ( !pkg.isUnnamed() )
+        {
+            source.append( "package " ).append( pkg.getQualifiedName() ).append( ";\n" );
+        }
+        source.append( "\n" );
+        source.append( "public final class " ).append( className ).append( " implements " ).append( iface.getName() ).append( "\n" );
+        source.append( "{\n" );
+    }
+
+    private void write( PackageElement pkg, String className, StringBuilder source, TypeElement origin )
+        throws IOException
+    {
+        String qualifiedName = pkg.isUnnamed() ? className : pkg.getQualifiedName() + "." + className;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile( qualifiedName, origin );
+        try ( Writer writer = file.openWriter() )
+        {
+            writer.write( source.toString() );
+        }
+    }
+
+    /**
+     * Generated classes are named after the binary name of the class (without package) so they can be found at runtime
+     * with Class.forName.
+     */
+    private String getGeneratedName( TypeElement type, String suffix )
+    {
+        String binaryName = processingEnv.getElementUtils().getBinaryName( type ).toString();
+        return binaryName.substring( binaryName.lastIndexOf( '.' ) + 1 ) + suffix;
+    }
+
+    private TypeElement getSuperclass( TypeElement type )
+    {
+        TypeMirror superclass = type.getSuperclass();
+        if ( superclass.getKind() != TypeKind.DECLARED )
+        {
+            return null;
+        }
+
+        TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement( superclass );
+        if ( element.getQualifiedName().contentEquals( Object.class.getName() ) )
+        {
+            return null;
+        }
+
+        return element;
+    }
+
+    private ExecutableElement findExecute( TypeElement cls )
+    {
+        for ( ExecutableElement method : ElementFilter.methodsIn( cls.getEnclosedElements() ) )
+        {
+            if ( method.getSimpleName().contentEquals( "execute" ) && method.getParameters().isEmpty() )
+            {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Java source expression that coerces the String "value" to the given type, or null if the type is left to
+     * StringCoercer at runtime.
+     */
+    private String getCoercion( TypeMirror type )
+    {
+        switch ( type.getKind() )
+        {
+            case BOOLEAN:
+                return "net.jextra.runlet.StringCoercer.parseBooleanRange( value, 0, value.length() )";
+            case BYTE:
+                return "Byte.parseByte( value.toString() )";
+            case SHORT:
+                return "Short.parseShort( value.toString() )";
+            case INT:
+                return "net.jextra.runlet.StringCoercer.parseIntRange( value, 0, value.length() )";
+            case LONG:
+                return "net.jextra.runlet.StringCoercer.parseLongRange( value, 0, value.length() )";
+            case FLOAT:
+                return "Float.parseFloat( value.toString() )";
+            case DOUBLE:
+                return "net.jextra.runlet.StringCoercer.parseDoubleRange( value, 0, value.length() )";
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+
+        String name = ( (TypeElement) processingEnv.getTypeUtils().asElement( type ) ).getQualifiedName().toString();
+        switch ( name )
+        {
+            case "java.lang.String":
+                return "value.toString()";
+            case "java.lang.Boolean":
+                return "Boolean.valueOf( net.jextra.runlet.StringCoercer.parseBooleanRange( value, 0, value.length() ) )";
+            case "java.lang.Byte":
+                return "Byte.valueOf( value.toString() )";
+            case "java.lang.Short":
+                return "Short.valueOf( value.toString() )";
+            case "java.lang.Integer":
+                return "Integer.valueOf( net.jextra.runlet.StringCoercer.parseIntRange( value, 0, value.length() ) )";
+            case "java.lang.Long":
+                return "Long.valueOf( net.jextra.runlet.StringCoercer.parseLongRange( value, 0, value.length() ) )";
+            case "java.lang.Float":
+                return "Float.valueOf( value.toString() )";
+            case "java.lang.Double":
+                return "Double.valueOf( net.jextra.runlet.StringCoercer.parseDoubleRange( value, 0, value.length() ) )";
+            case "java.io.File":
+                return "net.jextra.runlet.RunletContext.current().resolveFile( value.toString() )";
+            case "java.util.UUID":
+                return "java.util.UUID.fromString( value.toString() )";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * True if the type can be referenced from a class in the given package.
+     */
+    private boolean isAccessible( TypeElement type, PackageElement pkg )
+    {
+        for ( Element element = type; element instanceof TypeElement; element = element.getEnclosingElement() )
+        {
+            NestingKind nesting = ( (TypeElement) element ).getNestingKind();
+            if ( nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS )
+            {
+                return false;
+            }
+
+            if ( !isVisible( element, pkg ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * True if the member and its declaring class can be referenced from a class in the given package.
+     */
+    private boolean isAccessible( Element member, TypeElement declaringClass, PackageElement pkg )
+    {
+        if ( member.getKind() == ElementKind.FIELD && ( member.getModifiers().contains( Modifier.STATIC ) ||
+            member.getModifiers().contains( Modifier.FINAL ) ) )
+        {
+            return false;
+        }
+
+        return isVisible( member, pkg ) && isAccessible( declaringClass, pkg );
+    }
+
+    private boolean isVisible( Element element, PackageElement pkg )
+    {
+        Set<Modifier> modifiers = element.getModifiers();
+        if ( modifiers.contains( Modifier.PRIVATE ) )
+        {
+            return false;
+        }
+
+        return modifiers.contains( Modifier.PUBLIC ) || processingEnv.getElementUtils().getPackageOf( element ).equals( pkg );
+    }
+
+    private boolean throwsOnlyExceptions( ExecutableElement method )
+    {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror exception = processingEnv.getElementUtils().getTypeElement( Exception.class.getName() ).asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement( Error.class.getName() ).asType();
+        for ( TypeMirror thrown : method.getThrownTypes() )
+        {
+            if ( !types.isAssignable( thrown, exception ) && !types.isAssignable( thrown, error ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.nio.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class ArgFileTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_tokenize()
+    {
+        List<CharSequence> args = new ArrayList<>();
+        String text = "# comment --x\n--a=1  --b='two words'\t\"q\\\"uote\"\r\n--c=café plain";
+        ArgFile.tokenize( ByteBuffer.wrap( text.getBytes( StandardCharsets.UTF_8 ) ), args );
+
+        List<String> strings = new ArrayList<>();
+        for ( CharSequence arg : args )
+        {
+            strings.add( arg.toString() );
+        }
+        Assert.assertEquals( Arrays.asList( "--a=1", "--b=two words", "q\"uote", "--c=café", "plain" ), strings );
+        Assert.assertFalse( args.get( 0 ) instanceof String );
+    }
+
+    @Test
+    public void test_process_args_expands_file()
+        throws Exception
+    {
+        StringBuilder text = new StringBuilder( "--ids=" );
+        for ( int i = 0; i < 10000; i++ )
+        {
+            text.append( i ).append( ',' );
+        }
+        text.append( "\n--name \"from file\"\n" );
+        Path file = folder.getRoot().toPath().resolve( "args.txt" );
+        Files.write( file, text.toString().getBytes( StandardCharsets.UTF_8 ) );
+
+        MultiValuesTest.TestParams params = new MultiValuesTest.TestParams();
+        RunletFactory factory = new RunletFactory( new Object(), params );
+        Assert.assertTrue( factory.processArgs( new String[] { "--ids=-1", "@" + file, "--raw=@@literal" } ) );
+
+        Assert.assertEquals( 10001, params.ids.length );
+        Assert.assertEquals( -1, params.ids[0] );
+        Assert.assertEquals( 9999, params.ids[10000] );
+        Assert.assertEquals( "from file", params.name );
+        Assert.assertEquals( Collections.singletonList( "@@literal" ), params.raw );
+    }
+
+    @Test
+    public void test_escaped_at()
+    {
+        Assert.assertEquals( Arrays.<CharSequence>asList( "@x", "a@b" ), ArgFile.expand( new String[] { "@@x", "a@b" } ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_missing_file()
+    {
+        ArgFile.expand( new String[] { "@" + folder.getRoot() + "/missing.txt" } );
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import org.junit.*;
+
+public class ArgTokenizerTest
+{
+    @Test
+    public void test_scan_kinds()
+        throws Exception
+    {
+        ArgTokenizer tokenizer = new ArgTokenizer();
+        Assert.assertEquals( ArgTokenizer.Kind.EMPTY, tokenizer.scan( null ) );
+        Assert.assertEquals( ArgTokenizer.Kind.EMPTY, tokenizer.scan( "  " ) );
+        Assert.assertEquals( ArgTokenizer.Kind.PROMPT, tokenizer.scan( "--prompt" ) );
+        Assert.assertEquals( ArgTokenizer.Kind.HELP, tokenizer.scan( "--help" ) );
+        Assert.assertEquals( ArgTokenizer.Kind.HELP, tokenizer.scan( "-h" ) );
+        Assert.assertEquals( ArgTokenizer.Kind.HELP, tokenizer.scan( "-?" ) );
+        Assert.assertEquals( ArgTokenizer.Kind.FLAG, tokenizer.scan( "--verbose" ) );
+        Assert.assertEquals( ArgTokenizer.Kind.UNKNOWN, tokenizer.scan( "-x" ) );
+        Assert.assertEquals( ArgTokenizer.Kind.UNKNOWN, tokenizer.scan( "value" ) );
+    }
+
+    @Test
+    public void test_scan_param()
+        throws Exception
+    {
+        ArgTokenizer tokenizer = new ArgTokenizer();
+        Assert.assertEquals( ArgTokenizer.Kind.PARAM, tokenizer.scan( "--name=a=b" ) );
+        Assert.assertTrue( tokenizer.nameMatches( "name" ) );
+        Assert.assertEquals( "name", tokenizer.getName() );
+        Assert.assertEquals( "a=b", tokenizer.getValue() );
+
+        Assert.assertEquals( ArgTokenizer.Kind.PARAM, tokenizer.scan( "--prompt=" ) );
+        Assert.assertEquals( "prompt", tokenizer.getName() );
+        Assert.assertEquals( "", tokenizer.getValue() );
+    }
+
+    @Test
+    public void test_processArgs_separate_value_and_flag()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        RunletFactory factory = new RunletFactory( new Object(), params );
+        Assert.assertTrue( factory.processArgs( new String[] { "--name", "foo", "--verbose", "--offset", "-5" } ) );
+        Assert.assertEquals( "foo", params.name );
+        Assert.assertTrue( params.verbose );
+        Assert.assertEquals( -5, params.offset );
+    }
+
+    static class TestParams
+    {
+        @ParamField( "name" )
+        private String name;
+
+        @ParamField( value = "verbose", required = false )
+        private boolean verbose;
+
+        @ParamField( value = "offset", required = false )
+        private int offset;
+    }
+}
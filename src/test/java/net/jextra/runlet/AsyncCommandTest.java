@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import org.junit.*;
+
+public class AsyncCommandTest
+{
+    @Test
+    public void test_future_result()
+        throws Exception
+    {
+        FutureRunlet runlet = new FutureRunlet();
+        RunletFactory factory = new RunletFactory( runlet, null );
+        Assert.assertTrue( factory.processArgs( new String[] { "ok" } ) );
+        factory.execute();
+        Assert.assertEquals( "done", runlet.result.get() );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void test_future_failure_rethrown()
+        throws Exception
+    {
+        RunletFactory factory = new RunletFactory( new FutureRunlet(), null );
+        Assert.assertTrue( factory.processArgs( new String[] { "fail" } ) );
+        factory.execute();
+    }
+
+    @Test
+    public void test_injected_and_drained()
+        throws Exception
+    {
+        FutureRunlet runlet = new FutureRunlet();
+        Assert.assertEquals( 0, RunletFactory.run( runlet, null, new String[] { "inject" } ) );
+        Assert.assertNotNull( runlet.token );
+        Assert.assertFalse( runlet.token.isCancelled() );
+        Assert.assertNotSame( Thread.currentThread(), runlet.thread );
+
+        // the task left running on the executor finished before execute returned
+        Assert.assertEquals( "background", runlet.result.get() );
+    }
+
+    @Test( timeout = 10000 )
+    public void test_command_not_on_injected_pool()
+        throws Exception
+    {
+        // every pool thread is needed at once, which deadlocks if the command itself holds one
+        FutureRunlet runlet = new FutureRunlet();
+        Assert.assertEquals( 0, RunletFactory.run( runlet, null, new String[] { "saturate" } ) );
+        Assert.assertEquals( "saturated", runlet.result.get() );
+    }
+
+    @Test
+    public void test_token()
+    {
+        CancellationToken token = new CancellationToken();
+        AtomicInteger calls = new AtomicInteger();
+        token.onCancel( calls::incrementAndGet );
+        token.throwIfCancelled();
+
+        token.cancel();
+        token.cancel();
+        Assert.assertTrue( token.isCancelled() );
+        Assert.assertEquals( 1, calls.get() );
+
+        token.onCancel( calls::incrementAndGet );
+        Assert.assertEquals( 2, calls.get() );
+        try
+        {
+            token.throwIfCancelled();
+            Assert.fail();
+        }
+        catch ( CancellationException ex )
+        {
+            // expected
+        }
+    }
+
+    public static class FutureRunlet
+    {
+        final AtomicReference<String> result = new AtomicReference<>();
+        volatile CancellationToken token;
+        volatile Thread thread;
+
+        @RunletCommand( "ok" )
+        public CompletableFuture<String> ok()
+        {
+            return CompletableFuture.supplyAsync( () -> "done" ).thenApply( value -> {
+                result.set( value );
+                return value;
+            } );
+        }
+
+        @RunletCommand( "fail" )
+        public CompletableFuture<Void> fail()
+        {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally( new IllegalStateException( "failed" ) );
+            return future;
+        }
+
+        @RunletCommand( "saturate" )
+        public void saturate( ExecutorService executor )
+            throws Exception
+        {
+            int count = Runtime.getRuntime().availableProcessors();
+            CountDownLatch latch = new CountDownLatch( count );
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < count; i++ )
+            {
+                futures.add( executor.submit( () -> {
+                    latch.countDown();
+                    latch.await();
+                    return null;
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+            result.set( "saturated" );
+        }
+
+        @RunletCommand( "inject" )
+        public void inject( CancellationToken token, ExecutorService executor )
+        {
+            this.token = token;
+            thread = Thread.currentThread();
+            executor.execute( () -> {
+                try
+                {
+                    Thread.sleep( 50 );
+                }
+                catch ( InterruptedException ex )
+                {
+                    return;
+                }
+                result.set( "background" );
+            } );
+        }
+    }
+}
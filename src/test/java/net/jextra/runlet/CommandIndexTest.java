@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.reflect.*;
+import org.junit.*;
+
+public class CommandIndexTest
+{
+    @Test
+    public void test_named_commands()
+        throws Exception
+    {
+        ToolRunlet runlet = new ToolRunlet();
+        Assert.assertEquals( 0, RunletFactory.run( runlet, null, new String[] { "import", "--file=a.csv" } ) );
+        Assert.assertEquals( "import a.csv", runlet.ran );
+
+        Assert.assertEquals( 0, RunletFactory.run( runlet, null, new String[] { "export", "--format=json", "--limit=3" } ) );
+        Assert.assertEquals( "export json 3", runlet.ran );
+
+        Assert.assertEquals( 0, RunletFactory.run( runlet, null, new String[] { "status" } ) );
+        Assert.assertEquals( "status", runlet.ran );
+    }
+
+    @Test
+    public void test_missing_or_unknown_command()
+    {
+        ToolRunlet runlet = new ToolRunlet();
+        Assert.assertEquals( 1, RunletFactory.run( runlet, null, new String[0] ) );
+        Assert.assertEquals( 1, RunletFactory.run( runlet, null, new String[] { "imprt" } ) );
+        Assert.assertEquals( 1, RunletFactory.run( runlet, null, new String[] { "import" } ) );
+        Assert.assertNull( runlet.ran );
+    }
+
+    @Test
+    public void test_default_command_with_named()
+        throws Exception
+    {
+        DefaultRunlet runlet = new DefaultRunlet();
+        Assert.assertEquals( 0, RunletFactory.run( runlet, null, new String[0] ) );
+        Assert.assertEquals( "default", runlet.ran );
+        Assert.assertEquals( 0, RunletFactory.run( runlet, null, new String[] { "other" } ) );
+        Assert.assertEquals( "other", runlet.ran );
+    }
+
+    @Test
+    public void test_find_command_override()
+        throws Exception
+    {
+        DefaultRunlet runlet = new DefaultRunlet();
+        RunletFactory factory = new RunletFactory( runlet, null )
+        {
+            @Override
+            protected Method findCommand()
+                throws Exception
+            {
+                return DefaultRunlet.class.getMethod( "other" );
+            }
+        };
+        Assert.assertTrue( factory.processArgs( new String[0] ) );
+        factory.execute();
+        Assert.assertEquals( "other", runlet.ran );
+    }
+
+    @Test
+    public void test_index_cached()
+    {
+        CommandIndex index = CommandIndex.of( ToolRunlet.class );
+        Assert.assertSame( index, CommandIndex.of( ToolRunlet.class ) );
+        Assert.assertFalse( index.hasDefaultCommand() );
+        Assert.assertEquals( 3, index.getNamedCommands().size() );
+        Assert.assertEquals( ImportParams.class, index.getCommand( "import" ).getParamsType() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_duplicate_name()
+    {
+        CommandIndex.of( DuplicateRunlet.class );
+    }
+
+    public static class ImportParams
+    {
+        @ParamField( "file" )
+        String file;
+    }
+
+    public static class ExportParams
+    {
+        @ParamField( "format" )
+        String format;
+
+        @ParamField( value = "limit", required = false )
+        int limit;
+    }
+
+    public static class ToolRunlet
+    {
+        String ran;
+
+        @RunletCommand( value = "import", description = "Import a file" )
+        void doImport( ImportParams params )
+        {
+            ran = "import " + params.file;
+        }
+
+        @RunletCommand( "export" )
+        private void doExport( ExportParams params )
+        {
+            ran = "export " + params.format + " " + params.limit;
+        }
+
+        @RunletCommand( "status" )
+        public void status()
+        {
+            ran = "status";
+        }
+    }
+
+    public static class DefaultRunlet
+    {
+        String ran;
+
+        public void execute()
+        {
+            ran = "default";
+        }
+
+        @RunletCommand( "other" )
+        public void other()
+        {
+            ran = "other";
+        }
+    }
+
+    public static class DuplicateRunlet
+    {
+        @RunletCommand( "a" )
+        public void first()
+        {
+        }
+
+        @RunletCommand( "a" )
+        public void second()
+        {
+        }
+    }
+}
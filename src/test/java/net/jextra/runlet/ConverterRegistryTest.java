@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.math.*;
+import java.time.*;
+import java.util.*;
+import org.junit.*;
+
+public class ConverterRegistryTest
+{
+    @Test
+    public void test_lookup_cached()
+        throws Exception
+    {
+        ConverterRegistry registry = new ConverterRegistry();
+        Assert.assertSame( registry.lookup( TimeUnitLike.class ), registry.lookup( TimeUnitLike.class ) );
+        Assert.assertNull( registry.lookup( Object.class ) );
+    }
+
+    @Test
+    public void test_enum()
+        throws Exception
+    {
+        ConverterRegistry registry = new ConverterRegistry();
+        Assert.assertEquals( TimeUnitLike.SECONDS, registry.lookup( TimeUnitLike.class ).convert( "SECONDS" ) );
+        Assert.assertEquals( TimeUnitLike.MINUTES, registry.lookup( TimeUnitLike.class ).convert( "minutes" ) );
+    }
+
+    @Test
+    public void test_factory_method_and_constructor()
+        throws Exception
+    {
+        ConverterRegistry registry = new ConverterRegistry();
+        Assert.assertEquals( Duration.ofMinutes( 5 ), registry.lookup( Duration.class ).convert( "PT5M" ) );
+        Assert.assertEquals( new BigDecimal( "1.50" ), registry.lookup( BigDecimal.class ).convert( "1.50" ) );
+        Assert.assertEquals( "abc", registry.lookup( Wrapper.class ).convert( "abc" ).toString() );
+    }
+
+    @Test
+    public void test_register()
+        throws Exception
+    {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.register( Locale.class, Locale::forLanguageTag );
+        Assert.assertEquals( Locale.CANADA_FRENCH, registry.lookup( Locale.class ).convert( "fr-CA" ) );
+    }
+
+    @Test
+    public void test_service_provider()
+        throws Exception
+    {
+        Assert.assertEquals( "[x]", StringCoercer.fromString( "x", Bracketed.class ).toString() );
+    }
+
+    @Test
+    public void test_setValues_custom_type()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        Map<String, String> values = new HashMap<>();
+        values.put( "unit", "SECONDS" );
+        values.put( "amount", "2.25" );
+        new ParamFields( params ).setValues( values );
+        Assert.assertEquals( TimeUnitLike.SECONDS, params.unit );
+        Assert.assertEquals( new BigDecimal( "2.25" ), params.amount );
+    }
+
+    enum TimeUnitLike
+    {
+        SECONDS, MINUTES
+    }
+
+    static class Wrapper
+    {
+        private final String value;
+
+        private Wrapper( String value )
+        {
+            this.value = value;
+        }
+
+        public static Wrapper parse( CharSequence value )
+        {
+            return new Wrapper( value.toString() );
+        }
+
+        @Override
+        public String toString()
+        {
+            return value;
+        }
+    }
+
+    static class Bracketed
+    {
+        private final String value;
+
+        Bracketed( String value )
+        {
+            this.value = "[" + value + "]";
+        }
+
+        @Override
+        public String toString()
+        {
+            return value;
+        }
+    }
+
+    static class TestParams
+    {
+        @ParamField( "unit" )
+        private TimeUnitLike unit;
+
+        @ParamField( "amount" )
+        private BigDecimal amount;
+    }
+
+    public static class TestConverterProvider implements ConverterProvider
+    {
+        @Override
+        public void register( ConverterRegistry registry )
+        {
+            registry.register( Bracketed.class, Bracketed::new );
+        }
+    }
+}
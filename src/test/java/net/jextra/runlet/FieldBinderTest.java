@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import org.junit.*;
+
+public class FieldBinderTest
+{
+    @Test
+    public void test_primitive_setters()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        FieldBinder intBinder = FieldBinder.of( TestParams.class.getDeclaredField( "anInt" ) );
+        FieldBinder longBinder = FieldBinder.of( TestParams.class.getDeclaredField( "aLong" ) );
+        FieldBinder doubleBinder = FieldBinder.of( TestParams.class.getDeclaredField( "aDouble" ) );
+        FieldBinder booleanBinder = FieldBinder.of( TestParams.class.getDeclaredField( "aBoolean" ) );
+
+        intBinder.setInt( params, 42 );
+        longBinder.setLong( params, 1L << 40 );
+        doubleBinder.setDouble( params, 2.5 );
+        booleanBinder.setBoolean( params, true );
+
+        Assert.assertEquals( 42, params.anInt );
+        Assert.assertEquals( 1L << 40, params.aLong );
+        Assert.assertEquals( 2.5, params.aDouble, 0.0 );
+        Assert.assertTrue( params.aBoolean );
+        Assert.assertEquals( 42, intBinder.get( params ) );
+    }
+
+    @Test
+    public void test_object_setter()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        FieldBinder binder = FieldBinder.of( TestParams.class.getDeclaredField( "aString" ) );
+        binder.set( params, "foo" );
+        Assert.assertEquals( "foo", binder.get( params ) );
+    }
+
+    @Test( expected = ClassCastException.class )
+    public void test_object_setter_wrong_type()
+        throws Exception
+    {
+        FieldBinder.of( TestParams.class.getDeclaredField( "aString" ) ).set( new TestParams(), 5 );
+    }
+
+    @Test
+    public void test_final_field_fallback()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        FieldBinder binder = FieldBinder.of( TestParams.class.getDeclaredField( "aFinal" ) );
+        Assert.assertEquals( "final", binder.get( params ) );
+    }
+
+    static class TestParams
+    {
+        private int anInt;
+        private long aLong;
+        private double aDouble;
+        private boolean aBoolean;
+        private String aString;
+        private final String aFinal = "final";
+    }
+}
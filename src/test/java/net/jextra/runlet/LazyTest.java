@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import java.util.regex.*;
+import org.junit.*;
+
+public class LazyTest
+{
+    @Test
+    public void test_converted_on_first_access()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        RunletFactory factory = new RunletFactory( new Object(), params );
+        Assert.assertTrue( factory.processArgs( new String[] { "--id=7f2c2b6e-8c6b-4a0e-9b53-1f0c9f8a1d2e", "--bad=nan", "--name=x" } ) );
+
+        Assert.assertFalse( params.id.isResolved() );
+        Assert.assertEquals( "7f2c2b6e-8c6b-4a0e-9b53-1f0c9f8a1d2e", params.id.toString() );
+        UUID id = params.id.get();
+        Assert.assertTrue( params.id.isResolved() );
+        Assert.assertSame( id, params.id.get() );
+        Assert.assertEquals( "x", params.name.get() );
+
+        try
+        {
+            params.bad.get();
+            Assert.fail();
+        }
+        catch ( IllegalArgumentException ex )
+        {
+            Assert.assertTrue( ex.getMessage(), ex.getMessage().contains( "\"bad\"" ) );
+        }
+    }
+
+    @Test
+    public void test_converted_once_across_threads()
+        throws Exception
+    {
+        AtomicInteger conversions = new AtomicInteger();
+        Lazy<String> lazy = new Lazy<>( "name", "value", String.class, value ->
+        {
+            conversions.incrementAndGet();
+            Thread.sleep( 10 );
+            return value.toUpperCase();
+        } );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            List<Future<String>> futures = new ArrayList<>();
+            for ( int i = 0; i < 8; i++ )
+            {
+                futures.add( executor.submit( lazy::get ) );
+            }
+            for ( Future<String> future : futures )
+            {
+                Assert.assertEquals( "VALUE", future.get() );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        Assert.assertEquals( 1, conversions.get() );
+    }
+
+    @Test
+    public void test_pattern()
+        throws Exception
+    {
+        PatternParams params = new PatternParams();
+        Assert.assertTrue( new RunletFactory( new Object(), params ).processArgs( new String[] { "--match=a+b" } ) );
+        Assert.assertTrue( params.match.get().matcher( "aaab" ).matches() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_missing_converter_fails_schema()
+    {
+        ParamSchema.of( UnconvertibleParams.class );
+    }
+
+    public static class PatternParams
+    {
+        @ParamField( "match" )
+        Lazy<Pattern> match;
+    }
+
+    public static class UnconvertibleParams
+    {
+        @ParamField( "task" )
+        Lazy<Runnable> task;
+    }
+
+    public static class TestParams
+    {
+        @ParamField( "id" )
+        Lazy<UUID> id;
+
+        @ParamField( value = "bad", required = false )
+        Lazy<Integer> bad;
+
+        @ParamField( value = "name", required = false )
+        Supplier<String> name;
+    }
+}
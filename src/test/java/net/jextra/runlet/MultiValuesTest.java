@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+import org.junit.*;
+
+public class MultiValuesTest
+{
+    @Test
+    public void test_repeated_and_delimited()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        RunletFactory factory = new RunletFactory( new Object(), params );
+        Assert.assertTrue( factory.processArgs(
+            new String[] { "--ids=1,2,3", "--ids=4", "--ids", "-5", "--longs= 9000000000 , -1", "--doubles=1.5", "--names=a,b",
+                "--names=a", "--set=c,a,c", "--sorted=z,y", "--raw=x,y", "--name=first", "--name=last" } ) );
+
+        Assert.assertArrayEquals( new int[] { 1, 2, 3, 4, -5 }, params.ids );
+        Assert.assertArrayEquals( new long[] { 9000000000L, -1 }, params.longs );
+        Assert.assertArrayEquals( new double[] { 1.5 }, params.doubles, 0 );
+        Assert.assertArrayEquals( new String[] { "a", "b", "a" }, params.names );
+        Assert.assertEquals( Arrays.asList( "c", "a" ), new ArrayList<>( params.set ) );
+        Assert.assertEquals( Arrays.asList( "y", "z" ), new ArrayList<>( params.sorted ) );
+        Assert.assertEquals( Collections.singletonList( "x,y" ), params.raw );
+        Assert.assertEquals( "last", params.name );
+    }
+
+    @Test
+    public void test_large_array_grows()
+    {
+        StringBuilder builder = new StringBuilder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            builder.append( i ).append( ',' );
+        }
+
+        int[] values = MultiValues.parseInts( Collections.singletonList( builder ), ',' );
+        Assert.assertEquals( 100, values.length );
+        Assert.assertEquals( 99, values[99] );
+    }
+
+    @Test
+    public void test_parse_range_limits()
+    {
+        Assert.assertEquals( Long.MIN_VALUE, StringCoercer.parseLongRange( "x" + Long.MIN_VALUE, 1, 21 ) );
+        Assert.assertEquals( Integer.MAX_VALUE, StringCoercer.parseIntRange( "" + Integer.MAX_VALUE, 0, 10 ) );
+        for ( String bad : new String[] { "", "-", "1a", "2147483648", "9223372036854775808" } )
+        {
+            try
+            {
+                StringCoercer.parseIntRange( bad, 0, bad.length() );
+                Assert.fail( bad );
+            }
+            catch ( NumberFormatException ex )
+            {
+                // expected
+            }
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_bad_element()
+    {
+        ParamValues values = new ParamValues();
+        values.add( "ids", "1,x" );
+        new ParamFields( new TestParams() ).setValues( values );
+    }
+
+    @Test
+    public void test_build_args_round_trip()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        params.ids = new int[] { 7, 8 };
+        params.sorted = new TreeSet<>( Arrays.asList( "y", "z" ) );
+        params.raw = Arrays.asList( "p,q", "r" );
+        params.name = "n";
+
+        List<String> args = RunletFactory.buildArgs( Object.class, params );
+        Assert.assertTrue( args.contains( "--ids=7" ) );
+        Assert.assertTrue( args.contains( "--ids=8" ) );
+        Assert.assertTrue( args.contains( "--raw=p,q" ) );
+        Assert.assertTrue( args.contains( "--raw=r" ) );
+
+        TestParams parsed = new TestParams();
+        Assert.assertTrue( new RunletFactory( new Object(), parsed ).processArgs( args.subList( 1, args.size() ).toArray( new String[0] ) ) );
+        Assert.assertArrayEquals( params.ids, parsed.ids );
+        Assert.assertEquals( params.sorted, parsed.sorted );
+        Assert.assertEquals( params.raw, parsed.raw );
+        Assert.assertEquals( params.name, parsed.name );
+        Assert.assertNull( parsed.longs );
+    }
+
+    public static class TestParams
+    {
+        @ParamField( value = "ids", required = false )
+        int[] ids;
+
+        @ParamField( value = "longs", required = false )
+        long[] longs;
+
+        @ParamField( value = "doubles", required = false )
+        double[] doubles;
+
+        @ParamField( value = "names", required = false )
+        String[] names;
+
+        @ParamField( value = "set", required = false )
+        Set<String> set;
+
+        @ParamField( value = "sorted", required = false )
+        SortedSet<String> sorted;
+
+        @ParamField( value = "raw", required = false, delimiter = "" )
+        List<String> raw;
+
+        @ParamField( value = "name", required = false )
+        String name;
+    }
+}
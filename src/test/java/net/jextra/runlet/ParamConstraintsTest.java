@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+import net.jextra.runlet.constraint.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class ParamConstraintsTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_valid()
+        throws Exception
+    {
+        ConstrainedParams params = new ConstrainedParams();
+        params.port = 8080;
+        params.ratios = new double[] { 0, 0.5, 1 };
+        params.id = "AB-12";
+        params.modes = Arrays.asList( "fast", "SAFE" );
+        params.input = folder.getRoot();
+        params.url = "http://x";
+
+        Assert.assertEquals( Collections.emptyList(), new ParamFields( params ).validate() );
+        Assert.assertEquals( 6, ParamConstraints.of( ConstrainedParams.class ).size() );
+    }
+
+    @Test
+    public void test_all_violations()
+    {
+        ConstrainedParams params = new ConstrainedParams();
+        params.port = 0;
+        params.ratios = new double[] { 0.5, 2, -1 };
+        params.id = "ab-12";
+        params.modes = Arrays.asList( "fast", "slow" );
+        params.input = new File( folder.getRoot(), "missing" );
+
+        Assert.assertEquals( Arrays.asList( "Invalid parameter [port]: 0 is not between 1 and 65535.",
+            "Invalid parameter [ratios]: 2 is not between 0 and 1.", "Invalid parameter [ratios]: -1 is not between 0 and 1.",
+            "Invalid parameter [id]: 'ab-12' does not match [A-Z]+-\\d+.", "Invalid parameter [modes]: 'slow' is not one of fast, safe.",
+            "Invalid parameter [input]: " + params.input + " does not exist.", "One of the parameters [url, host] is required." ),
+            new ParamFields( params ).validate() );
+    }
+
+    @Test
+    public void test_process_args_reports_together()
+        throws Exception
+    {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        OutputStream[] previous = ThreadOutput.redirect( new ByteArrayOutputStream(), err );
+        boolean accepted;
+        try
+        {
+            accepted = new RunletFactory( new Object(), new ConstrainedParams() )
+                .processArgs( new String[] { "--port=99999", "--ratios=x", "--id=AB-1", "--host=h" } );
+            System.err.flush();
+        }
+        finally
+        {
+            ThreadOutput.restore( previous );
+        }
+
+        Assert.assertFalse( accepted );
+        String text = err.toString( "UTF-8" );
+        Assert.assertTrue( text, text.contains( "Missing required parameter [input]." ) );
+        Assert.assertTrue( text, text.contains( "For ParamField \"ratios\", cannot coerce" ) );
+        Assert.assertTrue( text, text.contains( "Invalid parameter [port]: 99999 is not between 1 and 65535." ) );
+    }
+
+    @Test
+    public void test_process_args_checks_only_given()
+        throws Exception
+    {
+        PrimitiveParams params = new PrimitiveParams();
+        Assert.assertTrue( new RunletFactory( new Object(), params ).processArgs( new String[] { "--port=80" } ) );
+        Assert.assertEquals( 0, params.threads );
+
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        OutputStream[] previous = ThreadOutput.redirect( new ByteArrayOutputStream(), err );
+        boolean accepted;
+        try
+        {
+            accepted = new RunletFactory( new Object(), new PrimitiveParams() ).processArgs( new String[] { "--threads=65" } );
+            System.err.flush();
+        }
+        finally
+        {
+            ThreadOutput.restore( previous );
+        }
+
+        Assert.assertFalse( accepted );
+        String text = err.toString( "UTF-8" );
+        Assert.assertTrue( text, text.contains( "Invalid parameter [threads]: 65 is not between 1 and 64." ) );
+        Assert.assertTrue( text, text.contains( "One of the parameters [port, verbose] is required." ) );
+    }
+
+    @Test
+    public void test_long_range_exact()
+    {
+        LongParams params = new LongParams();
+        params.id = ( 1L << 53 ) + 1;
+        params.ids = new long[] { 1L << 53, Long.MAX_VALUE };
+
+        Assert.assertEquals( Arrays.asList( "Invalid parameter [id]: 9007199254740993 is greater than 9007199254740992.",
+            "Invalid parameter [ids]: 9223372036854775807 is greater than 9007199254740992." ), new ParamFields( params ).validate() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_inexact_long_bound()
+    {
+        ParamConstraints.of( InexactLongParams.class );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_unknown_requires_name()
+    {
+        ParamConstraints.of( BadParams.class );
+    }
+
+    @RequiresOneOf( { "url", "host" } )
+    public static class ConstrainedParams
+    {
+        @Range( min = 1, max = 65535 )
+        @ParamField( value = "port", required = false )
+        private int port = 1;
+
+        @Range( min = 0, max = 1 )
+        @ParamField( value = "ratios", required = false )
+        private double[] ratios;
+
+        @Pattern( "[A-Z]+-\\d+" )
+        @ParamField( value = "id", required = false )
+        private String id;
+
+        @OneOf( value = { "fast", "safe" }, ignoreCase = true )
+        @ParamField( value = "modes", required = false )
+        private List<String> modes;
+
+        @Exists( directory = true )
+        @ParamField( "input" )
+        private File input;
+
+        @ParamField( value = "url", required = false )
+        private String url;
+
+        @ParamField( value = "host", required = false )
+        private String host;
+    }
+
+    @RequiresOneOf( { "port", "verbose" } )
+    public static class PrimitiveParams
+    {
+        @Range( min = 1, max = 64 )
+        @ParamField( value = "threads", required = false )
+        private int threads;
+
+        @ParamField( value = "port", required = false )
+        private int port;
+
+        @ParamField( value = "verbose", required = false )
+        private boolean verbose;
+    }
+
+    public static class LongParams
+    {
+        @Range( max = 9007199254740992d )
+        @ParamField( value = "id", required = false )
+        private Long id;
+
+        @Range( max = 9007199254740992d )
+        @ParamField( value = "ids", required = false )
+        private long[] ids;
+    }
+
+    public static class InexactLongParams
+    {
+        @Range( max = 9223372036854775806d )
+        @ParamField( "id" )
+        private long id;
+    }
+
+    @RequiresOneOf( "nope" )
+    public static class BadParams
+    {
+        @ParamField( "name" )
+        private String name;
+    }
+}
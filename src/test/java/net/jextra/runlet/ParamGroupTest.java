@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.util.*;
+import java.util.stream.*;
+import org.junit.*;
+
+public class ParamGroupTest
+{
+    @Test
+    public void test_nested_names()
+    {
+        ParamSchema schema = ParamSchema.of( ServiceParams.class );
+        List<String> names = new ArrayList<>();
+        for ( ParamDescriptor descriptor : schema.getDescriptors() )
+        {
+            names.add( descriptor.getName() );
+        }
+
+        Assert.assertEquals( Arrays.asList( "name", "db.url", "db.pool.size", "cache-size" ), names );
+        Assert.assertSame( schema.getDescriptors().get( 2 ), schema.getDescriptor( "db.pool.size" ) );
+        Assert.assertSame( schema.getDescriptors().get( 1 ), schema.getDescriptor( "--db.url=x", 2, 8 ) );
+        Assert.assertNull( schema.getDescriptor( "db" ) );
+        Assert.assertEquals( Arrays.asList( schema.getDescriptor( "db.url" ) ), schema.getRequiredDescriptors() );
+    }
+
+    @Test
+    public void test_set_values()
+        throws Exception
+    {
+        ServiceParams params = new ServiceParams();
+        RunletFactory factory = new RunletFactory( new Object(), params );
+        Assert.assertTrue( factory.processArgs( new String[] { "--db.url=jdbc:x", "--db.pool.size=8", "--unknown=1" } ) );
+
+        Assert.assertEquals( "jdbc:x", params.db.url );
+        Assert.assertEquals( 8, params.db.pool.size );
+        Assert.assertNull( params.cache );
+        Assert.assertEquals( "service", params.name );
+
+        List<String> args = RunletFactory.buildArgs( Object.class, params );
+        Assert.assertEquals( Arrays.asList( "--name=service", "--db.url=jdbc:x", "--db.pool.size=8" ), args.subList( 1, args.size() ) );
+    }
+
+    @Test
+    public void test_prefixed_separator()
+    {
+        ServiceParams params = new ServiceParams();
+        Map<String, String> values = new HashMap<>();
+        values.put( "cache-size", "64" );
+        new ParamFields( params ).setValues( values );
+        Assert.assertEquals( 64, params.cache.size );
+        Assert.assertNull( params.db );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_recursive_group()
+    {
+        ParamSchema.of( RecursiveParams.class );
+    }
+
+    @Test
+    public void test_index_many_names()
+    {
+        ParamSchema schema = ParamSchema.of( ServiceParams.class );
+        ParamIndex index = new ParamIndex( schema.getDescriptors() );
+        for ( ParamDescriptor descriptor : schema.getDescriptors() )
+        {
+            Assert.assertSame( descriptor, index.get( descriptor.getName() ) );
+        }
+        Assert.assertNull( index.get( "db.pool.siz" ) );
+        Assert.assertNull( index.get( "" ) );
+    }
+
+    @Test
+    public void test_runlet_with_group()
+        throws Exception
+    {
+        GroupRunlet runlet = new GroupRunlet();
+        Assert.assertSame( runlet, RunletFactory.findParams( runlet ) );
+
+        List<BatchResult> results = new RunletBatch( GroupRunlet::new ).run( Stream.of( new String[][] { { "--name=x", "--db.url=u" } } ) );
+        Assert.assertTrue( results.get( 0 ).toString(), results.get( 0 ).isSuccess() );
+    }
+
+    public static class GroupRunlet
+    {
+        @ParamField( "name" )
+        private String name;
+
+        @ParamGroup
+        private DbParams db;
+
+        @RunletCommand
+        public void run()
+        {
+            Assert.assertEquals( "x", name );
+            Assert.assertEquals( "u", db.url );
+        }
+    }
+
+    public static class ServiceParams
+    {
+        @ParamField( value = "name", defaultValue = "service" )
+        private String name;
+
+        @ParamGroup
+        private DbParams db;
+
+        @ParamGroup( value = "cache", separator = "-" )
+        private CacheParams cache;
+    }
+
+    public static class DbParams
+    {
+        @ParamField( "url" )
+        private String url;
+
+        @ParamGroup
+        private PoolParams pool;
+    }
+
+    public static class PoolParams
+    {
+        @ParamField( value = "size", required = false )
+        private int size;
+    }
+
+    public static class CacheParams
+    {
+        @ParamField( value = "size", required = false )
+        private int size;
+    }
+
+    public static class RecursiveParams
+    {
+        @ParamGroup
+        private RecursiveParams child;
+    }
+}
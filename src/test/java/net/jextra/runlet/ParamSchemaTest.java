@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import org.junit.*;
+
+public class ParamSchemaTest
+{
+    @Test
+    public void test_of_cached()
+        throws Exception
+    {
+        Assert.assertSame( ParamSchema.of( TestParamsSubclass.class ), ParamSchema.of( TestParamsSubclass.class ) );
+        Assert.assertSame( ParamSchema.of( TestParamsSubclass.class ), new ParamFields( new TestParamsSubclass() ).getSchema() );
+    }
+
+    @Test
+    public void test_of_order_and_flags()
+        throws Exception
+    {
+        ParamSchema schema = ParamSchema.of( TestParamsSubclass.class );
+        Assert.assertEquals( 3, schema.size() );
+        Assert.assertEquals( "child", schema.getDescriptors().get( 0 ).getName() );
+        Assert.assertEquals( "base", schema.getDescriptors().get( 1 ).getName() );
+        Assert.assertEquals( "secret", schema.getDescriptors().get( 2 ).getName() );
+
+        ParamDescriptor base = schema.getDescriptor( "base" );
+        Assert.assertEquals( int.class, base.getType() );
+        Assert.assertFalse( base.isRequired() );
+        Assert.assertEquals( "base", base.getDescription() );
+        Assert.assertTrue( schema.getDescriptor( "secret" ).isHidden() );
+    }
+
+    @Test
+    public void test_forParams_null()
+        throws Exception
+    {
+        Assert.assertEquals( 0, ParamSchema.forParams( null ).size() );
+    }
+
+    static class TestParamsBase
+    {
+        @ParamField( value = "base", required = false )
+        private int base;
+
+        @ParamField( value = "secret", hidden = true )
+        private String secret;
+    }
+
+    static class TestParamsSubclass extends TestParamsBase
+    {
+        @ParamField( value = "child", description = "A child param" )
+        private String child;
+    }
+}
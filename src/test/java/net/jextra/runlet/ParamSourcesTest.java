@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class ParamSourcesTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_chain_order()
+        throws Exception
+    {
+        Path file = folder.getRoot().toPath().resolve( "app.properties" );
+        Files.write( file, Arrays.asList( "# comment", "name = from file", "count: 3", "mode=file", "unused=x" ), StandardCharsets.UTF_8 );
+
+        Map<String, String> env = new HashMap<>();
+        env.put( "APP_MODE", "env" );
+        env.put( "APP_INPUT_FILE", "in.txt" );
+
+        System.setProperty( "test.app.count", "2" );
+        try
+        {
+            TestParams params = new TestParams();
+            RunletFactory factory = new RunletFactory( new Object(), params );
+            factory.addSource( descriptor -> env.get( ParamSources.toEnvironmentName( "APP_", descriptor.getName() ) ) );
+            factory.addSource( ParamSources.systemProperties( "test.app." ) );
+            factory.addSource( ParamSources.file( file ) );
+            Assert.assertTrue( factory.processArgs( new String[] { "--name=cli" } ) );
+
+            Assert.assertEquals( "cli", params.name );
+            Assert.assertEquals( "env", params.mode );
+            Assert.assertEquals( "in.txt", params.inputFile );
+            Assert.assertEquals( 2, params.count );
+            Assert.assertEquals( "fallback", params.other );
+        }
+        finally
+        {
+            System.clearProperty( "test.app.count" );
+        }
+    }
+
+    @Test
+    public void test_properties_syntax()
+        throws Exception
+    {
+        Path file = folder.getRoot().toPath().resolve( "app.properties" );
+        Files.write( file, Arrays.asList( "name=C:\\\\dir\\u00e9", "mode = one \\", "    two", "input\\-file\\=x" ), StandardCharsets.UTF_8 );
+
+        ParamSource source = ParamSources.file( file );
+        ParamSchema schema = ParamSchema.of( TestParams.class );
+        Assert.assertEquals( "C:\\dir\u00e9", source.getValue( schema.getDescriptor( "name" ) ) );
+        Assert.assertEquals( "one two", source.getValue( schema.getDescriptor( "mode" ) ) );
+        Assert.assertNull( source.getValue( schema.getDescriptor( "input-file" ) ) );
+    }
+
+    @Test
+    public void test_environment_name()
+    {
+        Assert.assertEquals( "APP_INPUT_FILE", ParamSources.toEnvironmentName( "APP_", "input-file" ) );
+        Assert.assertEquals( "INT_PARAM", ParamSources.toEnvironmentName( "", "int param" ) );
+    }
+
+    @Test
+    public void test_parse_yaml()
+    {
+        String yaml = "---\n" + "name: \"quoted # not comment\"  # comment\n" + "db:\n" + "  url: jdbc:x\n" + "  pool:\n"
+            + "    size: 4\n" + "ids:\n" + "  - 1\n" + "  - '2'\n" + "top: last\n";
+
+        Map<String, String> values = ParamSources.parseYaml( yaml );
+        Assert.assertEquals( "quoted # not comment", values.get( "name" ) );
+        Assert.assertEquals( "jdbc:x", values.get( "db.url" ) );
+        Assert.assertEquals( "4", values.get( "db.pool.size" ) );
+        Assert.assertEquals( "1,2", values.get( "ids" ) );
+        Assert.assertEquals( "last", values.get( "top" ) );
+        Assert.assertEquals( 5, values.size() );
+    }
+
+    public static class TestParams
+    {
+        @ParamField( "name" )
+        String name;
+
+        @ParamField( "mode" )
+        String mode;
+
+        @ParamField( "input-file" )
+        String inputFile;
+
+        @ParamField( "count" )
+        int count;
+
+        @ParamField( value = "other", defaultValue = "fallback" )
+        String other;
+    }
+}
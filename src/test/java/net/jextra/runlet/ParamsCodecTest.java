@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class ParamsCodecTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_round_trip()
+        throws Exception
+    {
+        CodecParams params = new CodecParams();
+        params.count = 42;
+        params.boxed = -7L;
+        params.ratio = 0.1;
+        params.verbose = true;
+        params.name = "quotes \" and, commas";
+        params.ids = new int[] { 1, 2, Integer.MAX_VALUE };
+        params.weights = new double[] { 1.5, Double.NaN };
+        params.tags = Arrays.asList( "a,b", "c" );
+        params.units = new TimeUnit[] { TimeUnit.SECONDS, TimeUnit.DAYS };
+        params.file = new File( "some dir/file.txt" );
+        params.unit = TimeUnit.MINUTES;
+
+        CodecParams decoded = new CodecParams();
+        ParamsCodec.read( new ByteArrayInputStream( ParamsCodec.encode( params ) ), decoded );
+
+        Assert.assertEquals( 42, decoded.count );
+        Assert.assertEquals( Long.valueOf( -7 ), decoded.boxed );
+        Assert.assertEquals( 0.1, decoded.ratio, 0 );
+        Assert.assertTrue( decoded.verbose );
+        Assert.assertEquals( params.name, decoded.name );
+        Assert.assertArrayEquals( params.ids, decoded.ids );
+        Assert.assertArrayEquals( params.weights, decoded.weights, 0 );
+        Assert.assertEquals( params.tags, decoded.tags );
+        Assert.assertArrayEquals( params.units, decoded.units );
+        Assert.assertEquals( params.file, decoded.file );
+        Assert.assertEquals( TimeUnit.MINUTES, decoded.unit );
+        Assert.assertNull( decoded.missing );
+    }
+
+    @Test
+    public void test_reads_only_encoded_bytes()
+        throws Exception
+    {
+        CodecParams params = new CodecParams();
+        params.name = "x";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParamsCodec.write( params, out );
+        out.write( 99 );
+
+        ByteArrayInputStream in = new ByteArrayInputStream( out.toByteArray() );
+        ParamsCodec.read( in, new CodecParams() );
+        Assert.assertEquals( 99, in.read() );
+    }
+
+    @Test( expected = IOException.class )
+    public void test_schema_mismatch()
+        throws Exception
+    {
+        ParamsCodec.read( new ByteArrayInputStream( ParamsCodec.encode( new MultiValuesTest.TestParams() ) ), new CodecParams() );
+    }
+
+    @Test
+    public void test_params_file_option()
+        throws Exception
+    {
+        CodecParams params = new CodecParams();
+        params.name = "encoded";
+        params.count = 5;
+        Path file = folder.getRoot().toPath().resolve( "params.bin" );
+        ParamsCodec.write( params, file );
+
+        CodecParams decoded = new CodecParams();
+        RunletFactory factory = new RunletFactory( new Object(), decoded );
+        Assert.assertTrue( factory.processArgs( new String[] { "--runlet-params-file=" + file, "--count=6" } ) );
+        Assert.assertEquals( "encoded", decoded.name );
+        Assert.assertEquals( 6, decoded.count );
+    }
+
+    @Test
+    public void test_round_trip_temporal()
+        throws Exception
+    {
+        TemporalParams params = new TemporalParams();
+        params.day = LocalDate.of( 2024, 1, 31 );
+        params.when = new Date( 1706700930123L );
+        params.stamp = new Date( 1706700930000L );
+
+        TemporalParams decoded = new TemporalParams();
+        ParamsCodec.read( new ByteArrayInputStream( ParamsCodec.encode( params ) ), decoded );
+
+        Assert.assertEquals( params.day, decoded.day );
+        Assert.assertEquals( params.when, decoded.when );
+        Assert.assertEquals( params.stamp, decoded.stamp );
+    }
+
+    public static class TemporalParams
+    {
+        @ParamField( value = "day", format = "dd/MM/yyyy", required = false )
+        private LocalDate day;
+
+        @ParamField( value = "when", required = false )
+        private Date when;
+
+        @ParamField( value = "stamp", format = "yyyy-MM-dd HH:mm:ss", required = false )
+        private Date stamp;
+    }
+
+    public static class CodecParams
+    {
+        @ParamField( value = "name", required = true )
+        private String name;
+
+        @ParamField( value = "count", required = false )
+        private int count;
+
+        @ParamField( value = "boxed", required = false )
+        private Long boxed;
+
+        @ParamField( value = "ratio", required = false )
+        private double ratio;
+
+        @ParamField( value = "verbose", required = false )
+        private boolean verbose;
+
+        @ParamField( value = "ids", required = false )
+        private int[] ids;
+
+        @ParamField( value = "weights", required = false )
+        private double[] weights;
+
+        @ParamField( value = "tags", required = false )
+        private List<String> tags;
+
+        @ParamField( value = "units", required = false )
+        private TimeUnit[] units;
+
+        @ParamField( value = "file", required = false )
+        private File file;
+
+        @ParamField( value = "unit", required = false )
+        private TimeUnit unit;
+
+        @ParamField( value = "missing", required = false )
+        private String missing;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import java.util.stream.*;
+import org.junit.*;
+
+public class RunletBatchTest
+{
+    @Test
+    public void test_runBatch()
+        throws Exception
+    {
+        AtomicLong total = new AtomicLong();
+        Stream<String[]> argSets = IntStream.range( 0, 100 ).mapToObj( i -> new String[] { "--value=" + i } );
+        List<BatchResult> results = RunletFactory.runBatch( () -> new SumRunlet( total ), argSets, 4 );
+
+        Assert.assertEquals( 100, results.size() );
+        for ( int i = 0; i < results.size(); i++ )
+        {
+            Assert.assertEquals( i, results.get( i ).getIndex() );
+            Assert.assertTrue( results.get( i ).isSuccess() );
+        }
+        Assert.assertEquals( 4950, total.get() );
+    }
+
+    @Test
+    public void test_runBatch_failures()
+        throws Exception
+    {
+        AtomicLong total = new AtomicLong();
+        Stream<String[]> argSets = Stream.of( new String[] { "--value=1" }, new String[] { "--value=nan" }, new String[0] );
+        List<BatchResult> results = new RunletBatch( () -> new SumRunlet( total ) ).setOrderedOutput( true ).run( argSets );
+
+        Assert.assertTrue( results.get( 0 ).isSuccess() );
+        Assert.assertEquals( 1, results.get( 1 ).getExitCode() );
+        Assert.assertEquals( 1, results.get( 2 ).getExitCode() );
+        Assert.assertEquals( 1, total.get() );
+    }
+
+    @Test
+    public void test_ordered_output_after_error()
+        throws Exception
+    {
+        // the executor threads inherit this redirect, so the ordered output ends up here
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputStream[] previous = ThreadOutput.redirect( out, new ByteArrayOutputStream() );
+        try
+        {
+            Stream<String[]> argSets = Stream.of( new String[] { "--value=-1" }, new String[] { "--value=2" } );
+            new RunletBatch( () -> new SumRunlet( new AtomicLong() ) ).setParallelism( 2 ).setOrderedOutput( true ).run( argSets );
+            Assert.fail();
+        }
+        catch ( IllegalStateException ex )
+        {
+            Assert.assertTrue( ex.getCause() instanceof AssertionError );
+        }
+        finally
+        {
+            ThreadOutput.restore( previous );
+        }
+        Assert.assertEquals( "2\n", out.toString( "UTF-8" ) );
+    }
+
+    @Test
+    public void test_splitLine()
+        throws Exception
+    {
+        Assert.assertArrayEquals( new String[] { "--a=1", "--b=two words", "--c=it's", "--d=x\"y" },
+            ArgTokenizer.splitLine( "  --a=1 --b='two words' \"--c=it's\" --d=x\\\"y " ) );
+        Assert.assertArrayEquals( new String[0], ArgTokenizer.splitLine( "   " ) );
+    }
+
+    @Test
+    public void test_params_factory()
+        throws Exception
+    {
+        Stream<String[]> argSets = Stream.of( new String[] { "--value=1" }, new String[] { "--value=2" } );
+        List<BatchResult> results = new RunletBatch( ValueRunlet::new, SumRunlet.Params::new ).run( argSets );
+        Assert.assertTrue( results.get( 0 ).isSuccess() );
+        Assert.assertTrue( results.get( 1 ).isSuccess() );
+    }
+
+    public static class ValueRunlet
+    {
+        @RunletCommand
+        public void run( SumRunlet.Params params )
+        {
+            Assert.assertTrue( params.value > 0 );
+        }
+    }
+
+    public static class SumRunlet
+    {
+        private final AtomicLong total;
+        private final Params params = new Params();
+
+        SumRunlet( AtomicLong total )
+        {
+            this.total = total;
+        }
+
+        @RunletCommand
+        public void run()
+        {
+            if ( params.value < 0 )
+            {
+                // fail after the next job completed, its output waits for this one
+                LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( 200 ) );
+                throw new AssertionError( "negative" );
+            }
+            total.addAndGet( params.value );
+            System.out.println( params.value );
+        }
+
+        public static class Params
+        {
+            @ParamField( "value" )
+            private int value;
+        }
+    }
+}
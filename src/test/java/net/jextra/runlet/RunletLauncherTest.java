@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.stream.*;
+import org.junit.*;
+
+public class RunletLauncherTest
+{
+    @Test
+    public void test_command()
+    {
+        List<String> command = new RunletLauncher( LauncherRunlet.class ).setClassPath( "a.jar" ).addJvmArguments( "-Xmx64m" )
+            .getCommand( Arrays.asList( "--name=x" ) );
+
+        Assert.assertTrue( command.get( 0 ), command.get( 0 ).contains( "java" ) );
+        int cp = command.indexOf( "-cp" );
+        Assert.assertTrue( command.indexOf( "-Xmx64m" ) < cp );
+        Assert.assertEquals( Arrays.asList( "-cp", "a.jar", RunletLauncher.class.getName(), LauncherRunlet.class.getName(), "--name=x" ),
+            command.subList( cp, command.size() ) );
+    }
+
+    @Test
+    public void test_run_children()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        List<BatchResult> results = new RunletLauncher( LauncherRunlet.class ).setParallelism( 2 )
+            .setOutput( new PrintStream( out, true ), new PrintStream( err, true ) )
+            .run( Stream.of( "a", "fail", "c" ).map( LauncherRunlet.Params::new ) );
+
+        Assert.assertEquals( 3, results.size() );
+        Assert.assertTrue( results.get( 0 ).isSuccess() );
+        Assert.assertFalse( results.get( 1 ).isSuccess() );
+        Assert.assertTrue( results.get( 2 ).isSuccess() );
+        Assert.assertArrayEquals( new String[] { "--name=c" }, results.get( 2 ).getArgs() );
+
+        String text = new String( out.toByteArray(), Charset.defaultCharset() );
+        Assert.assertTrue( text, text.contains( "[0] hello a" ) );
+        Assert.assertTrue( text, text.contains( "[2] hello c" ) );
+        String errors = new String( err.toByteArray(), Charset.defaultCharset() );
+        Assert.assertTrue( errors, errors.contains( "[1] " ) );
+    }
+
+    @Test
+    public void test_binary_params()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<BatchResult> results = new RunletLauncher( LauncherRunlet.class ).setBinaryParams( true ).setPrefixOutput( false )
+            .setOutput( new PrintStream( out, true ), System.err ).run( Stream.of( new LauncherRunlet.Params( "binary" ) ) );
+
+        Assert.assertTrue( results.get( 0 ).isSuccess() );
+        Assert.assertArrayEquals( new String[] { "--runlet-params-fd=0" }, results.get( 0 ).getArgs() );
+        Assert.assertTrue( new String( out.toByteArray(), Charset.defaultCharset() ).startsWith( "hello binary" ) );
+    }
+
+    public static class LauncherRunlet
+    {
+        private Params params = new Params();
+
+        @RunletCommand
+        public void run()
+        {
+            if ( params.name.equals( "fail" ) )
+            {
+                throw new IllegalStateException( "failed on purpose" );
+            }
+            System.out.println( "hello " + params.name );
+        }
+
+        public static class Params
+        {
+            @ParamField( "name" )
+            private String name;
+
+            public Params()
+            {
+            }
+
+            Params( String name )
+            {
+                this.name = name;
+            }
+        }
+    }
+}
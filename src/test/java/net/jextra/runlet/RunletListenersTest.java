@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.lang.management.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import javax.management.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class RunletListenersTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_phases_reported()
+        throws Exception
+    {
+        EnumMap<RunletPhase, Long> phases = new EnumMap<>( RunletPhase.class );
+        boolean[] completed = new boolean[1];
+        RunletListener listener = new RunletListener()
+        {
+            @Override
+            public void phaseCompleted( Object runlet, RunletPhase phase, long nanos )
+            {
+                phases.put( phase, nanos );
+            }
+
+            @Override
+            public void runCompleted( Object runlet, boolean success, long totalNanos )
+            {
+                completed[0] = success;
+            }
+        };
+
+        TestRunlet runlet = new TestRunlet();
+        Assert.assertEquals( 0, RunletFactory.run( runlet, runlet.params, new String[] { "--name=foo" }, listener ) );
+        Assert.assertTrue( completed[0] );
+        Assert.assertEquals( EnumSet.complementOf( EnumSet.of( RunletPhase.PROMPT ) ), phases.keySet() );
+    }
+
+    @Test
+    public void test_jsonl_option()
+        throws Exception
+    {
+        Path file = folder.getRoot().toPath().resolve( "metrics.jsonl" );
+        TestRunlet runlet = new TestRunlet();
+        RunletFactory.run( runlet, runlet.params, new String[] { "--name=foo", "--runlet-metrics=jsonl:" + file } );
+        RunletFactory.run( runlet, runlet.params, new String[] { "--runlet-metrics=jsonl:" + file } );
+
+        List<String> lines = Files.readAllLines( file, StandardCharsets.UTF_8 );
+        Assert.assertEquals( 2, lines.size() );
+        Assert.assertTrue( lines.get( 0 ).contains( "\"success\":true" ) );
+        Assert.assertTrue( lines.get( 0 ).contains( "\"execution\":" ) );
+        Assert.assertTrue( lines.get( 1 ).contains( "\"success\":false" ) );
+    }
+
+    @Test
+    public void test_jmx()
+        throws Exception
+    {
+        TestRunlet runlet = new TestRunlet();
+        RunletFactory.run( runlet, runlet.params, new String[] { "--name=foo" }, RunletListeners.jmx() );
+
+        ObjectName name = new ObjectName( "net.jextra.runlet:type=RunletStats,name=" + ObjectName.quote( TestRunlet.class.getName() ) );
+        Assert.assertEquals( 1L, ManagementFactory.getPlatformMBeanServer().getAttribute( name, "RunCount" ) );
+    }
+
+    public static class TestRunlet
+    {
+        private Params params = new Params();
+
+        @RunletCommand
+        public void run()
+        {
+        }
+
+        public static class Params
+        {
+            @ParamField( "name" )
+            private String name;
+        }
+    }
+}
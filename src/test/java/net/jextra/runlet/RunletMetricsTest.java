@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class RunletMetricsTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_histogram_buckets()
+    {
+        for ( long value : new long[] { 0, 1, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE } )
+        {
+            int index = LatencyHistogram.indexOf( value );
+            Assert.assertTrue( value + "", LatencyHistogram.lowerBoundOf( index ) <= value );
+            Assert.assertTrue( value + "", index + 1 == 960 || LatencyHistogram.lowerBoundOf( index + 1 ) > value );
+        }
+    }
+
+    @Test
+    public void test_histogram_percentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for ( int i = 1; i <= 1000; i++ )
+        {
+            histogram.record( i * 1000L );
+        }
+
+        Assert.assertEquals( 1000, histogram.getCount() );
+        Assert.assertEquals( 1000000, histogram.getMax() );
+        Assert.assertEquals( 500500, histogram.getMean(), 1 );
+        // 16 sub-buckets per power of two keep the error within about 6%
+        Assert.assertEquals( 500000, histogram.getPercentile( 50 ), 500000 * 0.07 );
+        Assert.assertEquals( 990000, histogram.getPercentile( 99 ), 990000 * 0.07 );
+        Assert.assertTrue( histogram.getPercentile( 100 ) <= histogram.getMax() );
+    }
+
+    @Test
+    public void test_injected_and_reported()
+        throws Exception
+    {
+        Path file = folder.getRoot().toPath().resolve( "report.jsonl" );
+        MetricsRunlet runlet = new MetricsRunlet();
+        Assert.assertEquals( 0, RunletFactory.run( runlet, runlet, new String[] { "--runlet-report=jsonl:" + file } ) );
+
+        Assert.assertEquals( 3, runlet.metrics.counter( "items" ).sum() );
+        List<String> lines = Files.readAllLines( file, StandardCharsets.UTF_8 );
+        Assert.assertEquals( 1, lines.size() );
+        String line = lines.get( 0 );
+        Assert.assertTrue( line, line.contains( "\"summary\":true" ) );
+        Assert.assertTrue( line, line.contains( "\"items\":{\"count\":3," ) );
+        Assert.assertTrue( line, line.contains( "\"queue\":7.000" ) );
+        Assert.assertTrue( line, line.contains( "\"step\":{\"count\":2," ) );
+    }
+
+    public static class MetricsRunlet
+    {
+        private RunletMetrics metrics;
+
+        @RunletCommand
+        public void run( RunletMetrics injected )
+        {
+            Assert.assertSame( metrics, injected );
+            metrics.counter( "items" ).add( 3 );
+            metrics.gauge( "queue", () -> 7 );
+            metrics.histogram( "step" ).record( 1000 );
+            metrics.histogram( "step" ).recordSince( System.nanoTime() );
+        }
+    }
+}
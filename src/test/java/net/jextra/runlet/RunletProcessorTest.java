@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+import org.junit.*;
+
+/**
+ * The RunletProcessor runs while compiling the tests, so the classes below have generated counterparts.
+ */
+public class RunletProcessorTest
+{
+    @Test
+    public void test_generated_params()
+        throws Exception
+    {
+        ParamSchema schema = ParamSchema.of( TestParams.class );
+        Assert.assertNotNull( schema.getGenerated() );
+        Assert.assertEquals( TestParams.class.getName() + GeneratedParams.SUFFIX, schema.getGenerated().getClass().getName() );
+
+        TestParams params = new TestParams();
+        Map<String, String> values = new HashMap<>();
+        values.put( "name", "foo" );
+        values.put( "count", "12" );
+        values.put( "file", "/tmp/x" );
+        values.put( "private", "bar" );
+        new ParamFields( params ).setValues( values );
+
+        Assert.assertEquals( "foo", params.name );
+        Assert.assertEquals( 12, params.count );
+        Assert.assertEquals( new File( "/tmp/x" ), params.file );
+        Assert.assertEquals( "bar", params.hidden );
+    }
+
+    @Test
+    public void test_generated_binder_used()
+        throws Exception
+    {
+        ParamSchema schema = ParamSchema.of( TestParams.class );
+        for ( String name : new String[] { "name", "count", "file" } )
+        {
+            Assert.assertTrue( name, schema.getDescriptor( name ).hasBuiltInConverter() );
+        }
+
+        TestParams params = new TestParams();
+        Assert.assertTrue( schema.getGenerated().setValue( params, "count", "7" ) );
+        Assert.assertEquals( 7, params.count );
+        Assert.assertFalse( schema.getGenerated().setValue( params, "private", "bar" ) );
+        Assert.assertNull( params.hidden );
+    }
+
+    @Test
+    public void test_registered_converter_wins()
+        throws Exception
+    {
+        // a superset of the built-in converter, so other tests are not affected
+        ConverterRegistry.getDefault().register( UUID.class, value -> value.equals( "nil" ) ? new UUID( 0, 0 ) : UUID.fromString( value ) );
+
+        ParamSchema schema = ParamSchema.of( UuidParams.class );
+        Assert.assertNotNull( schema.getGenerated() );
+        Assert.assertFalse( schema.getDescriptor( "id" ).hasBuiltInConverter() );
+
+        UuidParams params = new UuidParams();
+        new ParamFields( params ).setValues( Collections.singletonMap( "id", "nil" ) );
+        Assert.assertEquals( new UUID( 0, 0 ), params.id );
+    }
+
+    @Test
+    public void test_generated_command()
+        throws Exception
+    {
+        Class.forName( TestRunlet.class.getName() + GeneratedCommand.SUFFIX );
+
+        TestRunlet runlet = new TestRunlet();
+        RunletFactory factory = new RunletFactory( runlet, runlet.params );
+        Assert.assertTrue( factory.processArgs( new String[] { "--name=foo", "--count=3" } ) );
+        factory.execute();
+        Assert.assertTrue( runlet.ran );
+    }
+
+    @Test( expected = ClassNotFoundException.class )
+    public void test_no_generated_params_for_private_fields()
+        throws Exception
+    {
+        Class.forName( PrivateParams.class.getName() + GeneratedParams.SUFFIX );
+    }
+
+    @Test
+    public void test_final_fields_left_to_reflection()
+        throws Exception
+    {
+        ParamSchema schema = ParamSchema.of( FinalParams.class );
+        Assert.assertNotNull( schema.getGenerated() );
+
+        FinalParams params = new FinalParams();
+        Map<String, String> values = new HashMap<>();
+        values.put( "name", "foo" );
+        values.put( "fixed", "bar" );
+        new ParamFields( params ).setValues( values );
+
+        Assert.assertEquals( "foo", params.name );
+        Assert.assertEquals( "bar", params.fixed );
+    }
+
+    static class TestParams
+    {
+        @ParamField( "name" )
+        String name;
+
+        @ParamField( value = "count", required = false )
+        int count;
+
+        @ParamField( value = "file", required = false )
+        File file;
+
+        // left to the reflective path
+        @ParamField( value = "private", required = false )
+        private String hidden;
+    }
+
+    static class PrivateParams
+    {
+        @ParamField( "name" )
+        private String name;
+    }
+
+    static class UuidParams
+    {
+        @ParamField( "id" )
+        UUID id;
+    }
+
+    static class FinalParams
+    {
+        @ParamField( "name" )
+        String name;
+
+        // the generated binder cannot assign a final field, so this one is left to the reflective path
+        @ParamField( value = "fixed", required = false )
+        final String fixed = new String( "" );
+    }
+
+    static class TestRunlet
+    {
+        TestParams params = new TestParams();
+        boolean ran;
+
+        @RunletCommand
+        void run()
+        {
+            ran = params.count == 3;
+        }
+    }
+}
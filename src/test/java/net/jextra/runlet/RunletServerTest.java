@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class RunletServerTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RunletServer server;
+    private Path socket;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        socket = folder.getRoot().toPath().resolve( "runlet.sock" );
+        server = new RunletServer().register( "echo", EchoRunlet::new );
+        server.start( socket );
+    }
+
+    @After
+    public void tearDown()
+        throws Exception
+    {
+        server.close();
+    }
+
+    @Test
+    public void test_run()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = RunletClient.run( socket, "echo", new String[] { "--message=hello", "--file=some.txt" }, out, err );
+
+        Assert.assertEquals( 0, exitCode );
+        String expectedFile = new File( new File( "" ).getAbsolutePath(), "some.txt" ).getPath();
+        Assert.assertEquals( "hello\n" + expectedFile + "\n", out.toString( "UTF-8" ) );
+        Assert.assertEquals( "", err.toString( "UTF-8" ) );
+    }
+
+    @Test
+    public void test_run_params_supplier()
+        throws Exception
+    {
+        server.register( "echo-params", EchoParamsRunlet::new, EchoRunlet.Params::new );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals( 0, RunletClient.run( socket, "echo-params", new String[] { "--message=hi" }, out, new ByteArrayOutputStream() ) );
+        Assert.assertEquals( "hi\n", out.toString( "UTF-8" ) );
+    }
+
+    @Test
+    public void test_run_missing_parameter()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = RunletClient.run( socket, "echo", new String[0], out, err );
+
+        Assert.assertEquals( 1, exitCode );
+        Assert.assertTrue( err.toString( "UTF-8" ).contains( "Missing required parameter [message]" ) );
+        Assert.assertTrue( out.toString( "UTF-8" ).contains( "Usage:" ) );
+    }
+
+    @Test
+    public void test_run_unknown_runlet()
+        throws Exception
+    {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Assert.assertEquals( 1, RunletClient.run( socket, "nope", new String[0], new ByteArrayOutputStream(), err ) );
+        Assert.assertTrue( err.toString( "UTF-8" ).contains( "Unknown runlet [nope]" ) );
+    }
+
+    @Test
+    public void test_prompt_rejected()
+        throws Exception
+    {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Assert.assertEquals( 1, RunletClient.run( socket, "echo", new String[] { "--prompt" }, new ByteArrayOutputStream(), err ) );
+        Assert.assertTrue( err.toString( "UTF-8" ).contains( "--prompt is not supported" ) );
+    }
+
+    @Test
+    public void test_tcp_token()
+        throws Exception
+    {
+        Path tcpSocket = folder.getRoot().toPath().resolve( "tcp.sock" );
+        try ( RunletServer tcpServer = new RunletServer().register( "echo", EchoRunlet::new ) )
+        {
+            tcpServer.start( tcpSocket, false );
+            Path tokenPath = DaemonProtocol.getTokenPath( tcpSocket );
+            Assert.assertTrue( Files.isRegularFile( tokenPath ) );
+            if ( tokenPath.getFileSystem().supportedFileAttributeViews().contains( "posix" ) )
+            {
+                Assert.assertEquals( "rw-------", PosixFilePermissions.toString( Files.getPosixFilePermissions( tokenPath ) ) );
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assert.assertEquals( 0, RunletClient.run( tcpSocket, "echo", new String[] { "--message=hi" }, out, new ByteArrayOutputStream() ) );
+            Assert.assertEquals( "hi\n", out.toString( "UTF-8" ) );
+
+            // a client without the token is disconnected without running anything
+            int port = Integer.parseInt( new String( Files.readAllBytes( tcpSocket ), StandardCharsets.US_ASCII ) );
+            try ( Socket intruder = new Socket( InetAddress.getLoopbackAddress(), port ) )
+            {
+                intruder.getOutputStream().write( new byte[DaemonProtocol.TOKEN_LENGTH] );
+                Assert.assertEquals( -1, intruder.getInputStream().read() );
+            }
+        }
+        Assert.assertFalse( Files.exists( DaemonProtocol.getTokenPath( tcpSocket ) ) );
+    }
+
+    public static class EchoParamsRunlet
+    {
+        @RunletCommand
+        public void run( EchoRunlet.Params params )
+        {
+            System.out.println( params.message );
+        }
+    }
+
+    public static class EchoRunlet
+    {
+        private Params params = new Params();
+
+        @RunletCommand
+        public void run()
+        {
+            System.out.println( params.message );
+            if ( params.file != null )
+            {
+                System.out.println( params.file.getPath() );
+            }
+        }
+
+        public static class Params
+        {
+            @ParamField( "message" )
+            private String message;
+
+            @ParamField( value = "file", required = false )
+            private File file;
+        }
+    }
+}
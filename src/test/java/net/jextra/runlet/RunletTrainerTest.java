@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.jar.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class RunletTrainerTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_find_directory()
+    {
+        Assert.assertNull( RunletTrainer.findDirectory( new String[] { "--name=x", "--runlet-train-execute" } ) );
+        Assert.assertEquals( ".", RunletTrainer.findDirectory( new String[] { "--runlet-train" } ) );
+        Assert.assertEquals( "out", RunletTrainer.findDirectory( new String[] { "--runlet-train=out", "--name=x" } ) );
+    }
+
+    @Test
+    public void test_launcher_script()
+        throws Exception
+    {
+        Path script = folder.getRoot().toPath().resolve( "tool.sh" );
+        Path archive = folder.getRoot().toPath().resolve( "it's.jsa" );
+        RunletTrainer.writeLauncher( script, archive, Arrays.asList( "-cp", "a.jar", "com.example.Tool" ) );
+
+        String text = new String( Files.readAllBytes( script ), StandardCharsets.UTF_8 );
+        Assert.assertTrue( text, text.startsWith( "#!/bin/sh\nexec '" ) );
+        Assert.assertTrue( text, text.contains( " '-XX:SharedArchiveFile=" + folder.getRoot() + "/it'\\''s.jsa'" ) );
+        Assert.assertTrue( text, text.endsWith( " '-cp' 'a.jar' 'com.example.Tool' \"$@\"\n" ) );
+        Assert.assertTrue( Files.isExecutable( script ) );
+    }
+
+    @Test
+    public void test_training_run()
+        throws Exception
+    {
+        Assume.assumeTrue( Integer.parseInt( System.getProperty( "java.specification.version" ).replace( "1.", "" ) ) >= 13 );
+
+        String previous = System.setProperty( "runletName", "trained.sh" );
+        try
+        {
+            Path jar = folder.getRoot().toPath().resolve( "runlet.jar" );
+            try ( JarOutputStream out = new JarOutputStream( Files.newOutputStream( jar ) ) )
+            {
+                for ( String entry : System.getProperty( "java.class.path" ).split( File.pathSeparator ) )
+                {
+                    addClasses( out, Paths.get( entry ) );
+                }
+            }
+
+            int exitCode = RunletTrainer.train( RunletListenersTest.TestRunlet.class, folder.getRoot().toString(),
+                new String[] { "--runlet-train", "--name=x", "--runlet-train-execute" }, jar.toString() );
+            Assert.assertEquals( 0, exitCode );
+            Assert.assertTrue( Files.size( folder.getRoot().toPath().resolve( "trained.jsa" ) ) > 0 );
+            String script = new String( Files.readAllBytes( folder.getRoot().toPath().resolve( "trained.sh" ) ), StandardCharsets.UTF_8 );
+            Assert.assertTrue( script, script.contains( "'-XX:SharedArchiveFile=" + folder.getRoot().toPath().resolve( "trained.jsa" ) + "'" ) );
+        }
+        finally
+        {
+            if ( previous == null )
+            {
+                System.clearProperty( "runletName" );
+            }
+            else
+            {
+                System.setProperty( "runletName", previous );
+            }
+        }
+    }
+
+    @Test
+    public void test_directory_class_path_rejected()
+    {
+        Assert.assertEquals( 1, RunletTrainer.train( RunletListenersTest.TestRunlet.class, folder.getRoot().toString(), new String[0],
+            folder.getRoot().toString() ) );
+    }
+
+    private static void addClasses( JarOutputStream out, Path root )
+        throws IOException
+    {
+        if ( !Files.isDirectory( root ) || !root.toString().contains( "target" ) )
+        {
+            return;
+        }
+
+        try ( java.util.stream.Stream<Path> files = Files.walk( root ) )
+        {
+            for ( Path file : (Iterable<Path>) files.filter( Files::isRegularFile )::iterator )
+            {
+                out.putNextEntry( new JarEntry( root.relativize( file ).toString().replace( '\\', '/' ) ) );
+                Files.copy( file, out );
+                out.closeEntry();
+            }
+        }
+    }
+}
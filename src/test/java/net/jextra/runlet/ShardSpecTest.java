@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+public class ShardSpecTest
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void test_parse()
+        throws Exception
+    {
+        Assert.assertEquals( new ShardSpec( 2, 8 ), ShardSpec.parse( "2/8" ) );
+        Assert.assertEquals( "2/8", ShardSpec.parse( " 2 / 8 " ).toString() );
+        Assert.assertEquals( new ShardSpec( 1, 3 ), StringCoercer.fromString( "1/3", ShardSpec.class ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_parse_out_of_range()
+    {
+        ShardSpec.parse( "3/3" );
+    }
+
+    @Test
+    public void test_ranges_partition()
+    {
+        for ( int count : new int[] { 1, 3, 7 } )
+        {
+            long next = 10;
+            for ( int i = 0; i < count; i++ )
+            {
+                ShardSpec shard = new ShardSpec( i, count );
+                Assert.assertEquals( next, shard.rangeStart( 10, 30 ) );
+                long size = shard.rangeEnd( 10, 30 ) - shard.rangeStart( 10, 30 );
+                Assert.assertTrue( size == 20 / count || size == 20 / count + 1 );
+                next = shard.rangeEnd( 10, 30 );
+            }
+            Assert.assertEquals( 30, next );
+        }
+        Assert.assertEquals( 0, new ShardSpec( 1, 2 ).range( 5, 5 ).count() );
+    }
+
+    @Test
+    public void test_keys_stable()
+    {
+        // the hash is part of the contract: changing it moves keys between shards of existing jobs
+        Assert.assertEquals( 2, ShardSpec.shardOf( "customer-42", 8 ) );
+        Assert.assertEquals( 7, ShardSpec.shardOf( 42L, 8 ) );
+
+        List<String> keys = IntStream.range( 0, 1000 ).mapToObj( i -> "key" + i ).collect( Collectors.toList() );
+        int total = 0;
+        for ( int i = 0; i < 4; i++ )
+        {
+            ShardSpec shard = new ShardSpec( i, 4 );
+            List<String> owned = shard.filter( keys.stream(), key -> key ).collect( Collectors.toList() );
+            Assert.assertTrue( owned.size() > 150 );
+            total += owned.size();
+        }
+        Assert.assertEquals( 1000, total );
+    }
+
+    @Test
+    public void test_files()
+        throws Exception
+    {
+        for ( int i = 0; i < 20; i++ )
+        {
+            Files.createFile( folder.getRoot().toPath().resolve( "part-" + i ) );
+        }
+
+        Set<Path> all = new HashSet<>();
+        for ( int i = 0; i < 3; i++ )
+        {
+            List<Path> files = new ShardSpec( i, 3 ).files( folder.getRoot().toPath() );
+            for ( Path file : files )
+            {
+                Assert.assertEquals( i, ShardSpec.shardOf( file.getFileName().toString(), 3 ) );
+            }
+            all.addAll( files );
+        }
+        Assert.assertEquals( 20, all.size() );
+    }
+
+    @Test
+    public void test_injected()
+        throws Exception
+    {
+        ShardRunlet runlet = new ShardRunlet();
+        RunletFactory factory = new RunletFactory( runlet, null );
+        Assert.assertTrue( factory.processArgs( new String[] { "--shard=1/4" } ) );
+        factory.execute();
+        Assert.assertEquals( new ShardSpec( 1, 4 ), runlet.shard );
+        Assert.assertEquals( runlet.shard, runlet.argument );
+
+        ShardRunlet single = new ShardRunlet();
+        Assert.assertEquals( 0, RunletFactory.run( single, null, new String[0] ) );
+        Assert.assertSame( ShardSpec.ALL, single.shard );
+    }
+
+    @Test
+    public void test_param_fields_not_injected()
+        throws Exception
+    {
+        ShardParamRunlet runlet = new ShardParamRunlet();
+        RunletFactory factory = new RunletFactory( runlet );
+        Assert.assertTrue( factory.processArgs( new String[] { "--part=2/4", "--shard=1/3" } ) );
+        factory.execute();
+        Assert.assertEquals( new ShardSpec( 2, 4 ), runlet.part );
+        Assert.assertEquals( new ShardSpec( 1, 3 ), runlet.shard );
+        Assert.assertEquals( runlet.shard, runlet.seen );
+    }
+
+    public static class ShardRunlet
+    {
+        private ShardSpec shard;
+        private ShardSpec argument;
+
+        @RunletCommand
+        public void run( ShardSpec shard )
+        {
+            argument = shard;
+        }
+    }
+
+    public static class ShardParamRunlet
+    {
+        @ParamField( "part" )
+        private ShardSpec part;
+
+        @ParamField( "shard" )
+        private ShardSpec shard;
+
+        private ShardSpec seen;
+
+        @RunletCommand
+        public void run()
+        {
+            seen = shard;
+        }
+    }
+}
@@ -42,4 +42,69 @@ public class StringCoercerTest
         StringCoercer.fromString( "this is not a uuid", UUID.class );
     }
 
+    @Test
+    public void test_fromString_range()
+        throws Exception
+    {
+        String arg = "--count=42";
+        Assert.assertEquals( 42, StringCoercer.fromString( arg, 8, arg.length(), Integer.TYPE ) );
+        Assert.assertEquals( 42L, StringCoercer.fromString( arg, 8, arg.length(), Long.class ) );
+        Assert.assertEquals( "42", StringCoercer.fromString( arg, 8, arg.length(), String.class ) );
+        Assert.assertEquals( Boolean.TRUE, StringCoercer.fromString( "x=TRUE", 2, 6, Boolean.TYPE ) );
+    }
+
+    @Test
+    public void test_parseDoubleRange_matches_parseDouble()
+    {
+        String[] samples = { "0", "-0", "1", "-1.5", "+2.25", ".5", "5.", "0.1", "0.05", "123456789012345", "1234567890123456789",
+            "3.141592653589793", "1e10", "1E-5", "2.5e+3", "1e22", "1e23", "1e-22", "1e-23", "0.000001", "9007199254740993", "1.7976931348623157E308",
+            "4.9E-324", "NaN", "-Infinity", "0x1p3", "1.5d", "7f" };
+        for ( String sample : samples )
+        {
+            Assert.assertEquals( sample, Double.parseDouble( sample ), StringCoercer.parseDoubleRange( "[" + sample + "]", 1, sample.length() + 1 ), 0 );
+        }
+
+        Random random = new Random( 42 );
+        for ( int i = 0; i < 10000; i++ )
+        {
+            String sample = randomDecimal( random );
+            Assert.assertEquals( sample, Double.doubleToLongBits( Double.parseDouble( sample ) ),
+                Double.doubleToLongBits( StringCoercer.parseDoubleRange( sample, 0, sample.length() ) ) );
+        }
+
+        for ( String bad : new String[] { "", "-", ".", "e5", "1e", "1e+", "1..2", "abc" } )
+        {
+            try
+            {
+                StringCoercer.parseDoubleRange( bad, 0, bad.length() );
+                Assert.fail( bad );
+            }
+            catch ( NumberFormatException ex )
+            {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Random plain decimals of the shape that takes the fast path.
+     */
+    private static String randomDecimal( Random random )
+    {
+        StringBuilder builder = new StringBuilder();
+        if ( random.nextBoolean() )
+        {
+            builder.append( '-' );
+        }
+        builder.append( random.nextInt( 1000000 ) );
+        if ( random.nextBoolean() )
+        {
+            builder.append( '.' ).append( random.nextInt( 100000000 ) );
+        }
+        if ( random.nextInt( 4 ) == 0 )
+        {
+            builder.append( 'e' ).append( random.nextInt( 40 ) - 20 );
+        }
+        return builder.toString();
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.time.*;
+import java.util.*;
+import org.junit.*;
+
+public class TemporalConvertersTest
+{
+    @Test
+    public void test_fast_path_matches_iso()
+        throws Exception
+    {
+        Assert.assertEquals( LocalDate.of( 2020, 1, 31 ), StringCoercer.fromString( "2020-01-31", LocalDate.class ) );
+        Assert.assertEquals( LocalDateTime.parse( "2020-01-31T10:15" ), StringCoercer.fromString( "2020-01-31T10:15", LocalDateTime.class ) );
+        Assert.assertEquals( LocalDateTime.parse( "2020-01-31T10:15:30.25" ),
+            StringCoercer.fromString( "2020-01-31T10:15:30.25", LocalDateTime.class ) );
+        Assert.assertEquals( Instant.parse( "2020-01-31T10:15:30Z" ), StringCoercer.fromString( "2020-01-31T10:15:30Z", Instant.class ) );
+        Assert.assertEquals( OffsetDateTime.parse( "2020-01-31T10:15:30-05:30" ),
+            StringCoercer.fromString( "2020-01-31T10:15:30-05:30", OffsetDateTime.class ) );
+    }
+
+    @Test
+    public void test_slow_path()
+        throws Exception
+    {
+        Assert.assertEquals( Instant.parse( "2020-01-31T10:15:30.123456Z" ),
+            StringCoercer.fromString( "2020-01-31T10:15:30.123456Z", Instant.class ) );
+        Assert.assertEquals( Duration.ofSeconds( 90 ), StringCoercer.fromString( "PT90S", Duration.class ) );
+        Assert.assertEquals( Period.ofDays( 3 ), StringCoercer.fromString( "P3D", Period.class ) );
+    }
+
+    @Test( expected = RuntimeException.class )
+    public void test_invalid_date()
+        throws Exception
+    {
+        StringCoercer.fromString( "2020-13-01", LocalDate.class );
+    }
+
+    @Test
+    public void test_date()
+        throws Exception
+    {
+        Date expected = Date.from( LocalDate.of( 2020, 1, 31 ).atStartOfDay( ZoneId.systemDefault() ).toInstant() );
+        Assert.assertEquals( expected, StringCoercer.fromString( "2020-01-31", Date.class ) );
+        Assert.assertEquals( Date.from( Instant.parse( "2020-01-31T10:15:30Z" ) ), StringCoercer.fromString( "2020-01-31T10:15:30Z", Date.class ) );
+    }
+
+    @Test
+    public void test_format()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        Map<String, String> values = new HashMap<>();
+        values.put( "day", "31/01/2020" );
+        values.put( "when", "2020.01.31 10:15" );
+        new ParamFields( params ).setValues( values );
+        Assert.assertEquals( LocalDate.of( 2020, 1, 31 ), params.day );
+        Assert.assertEquals( Instant.parse( "2020-01-31T10:15:00Z" ), params.when );
+    }
+
+    @Test
+    public void test_format_build_args()
+        throws Exception
+    {
+        TestParams params = new TestParams();
+        params.day = LocalDate.of( 2020, 1, 31 );
+        params.when = Instant.parse( "2020-01-31T10:15:00Z" );
+        Assert.assertEquals( Arrays.asList( "x", "--day=31/01/2020", "--when=2020.01.31 10:15" ), new ParamFields( params ).appendArgs( "x" ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_format_unsupported_type()
+        throws Exception
+    {
+        ParamSchema.of( BadFormatParams.class );
+    }
+
+    static class TestParams
+    {
+        @ParamField( value = "day", format = "dd/MM/yyyy" )
+        private LocalDate day;
+
+        @ParamField( value = "when", format = "yyyy.MM.dd HH:mm" )
+        private Instant when;
+    }
+
+    static class BadFormatParams
+    {
+        @ParamField( value = "count", format = "yyyy" )
+        private int count;
+    }
+}
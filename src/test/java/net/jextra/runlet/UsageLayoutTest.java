@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) jextra.net.
+ *
+ * This file is part of the jextra.net software.
+ *
+ * The jextra software is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * The jextra software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with the jextra software; if not, write to the Free
+ * Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ * 02111-1307 USA.
+ */
+
+package net.jextra.runlet;
+
+import java.io.*;
+import java.util.*;
+import org.junit.*;
+
+public class UsageLayoutTest
+{
+    @Test
+    public void test_layout()
+        throws Exception
+    {
+        UsageLayout layout = new UsageLayout( "tool", ParamSchema.of( TestParams.class ), Collections.emptyList(), 80 );
+        ParamValues values = new ParamValues();
+        values.add( "name", "given" );
+        values.add( "count", "3" );
+
+        StringWriter out = new StringWriter();
+        layout.write( out, values );
+        String expected = "\nUsage:\n" + "    tool [--prompt] --name=name [--count=count]\n" + "    tool --help|-h|-? \n"
+            + "\n    --name            The name    [value='given']" + "\n    --[count]         count    [value='3']" + "\n"
+            + "\n    --prompt          Prompt user for unspecified parameters on command line"
+            + "\n    --help, -h, -?    Display this help\n\n";
+        Assert.assertEquals( expected, out.toString() );
+    }
+
+    @Test
+    public void test_wrapping()
+        throws Exception
+    {
+        UsageLayout layout = new UsageLayout( "tool", ParamSchema.of( TestParams.class ), Collections.emptyList(), 40 );
+        StringWriter out = new StringWriter();
+        layout.write( out, new ParamValues() );
+        for ( String line : out.toString().split( "\n" ) )
+        {
+            Assert.assertTrue( line, line.length() <= 40 || !line.trim().contains( " " ) );
+        }
+        Assert.assertTrue( out.toString().contains( "\n                      unspecified" ) );
+    }
+
+    @Test
+    public void test_cached_in_schema()
+    {
+        ParamSchema schema = ParamSchema.of( TestParams.class );
+        UsageLayout layout = schema.getUsageLayout( Object.class, "tool", Collections.emptyList(), 80 );
+        Assert.assertSame( layout, schema.getUsageLayout( Object.class, "tool", Collections.emptyList(), 80 ) );
+        Assert.assertNotSame( layout, schema.getUsageLayout( Object.class, "tool", Collections.emptyList(), 100 ) );
+    }
+
+    public static class TestParams
+    {
+        @ParamField( value = "name", description = "The name" )
+        String name;
+
+        @ParamField( value = "count", required = false )
+        int count;
+
+        @ParamField( value = "secret", hidden = true )
+        String secret;
+    }
+}